@@ -0,0 +1,62 @@
+package com.hotelmanagement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the analytics tab waits for: a year of nightly occupancy, ADR and RevPAR from the rollup
+ * tables, for one hotel or for the whole chain. The rollup is built once from the seeded stays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    private static final LocalDate FROM = BenchmarkDatabase.FIRST_DAY;
+    private static final LocalDate TO = FROM.plusYears(1).minusDays(1);
+
+    @Param({"1000", "100000"})
+    public int rooms;
+
+    // 0 is the whole chain
+    @Param({"0", "1"})
+    public int hotelId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.useChain(rooms);
+        for (int id = 1; id <= BenchmarkDatabase.hotelCount(rooms); id++) {
+            OccupancyRollup.rebuildHotel(id);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Database.shutdown();
+    }
+
+    @Benchmark
+    public OccupancyRollup.Series year() throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            return OccupancyRollup.load(conn, hotelId, null, FROM, TO);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hotelmanagement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free-room queries for a random week: the in-memory AvailabilityEngine per hotel and across the
+ * whole chain, the equivalent NOT EXISTS query in the database as a baseline, and the cost of
+ * building the engine from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final String FREE_ROOMS_SQL = "SELECT number FROM rooms ro WHERE hotel_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM reservations r WHERE r.room_number = ro.number " +
+            "AND r.check_in < ? AND r.check_out > ?) ORDER BY number";
+
+    @Param({"10", "1000", "100000"})
+    public int rooms;
+
+    private Connection conn;
+    private AvailabilityEngine engine;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.useChain(rooms);
+        conn = Database.getConnection();
+        engine = AvailabilityEngine.load(conn);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+        Database.shutdown();
+    }
+
+    private LocalDate randomCheckIn() {
+        return BenchmarkDatabase.FIRST_DAY.plusDays(ThreadLocalRandom.current().nextInt(365));
+    }
+
+    private int randomHotel() {
+        return 1 + ThreadLocalRandom.current().nextInt(BenchmarkDatabase.hotelCount(rooms));
+    }
+
+    @Benchmark
+    public int[] engineFreeRoomsInHotel() {
+        LocalDate checkIn = randomCheckIn();
+        return engine.freeRooms(randomHotel(), checkIn, checkIn.plusDays(7), null);
+    }
+
+    @Benchmark
+    public int[] engineFreeRoomsInChain() {
+        LocalDate checkIn = randomCheckIn();
+        return engine.freeRooms(null, checkIn, checkIn.plusDays(7), null);
+    }
+
+    @Benchmark
+    public int sqlFreeRoomsInHotel() throws SQLException {
+        LocalDate checkIn = randomCheckIn();
+        PreparedStatement pstmt = conn.prepareStatement(FREE_ROOMS_SQL);
+        pstmt.setInt(1, randomHotel());
+        pstmt.setDate(2, Date.valueOf(checkIn.plusDays(7)));
+        pstmt.setDate(3, Date.valueOf(checkIn));
+        ResultSet rs = pstmt.executeQuery();
+        int count = 0;
+        while (rs.next()) {
+            count++;
+        }
+        pstmt.close();
+        return count;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public AvailabilityEngine loadEngine() throws SQLException {
+        return AvailabilityEngine.load(conn);
+    }
+}
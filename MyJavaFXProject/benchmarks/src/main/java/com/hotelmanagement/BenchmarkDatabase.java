@@ -0,0 +1,152 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic hotel chains in an in-memory H2 database running in MySQL mode.
+ * <p>
+ * A chain of N rooms has one hotel per 50 rooms, N customers and about ten past or future stays
+ * per room. Everything comes from a fixed seed, so every run benchmarks the same data.
+ */
+final class BenchmarkDatabase {
+
+    static final int ROOMS_PER_HOTEL = 50;
+    static final int STAYS_PER_ROOM = 10;
+    static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    private static final String[] ROOM_TYPES = {"Single", "Double", "Twin", "Suite", "Deluxe", "Family"};
+    private static final String[] FIRST_NAMES = {"Amina", "Youcef", "Sarah", "Karim", "Lina", "Omar", "Nour",
+            "Walid", "Ines", "Rayan", "Maya", "Samir", "Lea", "Hugo", "Emma", "Noah"};
+    private static final String[] LAST_NAMES = {"Benali", "Haddad", "Martin", "Bernard", "Mansouri", "Dubois",
+            "Cherif", "Laurent", "Meziane", "Garcia", "Rahmani", "Petit", "Boudiaf", "Moreau"};
+    private static final int BATCH_SIZE = 1000;
+
+    private BenchmarkDatabase() {
+    }
+
+    static String url(int rooms) {
+        return "jdbc:h2:mem:hotel_" + rooms + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    // Seeds the chain if needed and points Database at it. JMH runs each trial in its own JVM,
+    // so this is called before Database is first touched there.
+    static void useChain(int rooms) throws SQLException {
+        System.setProperty("hotel.db.url", url(rooms));
+        System.setProperty("hotel.db.user", "sa");
+        System.setProperty("hotel.db.password", "");
+        try (Connection conn = DriverManager.getConnection(url(rooms), "sa", "")) {
+            ResultSet rs = conn.getMetaData().getTables(null, null, "reservations", null);
+            if (!rs.next()) {
+                seed(conn, rooms);
+            }
+        }
+    }
+
+    static int hotelCount(int rooms) {
+        return (rooms + ROOMS_PER_HOTEL - 1) / ROOMS_PER_HOTEL;
+    }
+
+    static List<Room> rooms(int rooms) {
+        Random random = new Random(1);
+        List<Room> list = new ArrayList<>(rooms);
+        for (int number = 1; number <= rooms; number++) {
+            list.add(new Room(number, ROOM_TYPES[random.nextInt(ROOM_TYPES.length)], true,
+                    (number - 1) / ROOMS_PER_HOTEL + 1));
+        }
+        return list;
+    }
+
+    static List<Customer> customers(int count) {
+        Random random = new Random(2);
+        List<Customer> list = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            list.add(new Customer(id, first + " " + last,
+                    first.toLowerCase() + "." + last.toLowerCase() + id + "@example.com",
+                    String.format("06%08d", id), id + " Rue des Oliviers"));
+        }
+        return list;
+    }
+
+    private static void seed(Connection conn, int rooms) throws SQLException {
+        SchemaMigrator.migrate(conn);
+
+        conn.setAutoCommit(false);
+        PreparedStatement hotels = conn.prepareStatement(
+                "INSERT INTO hotels (id, name, description, address, rating) VALUES (?, ?, ?, ?, ?)");
+        for (int id = 1; id <= hotelCount(rooms); id++) {
+            hotels.setInt(1, id);
+            hotels.setString(2, "Hotel " + id);
+            hotels.setString(3, "Synthetic hotel number " + id);
+            hotels.setString(4, id + " Boulevard de la Mer");
+            hotels.setDouble(5, 1 + (id % 5));
+            hotels.addBatch();
+        }
+        hotels.executeBatch();
+
+        PreparedStatement roomInsert = conn.prepareStatement(
+                "INSERT INTO rooms (number, type, available, hotel_id) VALUES (?, ?, ?, ?)");
+        int pending = 0;
+        for (Room room : rooms(rooms)) {
+            roomInsert.setInt(1, room.getNumber());
+            roomInsert.setString(2, room.getType());
+            roomInsert.setBoolean(3, true);
+            roomInsert.setInt(4, room.getHotelId());
+            roomInsert.addBatch();
+            if (++pending % BATCH_SIZE == 0) {
+                roomInsert.executeBatch();
+            }
+        }
+        roomInsert.executeBatch();
+
+        PreparedStatement customerInsert = conn.prepareStatement(
+                "INSERT INTO customers (id, name, email, phone, address) VALUES (?, ?, ?, ?, ?)");
+        pending = 0;
+        for (Customer customer : customers(rooms)) {
+            customerInsert.setInt(1, customer.getId());
+            customerInsert.setString(2, customer.getName());
+            customerInsert.setString(3, customer.getEmail());
+            customerInsert.setString(4, customer.getPhone());
+            customerInsert.setString(5, customer.getAddress());
+            customerInsert.addBatch();
+            if (++pending % BATCH_SIZE == 0) {
+                customerInsert.executeBatch();
+            }
+        }
+        customerInsert.executeBatch();
+
+        // Back-to-back stays with random gaps, so no two stays of a room overlap
+        Random random = new Random(3);
+        PreparedStatement stayInsert = conn.prepareStatement(
+                "INSERT INTO reservations (customer_id, room_number, check_in, check_out) VALUES (?, ?, ?, ?)");
+        pending = 0;
+        for (int number = 1; number <= rooms; number++) {
+            LocalDate day = FIRST_DAY.plusDays(random.nextInt(30));
+            for (int i = 0; i < STAYS_PER_ROOM; i++) {
+                LocalDate checkOut = day.plusDays(1 + random.nextInt(7));
+                stayInsert.setInt(1, 1 + random.nextInt(rooms));
+                stayInsert.setInt(2, number);
+                stayInsert.setDate(3, Date.valueOf(day));
+                stayInsert.setDate(4, Date.valueOf(checkOut));
+                stayInsert.addBatch();
+                if (++pending % BATCH_SIZE == 0) {
+                    stayInsert.executeBatch();
+                }
+                day = checkOut.plusDays(random.nextInt(30));
+            }
+        }
+        stayInsert.executeBatch();
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+}
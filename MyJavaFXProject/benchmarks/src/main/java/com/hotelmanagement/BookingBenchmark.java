@@ -0,0 +1,63 @@
+package com.hotelmanagement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of BookingService.book: lock the room, check for overlaps, insert, add the nights
+ * to the occupancy rollup, refresh the room's availability, commit. Stays are drawn from a ten-year window after the seeded data,
+ * so most succeed; conflicts are part of the measured work. Run with -t to vary the number of
+ * concurrent desks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class BookingBenchmark {
+
+    private static final LocalDate FIRST_BOOKABLE_DAY = BenchmarkDatabase.FIRST_DAY.plusYears(5);
+
+    @Param({"10", "1000", "100000"})
+    public int rooms;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.useChain(rooms);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Database.shutdown();
+    }
+
+    @Benchmark
+    public int book() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate checkIn = FIRST_BOOKABLE_DAY.plusDays(random.nextInt(3650));
+        try {
+            return BookingService.book(1 + random.nextInt(rooms), 1 + random.nextInt(rooms),
+                    checkIn, checkIn.plusDays(1 + random.nextInt(5)));
+        } catch (BookingConflictException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotelmanagement;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One search-box query against a fully loaded table, the way Dashboard's filterRooms and
+ * filterCustomers run it: update the SearchIndex, then hand the FilteredList a new predicate.
+ * The linear scan is the pre-index implementation, kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final String[] QUERIES = {"sui", "12", "deluxe", "benali", "xyz"};
+
+    @Param({"10", "1000", "100000"})
+    public int rooms;
+
+    private SearchIndex<Room> roomIndex;
+    private FilteredList<Room> filteredRooms;
+    private SearchIndex<Customer> customerIndex;
+    private FilteredList<Customer> filteredCustomers;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        ObservableList<Room> roomData = FXCollections.observableArrayList(BenchmarkDatabase.rooms(rooms));
+        roomIndex = new SearchIndex<>(roomData, room -> String.valueOf(room.getNumber()), Room::getType);
+        filteredRooms = new FilteredList<>(roomData);
+
+        ObservableList<Customer> customerData =
+                FXCollections.observableArrayList(BenchmarkDatabase.customers(rooms));
+        customerIndex = new SearchIndex<>(customerData, Customer::getName, Customer::getEmail);
+        filteredCustomers = new FilteredList<>(customerData);
+    }
+
+    private String nextQuery() {
+        next = (next + 1) % QUERIES.length;
+        return QUERIES[next];
+    }
+
+    @Benchmark
+    public int filterRooms() {
+        roomIndex.setQuery(nextQuery());
+        filteredRooms.setPredicate(room -> roomIndex.matches(room));
+        return filteredRooms.size();
+    }
+
+    @Benchmark
+    public int filterCustomers() {
+        customerIndex.setQuery(nextQuery());
+        filteredCustomers.setPredicate(customer -> customerIndex.matches(customer));
+        return filteredCustomers.size();
+    }
+
+    @Benchmark
+    public int filterCustomersLinearScan() {
+        String query = nextQuery().toLowerCase(Locale.ROOT);
+        filteredCustomers.setPredicate(customer -> customer.getName().toLowerCase(Locale.ROOT).contains(query)
+                || customer.getEmail().toLowerCase(Locale.ROOT).contains(query));
+        return filteredCustomers.size();
+    }
+}
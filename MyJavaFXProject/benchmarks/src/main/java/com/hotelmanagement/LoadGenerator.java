@@ -0,0 +1,265 @@
+package com.hotelmanagement;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless load test that simulates many front desks booking at once.
+ * <p>
+ * Every session is a desk on its own virtual thread: it waits an exponentially distributed think
+ * time (so arrivals across desks form a Poisson process), then books a room, moves one of its
+ * bookings to other dates, or cancels one, through the same BookingService calls the Dashboard
+ * makes. At the end it prints throughput, p50/p99/max latency and the conflict rate per operation,
+ * plus how busy the connection pool was.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.hotelmanagement.LoadGenerator \
+ *     --sessions=200 --think-ms=2000 --duration-s=60 --rooms=1000 --pool-size=20
+ * </pre>
+ * By default it runs against a seeded H2 chain of {@code --rooms} rooms; {@code --url},
+ * {@code --user} and {@code --password} point it at a real MySQL database instead.
+ */
+public class LoadGenerator {
+
+    private enum Operation { BOOK, RESCHEDULE, CANCEL }
+
+    private static final int MAX_STAY_NIGHTS = 7;
+    private static final int BOOKING_WINDOW_DAYS = 365;
+    private static final long POOL_SAMPLE_MS = 100;
+
+    private final int sessions;
+    private final long thinkMillis;
+    private final long durationMillis;
+    private final int rooms;
+    private final int customers;
+    private final int bookPercent;
+    private final int reschedulePercent;
+    private final LocalDate firstBookableDay = LocalDate.now().plusDays(1);
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final AtomicLong poolSamples = new AtomicLong();
+    private final AtomicLong activeSum = new AtomicLong();
+    private final AtomicLong maxActive = new AtomicLong();
+    private final AtomicLong waitingSum = new AtomicLong();
+    private final AtomicLong maxWaiting = new AtomicLong();
+
+    private LoadGenerator(int sessions, long thinkMillis, long durationMillis, int rooms, int customers,
+            int bookPercent, int reschedulePercent) {
+        this.sessions = sessions;
+        this.thinkMillis = thinkMillis;
+        this.durationMillis = durationMillis;
+        this.rooms = rooms;
+        this.customers = customers;
+        this.bookPercent = bookPercent;
+        this.reschedulePercent = reschedulePercent;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rooms = Integer.parseInt(options.getOrDefault("rooms", "1000"));
+        System.setProperty("hotel.db.poolSize", options.getOrDefault("pool-size", "10"));
+        if (options.containsKey("url")) {
+            System.setProperty("hotel.db.url", options.get("url"));
+            System.setProperty("hotel.db.user", options.getOrDefault("user", "root"));
+            System.setProperty("hotel.db.password", options.getOrDefault("password", ""));
+        } else {
+            System.out.println("Seeding H2 chain with " + rooms + " rooms...");
+            BenchmarkDatabase.useChain(rooms);
+        }
+
+        LoadGenerator generator = new LoadGenerator(
+                Integer.parseInt(options.getOrDefault("sessions", "200")),
+                Long.parseLong(options.getOrDefault("think-ms", "2000")),
+                Long.parseLong(options.getOrDefault("duration-s", "60")) * 1000,
+                rooms,
+                Integer.parseInt(options.getOrDefault("customers", String.valueOf(rooms))),
+                Integer.parseInt(options.getOrDefault("book-percent", "60")),
+                Integer.parseInt(options.getOrDefault("reschedule-percent", "25")));
+        generator.run();
+        Database.shutdown();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("%d sessions, mean think time %d ms (offered load ~%.0f ops/s), %d s%n",
+                sessions, thinkMillis, sessions * 1000.0 / thinkMillis, durationMillis / 1000);
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(this::samplePool, 0, POOL_SAMPLE_MS, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        ExecutorService desks = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < sessions; i++) {
+            desks.execute(() -> session(deadline));
+        }
+        desks.shutdown();
+        desks.awaitTermination(durationMillis + 60_000, TimeUnit.MILLISECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        sampler.shutdownNow();
+
+        report(elapsedSeconds);
+    }
+
+    // One front desk: think, act, repeat until the deadline
+    private void session(long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<int[]> bookings = new ArrayList<>(); // {reservationId, roomNumber}
+        while (true) {
+            long think = (long) (-Math.log(1 - random.nextDouble()) * thinkMillis);
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(think) >= deadline) {
+                return;
+            }
+            try {
+                Thread.sleep(think);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            int roll = random.nextInt(100);
+            Operation operation = bookings.isEmpty() || roll < bookPercent ? Operation.BOOK
+                    : roll < bookPercent + reschedulePercent ? Operation.RESCHEDULE : Operation.CANCEL;
+            long opStart = System.nanoTime();
+            boolean conflict = false;
+            try {
+                switch (operation) {
+                    case BOOK -> {
+                        LocalDate checkIn = randomCheckIn(random);
+                        int room = 1 + random.nextInt(rooms);
+                        int id = BookingService.book(1 + random.nextInt(customers), room, checkIn,
+                                checkIn.plusDays(1 + random.nextInt(MAX_STAY_NIGHTS)));
+                        bookings.add(new int[]{id, room});
+                    }
+                    case RESCHEDULE -> {
+                        int[] booking = bookings.get(random.nextInt(bookings.size()));
+                        LocalDate checkIn = randomCheckIn(random);
+                        BookingService.reschedule(booking[0], booking[1], checkIn,
+                                checkIn.plusDays(1 + random.nextInt(MAX_STAY_NIGHTS)));
+                    }
+                    case CANCEL -> {
+                        int[] booking = bookings.remove(random.nextInt(bookings.size()));
+                        BookingService.cancel(booking[0], booking[1]);
+                    }
+                }
+            } catch (BookingConflictException e) {
+                conflict = true;
+            } catch (SQLException | RuntimeException e) {
+                stats.get(operation).error(e);
+                continue;
+            }
+            stats.get(operation).record(System.nanoTime() - opStart, conflict);
+        }
+    }
+
+    private LocalDate randomCheckIn(ThreadLocalRandom random) {
+        return firstBookableDay.plusDays(random.nextInt(BOOKING_WINDOW_DAYS));
+    }
+
+    private void samplePool() {
+        ConnectionPool pool = Database.getPool();
+        int active = pool.getActiveConnections();
+        int waiting = pool.getThreadsAwaitingConnection();
+        poolSamples.incrementAndGet();
+        activeSum.addAndGet(active);
+        maxActive.accumulateAndGet(active, Math::max);
+        waitingSum.addAndGet(waiting);
+        maxWaiting.accumulateAndGet(waiting, Math::max);
+    }
+
+    private void report(double elapsedSeconds) {
+        System.out.printf("%n%-11s %8s %9s %9s %9s %9s %9s %7s%n",
+                "operation", "count", "ops/s", "p50 ms", "p99 ms", "max ms", "conflict", "errors");
+        long total = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            long[] latencies = s.sortedLatencies();
+            total += latencies.length;
+            System.out.printf("%-11s %8d %9.1f %9.2f %9.2f %9.2f %8.1f%% %7d%n",
+                    entry.getKey().name().toLowerCase(), latencies.length, latencies.length / elapsedSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0),
+                    latencies.length == 0 ? 0 : 100.0 * s.conflicts / latencies.length, s.errors);
+            if (s.firstError != null) {
+                System.out.println("            first error: " + s.firstError);
+            }
+        }
+        System.out.printf("%-11s %8d %9.1f%n", "total", total, total / elapsedSeconds);
+
+        ConnectionPool pool = Database.getPool();
+        long samples = Math.max(1, poolSamples.get());
+        System.out.printf("%nConnection pool (max %d): active avg %.1f / max %d, waiting avg %.1f / max %d%n",
+                pool.getMaxSize(), (double) activeSum.get() / samples, maxActive.get(),
+                (double) waitingSum.get() / samples, maxWaiting.get());
+        System.out.printf("  borrows %d, wait avg %.2f ms / max %.2f ms, timeouts %d, connections created %d%n",
+                pool.getTotalBorrows(), pool.getAverageWaitMillis(), pool.getMaxWaitMillis(),
+                pool.getTimeoutCount(), pool.getCreatedCount());
+        System.out.printf("  statements: cache hits %d, prepared %d (%.1f%% hit), avg prepare %.3f ms, "
+                + "~%.0f ms of prepares saved%n", pool.getStatementCacheHits(), pool.getStatementCacheMisses(),
+                100 * pool.getStatementCacheHitRatio(), pool.getAveragePrepareMillis(), pool.getPrepareMillisSaved());
+    }
+
+    // Latencies are nanoseconds; result in milliseconds
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static class Stats {
+        private long[] latencies = new long[1024];
+        private int count = 0;
+        private long conflicts = 0;
+        private long errors = 0;
+        private String firstError;
+
+        synchronized void record(long nanos, boolean conflict) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (conflict) {
+                conflicts++;
+            }
+        }
+
+        synchronized void error(Exception e) {
+            errors++;
+            if (firstError == null) {
+                firstError = e.toString();
+            }
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.hotelmanagement;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Retained heap per row of the Dashboard models, as the tables hold them: every room and
+ * reservation of a seeded chain is paged in through the repositories and kept in a list, then the
+ * heap is measured after a full GC with the rows held and again once they are dropped, so the
+ * in-memory database's own caches cancel out. Allocation per page is measured by
+ * RowMappingBenchmark with {@code -prof gc}.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.hotelmanagement.ModelFootprint --rooms=100000
+ * </pre>
+ */
+public class ModelFootprint {
+
+    private static final int PAGE_SIZE = 200;
+
+    private static List<?> held;
+
+    private interface PageQuery<T> {
+        List<T> page(Connection conn, long key) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rooms = 100_000;
+        for (String arg : args) {
+            if (arg.startsWith("--rooms=")) {
+                rooms = Integer.parseInt(arg.substring("--rooms=".length()));
+            }
+        }
+        BenchmarkDatabase.useChain(rooms);
+        RoomRepository roomRepository = new RoomRepository();
+        ReservationRepository reservationRepository = new ReservationRepository();
+        try (Connection conn = Database.getConnection()) {
+            report("Room", conn, (c, key) -> roomRepository.findPage(c, key, true, PAGE_SIZE), Room::getNumber);
+            report("Reservation", conn, (c, key) -> reservationRepository.findPage(c, key, true, PAGE_SIZE),
+                    Reservation::getId);
+        }
+        Database.shutdown();
+    }
+
+    private static <T> void report(String name, Connection conn, PageQuery<T> query, ToLongFunction<T> key)
+            throws SQLException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ArrayList<T> rows = new ArrayList<>();
+        long last = 0;
+        while (true) {
+            List<T> page = query.page(conn, last);
+            if (page.isEmpty()) {
+                break;
+            }
+            rows.addAll(page);
+            last = key.applyAsLong(page.get(page.size() - 1));
+        }
+        int count = rows.size();
+        held = rows;
+        long withRows = usedAfterGc(memory);
+        // The list and its array stay reachable through 'held'; only the rows are released
+        rows.replaceAll(row -> null);
+        long withoutRows = usedAfterGc(memory);
+        System.out.printf("%-12s %,10d rows  %6.1f bytes/row retained%n", name, count,
+                (double) (withRows - withoutRows) / count);
+        held = null;
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,89 @@
+package com.hotelmanagement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of ReportEngine queries with the number of cores. Five years of a 2,000-hotel chain,
+ * built directly in memory so only the scan is measured; compare the scores across
+ * {@code parallelism} to see how close to linear each grouping gets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ReportBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2020, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+    private static final String[] ROOM_TYPES = {"Single", "Double", "Twin", "Suite", "Deluxe", "Family"};
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"5000000"})
+    public int stays;
+
+    // Small, medium and large numbers of groups
+    @Param({"ROOM_TYPE,MONTH", "HOTEL,YEAR", "WEEKDAY"})
+    public String groupBy;
+
+    private ReportEngine engine;
+    private ReportEngine.Query query;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(4);
+        int hotels = 2000;
+        ReportEngine.Builder builder = new ReportEngine.Builder();
+        for (int hotel = 1; hotel <= hotels; hotel++) {
+            for (int room = 0; room < BenchmarkDatabase.ROOMS_PER_HOTEL; room++) {
+                builder.addRoom(hotel, ROOM_TYPES[room % ROOM_TYPES.length]);
+            }
+        }
+        int firstDay = (int) FROM.toEpochDay();
+        int days = (int) (TO.toEpochDay() - FROM.toEpochDay());
+        for (int i = 0; i < stays; i++) {
+            int checkIn = firstDay + random.nextInt(days);
+            builder.addStay(1 + random.nextInt(hotels), ROOM_TYPES[random.nextInt(ROOM_TYPES.length)],
+                    checkIn, checkIn + 1 + random.nextInt(7));
+        }
+        engine = builder.build();
+
+        String[] names = groupBy.split(",");
+        ReportEngine.Dimension[] dimensions = new ReportEngine.Dimension[names.length];
+        for (int i = 0; i < names.length; i++) {
+            dimensions[i] = ReportEngine.Dimension.valueOf(names[i]);
+        }
+        query = new ReportEngine.Query().between(FROM, TO).groupBy(dimensions);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public ReportEngine.Report report() {
+        return engine.run(query, pool);
+    }
+}
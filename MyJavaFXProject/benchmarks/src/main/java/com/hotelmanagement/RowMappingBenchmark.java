@@ -0,0 +1,81 @@
+package com.hotelmanagement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching and mapping one Dashboard page (200 rows) from a random keyset position, through the
+ * same repository page queries the tables use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final int PAGE_SIZE = 200;
+
+    @Param({"10", "1000", "100000"})
+    public int rooms;
+
+    private final HotelRepository hotels = new HotelRepository();
+    private final RoomRepository roomRepository = new RoomRepository();
+    private final ReservationRepository reservations = new ReservationRepository();
+    private final CustomerRepository customers = new CustomerRepository();
+    private Connection conn;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.useChain(rooms);
+        conn = Database.getConnection();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.close();
+        Database.shutdown();
+    }
+
+    private long randomKey(int maxKey) {
+        return ThreadLocalRandom.current().nextInt(maxKey);
+    }
+
+    @Benchmark
+    public List<Hotel> hotelsPage() throws SQLException {
+        return hotels.findPage(conn, randomKey(BenchmarkDatabase.hotelCount(rooms)), true, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Room> roomsPage() throws SQLException {
+        return roomRepository.findPage(conn, randomKey(rooms), true, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Reservation> reservationsPage() throws SQLException {
+        return reservations.findPage(conn, randomKey(rooms * BenchmarkDatabase.STAYS_PER_ROOM),
+                true, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Customer> customersPage() throws SQLException {
+        return customers.findPage(conn, randomKey(rooms), true, PAGE_SIZE);
+    }
+}
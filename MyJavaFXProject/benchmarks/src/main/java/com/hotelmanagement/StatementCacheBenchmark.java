@@ -0,0 +1,73 @@
+package com.hotelmanagement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One click's worth of database work, borrowing a pooled connection per operation as the Dashboard
+ * does, with the pool's statement cache off (0) and on. The reservation join backs the table and
+ * dialogs; the overlap lookup runs on every booking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementCacheBenchmark {
+
+    @Param({"0", "100"})
+    public int statementCacheSize;
+
+    @Param({"1000"})
+    public int rooms;
+
+    private final ReservationRepository reservations = new ReservationRepository();
+
+    @Setup
+    public void setUp() throws SQLException {
+        // Read once when Database is first touched, which happens in this trial's JVM below
+        System.setProperty("hotel.db.statementCacheSize", String.valueOf(statementCacheSize));
+        BenchmarkDatabase.useChain(rooms);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println();
+        System.out.println(Database.getPool());
+        Database.shutdown();
+    }
+
+    @Benchmark
+    public Reservation reservationById() throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            return reservations.findById(conn,
+                    1 + ThreadLocalRandom.current().nextInt(rooms * BenchmarkDatabase.STAYS_PER_ROOM));
+        }
+    }
+
+    @Benchmark
+    public Reservation overlapCheck() throws SQLException {
+        LocalDate checkIn = BenchmarkDatabase.FIRST_DAY.plusDays(ThreadLocalRandom.current().nextInt(365));
+        try (Connection conn = Database.getConnection()) {
+            return reservations.findOverlap(conn, 1 + ThreadLocalRandom.current().nextInt(rooms),
+                    checkIn, checkIn.plusDays(3), null);
+        }
+    }
+}
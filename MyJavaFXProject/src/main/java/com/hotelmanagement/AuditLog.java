@@ -0,0 +1,507 @@
+package com.hotelmanagement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only record of who changed what from the Dashboard.
+ * <p>
+ * {@link #record} only queues the event, so a UI action never waits on the disk or the database.
+ * A background thread drains the queue in batches into the current segment file under
+ * {@code hotel.audit.dir}, one line per event ending in a CRC, and every few seconds ships the new
+ * lines to the {@code audit_log} table. The database is the lasting copy; a segment is deleted once
+ * everything in it has been shipped, except the one being appended to.
+ * <p>
+ * Segments are forced to disk according to {@code hotel.audit.fsync}: after every batch ("batch"),
+ * at most once a second ("interval", the default) or whenever the OS gets to it ("none"). On start
+ * the last segment is checked and a line torn by a crash is cut off. When the queue is full the
+ * caller waits briefly, then writes the queued events and its own, so nothing is dropped.
+ * <p>
+ * Events are numbered per desk, a random id kept next to the segments, so shipping can resume
+ * after the highest number the database already has.
+ */
+public class AuditLog {
+
+    private static final Path DIR = Paths.get(System.getProperty("hotel.audit.dir",
+            System.getProperty("user.home") + "/.hotel-management/audit"));
+    private static final String FSYNC = System.getProperty("hotel.audit.fsync", "interval");
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int BATCH_SIZE = 512;
+    private static final long FLUSH_MILLIS = 200;
+    private static final long FSYNC_INTERVAL_MILLIS = 1000;
+    private static final long SHIP_MILLIS = 5000;
+    private static final int SHIP_BATCH_SIZE = 500;
+    private static final long SEGMENT_BYTES = 16L << 20;
+    // How long a caller waits for room in the queue before writing its event itself
+    private static final long BACKPRESSURE_MILLIS = 100;
+    private static final int MAX_DETAIL_LENGTH = 255;
+
+    private static AuditLog shared;
+
+    private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ScheduledExecutorService scheduler;
+    private final String desk;
+
+    // Guarded by this: the segment being appended to and the number of the next event written
+    private FileChannel segment;
+    private Path segmentPath;
+    private long segmentSize;
+    private long nextSeq;
+    private boolean unforced;
+    private long lastForcedAt;
+    // Events that could not be written yet, oldest first
+    private final List<Event> unwritten = new ArrayList<>();
+
+    // Shipping state, only touched by ship() on the scheduler thread; -1 until the database is asked
+    private long shippedSeq = -1;
+    private Path shipSegment;
+    private long shipOffset;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong shipped = new AtomicLong();
+    private final AtomicLong callerWrites = new AtomicLong();
+
+    private AuditLog() throws IOException {
+        Files.createDirectories(DIR);
+        desk = readDeskId();
+        openLastSegment();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "audit-log");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> flush(null), FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::ship, SHIP_MILLIS, SHIP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized AuditLog shared() {
+        if (shared == null) {
+            try {
+                shared = new AuditLog();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open the audit log in " + DIR, e);
+            }
+        }
+        return shared;
+    }
+
+    // Writes out what is queued, forces it to disk and ships what it can before the database closes
+    public static synchronized void shutdown() {
+        if (shared == null) {
+            return;
+        }
+        AuditLog log = shared;
+        shared = null;
+        log.scheduler.shutdown();
+        try {
+            log.scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.flush(null);
+        log.ship();
+        log.close();
+    }
+
+    public void record(String user, String action, DataTable table, long key, String detail) {
+        if (detail != null && detail.length() > MAX_DETAIL_LENGTH) {
+            detail = detail.substring(0, MAX_DETAIL_LENGTH);
+        }
+        Event event = new Event(0, System.currentTimeMillis(), user, action, table.getTableName(), key, detail);
+        recorded.incrementAndGet();
+        try {
+            if (queue.offer(event, BACKPRESSURE_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The writer has fallen behind; write everything queued before this event, then this one
+        callerWrites.incrementAndGet();
+        flush(event);
+    }
+
+    // =================== Segments ===================
+    private synchronized void flush(Event extra) {
+        List<Event> batch = new ArrayList<>(unwritten);
+        unwritten.clear();
+        queue.drainTo(batch);
+        if (extra != null) {
+            batch.add(extra);
+        }
+        try {
+            for (int from = 0; from < batch.size(); from += BATCH_SIZE) {
+                write(batch.subList(from, Math.min(batch.size(), from + BATCH_SIZE)));
+            }
+            long now = System.currentTimeMillis();
+            if (unforced && (FSYNC.equals("batch")
+                    || (FSYNC.equals("interval") && now - lastForcedAt >= FSYNC_INTERVAL_MILLIS))) {
+                segment.force(false);
+                unforced = false;
+                lastForcedAt = now;
+            }
+        } catch (IOException e) {
+            System.err.println("Audit log write failed: " + e.getMessage());
+            for (Event event : batch) {
+                if (event.seq == 0) {
+                    unwritten.add(event);
+                }
+            }
+        }
+    }
+
+    private void write(List<Event> events) throws IOException {
+        StringBuilder lines = new StringBuilder(events.size() * 96);
+        long seq = nextSeq;
+        for (Event event : events) {
+            lines.append(format(seq++, event));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+        } catch (IOException e) {
+            // Don't leave half a batch behind; the events will be numbered again on the retry
+            segment.truncate(segmentSize);
+            throw e;
+        }
+        for (Event event : events) {
+            event.seq = nextSeq++;
+        }
+        segmentSize += buffer.limit();
+        unforced = true;
+        written.addAndGet(events.size());
+
+        if (segmentSize >= SEGMENT_BYTES) {
+            segment.force(false);
+            segment.close();
+            openSegment(DIR.resolve(segmentName(nextSeq)));
+        }
+    }
+
+    // Continues the newest segment, cutting off a line a crash left half written
+    private void openLastSegment() throws IOException {
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            nextSeq = 1;
+            openSegment(DIR.resolve(segmentName(nextSeq)));
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        byte[] bytes = Files.readAllBytes(last);
+        long[] lastSeq = {firstSeqOf(last) - 1};
+        int valid = intactLength(bytes, lastSeq);
+        nextSeq = lastSeq[0] + 1;
+        openSegment(last);
+        if (valid < bytes.length) {
+            System.err.println("Audit log: dropping " + (bytes.length - valid) + " torn bytes from " + last);
+            segment.truncate(valid);
+            segment.force(false);
+        }
+        segmentSize = valid;
+        segment.position(valid);
+    }
+
+    // Length of the whole, intact lines a segment starts with; stores the last one's seq in lastSeq[0]
+    static int intactLength(byte[] bytes, long[] lastSeq) {
+        int valid = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                Event event = parse(new String(bytes, valid, i - valid, StandardCharsets.UTF_8));
+                if (event == null) {
+                    break;
+                }
+                lastSeq[0] = event.seq;
+                valid = i + 1;
+            }
+        }
+        return valid;
+    }
+
+    private void openSegment(Path path) throws IOException {
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segmentPath = path;
+        segmentSize = 0;
+    }
+
+    private synchronized void close() {
+        try {
+            segment.force(false);
+            segment.close();
+        } catch (IOException e) {
+            System.err.println("Audit log close failed: " + e.getMessage());
+        }
+    }
+
+    private static List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> dir = Files.newDirectoryStream(DIR, "audit-*.log")) {
+            for (Path path : dir) {
+                segments.add(path);
+            }
+        }
+        // Names are zero padded, so name order is sequence order
+        segments.sort(null);
+        return segments;
+    }
+
+    private static String segmentName(long firstSeq) {
+        return String.format("audit-%019d.log", firstSeq);
+    }
+
+    private static long firstSeqOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("audit-".length(), name.length() - ".log".length()));
+    }
+
+    private static String readDeskId() throws IOException {
+        Path file = DIR.resolve("desk.id");
+        if (Files.exists(file)) {
+            return Files.readString(file).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id);
+        return id;
+    }
+
+    // =================== Shipping ===================
+    private void ship() {
+        if (OfflineStore.isOffline()) {
+            return;
+        }
+        try {
+            if (shippedSeq < 0) {
+                shippedSeq = highestShipped();
+            }
+            List<Event> batch;
+            do {
+                batch = new ArrayList<>();
+                long[] end = new long[1];
+                Path from;
+                synchronized (this) {
+                    from = readUnshipped(batch, end);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                insert(batch);
+                shippedSeq = batch.get(batch.size() - 1).seq;
+                shipped.addAndGet(batch.size());
+                shipSegment = from;
+                shipOffset = end[0];
+            } while (batch.size() == SHIP_BATCH_SIZE);
+        } catch (SQLException | IOException e) {
+            // Nothing is lost; the next ship starts from the same place
+            System.err.println("Audit log shipping failed: " + e.getMessage());
+        }
+    }
+
+    // Reads up to a batch of events after shippedSeq, deleting segments left fully shipped on the way.
+    // Returns the segment the batch ends in and stores the offset just after it in end[0].
+    private Path readUnshipped(List<Event> batch, long[] end) throws IOException {
+        for (Path path : listSegments()) {
+            if (shipSegment != null && path.compareTo(shipSegment) < 0) {
+                continue;
+            }
+            long offset = path.equals(shipSegment) ? shipOffset : 0;
+            byte[] bytes;
+            try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = path.equals(segmentPath) ? segmentSize : in.size();
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, size - offset));
+                while (buffer.hasRemaining()) {
+                    if (in.read(buffer, offset + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                bytes = buffer.array();
+            }
+            int start = 0;
+            for (int i = 0; i < bytes.length && batch.size() < SHIP_BATCH_SIZE; i++) {
+                if (bytes[i] == '\n') {
+                    Event event = parse(new String(bytes, start, i - start, StandardCharsets.UTF_8));
+                    start = i + 1;
+                    if (event != null && event.seq > shippedSeq) {
+                        batch.add(event);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                end[0] = offset + start;
+                return path;
+            }
+            if (!path.equals(segmentPath)) {
+                Files.delete(path);
+            }
+        }
+        return null;
+    }
+
+    private long highestShipped() throws SQLException {
+        SchemaMigrator.ensureMigrated();
+        try (Connection conn = Database.getServerConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT COALESCE(MAX(seq), 0) FROM audit_log WHERE desk = ?")) {
+                pstmt.setString(1, desk);
+                ResultSet rs = pstmt.executeQuery();
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private void insert(List<Event> batch) throws SQLException {
+        try (Connection conn = Database.getServerConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO audit_log "
+                    + "(desk, seq, occurred_at, user_name, action, table_name, row_key, detail) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (Event event : batch) {
+                    pstmt.setString(1, desk);
+                    pstmt.setLong(2, event.seq);
+                    pstmt.setTimestamp(3, new Timestamp(event.occurredAt));
+                    pstmt.setString(4, event.user);
+                    pstmt.setString(5, event.action);
+                    pstmt.setString(6, event.table);
+                    pstmt.setLong(7, event.key);
+                    pstmt.setString(8, event.detail);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // =================== Line Format ===================
+    // seq, time, user, action, table, key, detail and a CRC32 of everything before it, tab separated
+    static String format(long seq, Event event) {
+        String body = seq + "\t" + event.occurredAt + "\t" + escape(event.user) + "\t" + escape(event.action)
+                + "\t" + event.table + "\t" + event.key + "\t" + escape(event.detail);
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return body + "\t" + Long.toHexString(crc.getValue()) + "\n";
+    }
+
+    // Returns null for a line that is torn or corrupt
+    static Event parse(String line) {
+        int crcAt = line.lastIndexOf('\t');
+        if (crcAt < 0) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(line.substring(0, crcAt).getBytes(StandardCharsets.UTF_8));
+        String[] fields = line.substring(0, crcAt).split("\t", -1);
+        if (fields.length != 7 || !Long.toHexString(crc.getValue()).equals(line.substring(crcAt + 1))) {
+            return null;
+        }
+        try {
+            return new Event(Long.parseLong(fields[0]), Long.parseLong(fields[1]), unescape(fields[2]),
+                    unescape(fields[3]), fields[4], Long.parseLong(fields[5]), unescape(fields[6]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Tabs and newlines are the separators; null is written as a lone backslash
+    private static String escape(String value) {
+        if (value == null) {
+            return "\\";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String unescape(String value) {
+        if (value.equals("\\")) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    // =================== Metrics ===================
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getShipped() {
+        return shipped.get();
+    }
+
+    public long getCallerWrites() {
+        return callerWrites.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public String toString() {
+        return "AuditLog[desk=" + desk + ", recorded=" + recorded + ", written=" + written + ", shipped=" + shipped
+                + ", queued=" + queue.size() + ", callerWrites=" + callerWrites + ", fsync=" + FSYNC + "]";
+    }
+
+    // =================== Event ===================
+    static class Event {
+        // 0 until written to a segment
+        long seq;
+        final long occurredAt;
+        final String user;
+        final String action;
+        final String table;
+        final long key;
+        final String detail;
+
+        Event(long seq, long occurredAt, String user, String action, String table, long key, String detail) {
+            this.seq = seq;
+            this.occurredAt = occurredAt;
+            this.user = user;
+            this.action = action;
+            this.table = table;
+            this.key = key;
+            this.detail = detail;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of reserved date ranges, answering "which rooms are free for
+ * [checkIn, checkOut) in hotel X" without a round trip.
+ * <p>
+ * Every room keeps its reservations as parallel arrays sorted by check-in day (days are epoch
+ * days), plus a running maximum of the check-out days. A stay overlaps [in, out) iff it starts
+ * before {@code out} and ends after {@code in}; a binary search finds the last stay starting
+ * before {@code out} and the running maximum tells whether any stay up to there ends after
+ * {@code in}. So a room is checked in O(log n) even when legacy data holds overlapping stays.
+ * <p>
+ * The shared instance is built from MySQL on first use, outside the class lock so that queries and
+ * updates don't wait for it. This desk's own writes are applied as they happen and other desks' arrive
+ * through {@link ChangePoller}; writes made while it loads are replayed onto it once it is in place.
+ * It is rebuilt only after {@link #invalidateShared()}. The answers are advisory: the booking itself
+ * must still be checked against the database.
+ * <p>
+ * Thread-safe; queries and updates may come from the FX thread or from background workers.
+ */
+public class AvailabilityEngine {
+
+    // More changed rows than this in one poll are cheaper to pick up with a full reload
+    private static final int MAX_CHANGES_APPLIED = 1000;
+
+    private static AvailabilityEngine shared;
+    // Held only by the thread building the shared engine, so concurrent first calls load it once
+    private static final Object LOAD_LOCK = new Object();
+    // Non-null while the shared engine is loading: the updates it may have missed, in order
+    private static List<Consumer<AvailabilityEngine>> pendingUpdates;
+    // Bumped by invalidateShared() so that a load already under way is not installed
+    private static int generation;
+
+    private final Map<Integer, RoomStays> rooms = new HashMap<>();
+    // Rebuilt whenever rooms change so that queries walk arrays instead of probing the map
+    private final Map<Integer, RoomStays[]> roomsByHotel = new HashMap<>();
+    private RoomStays[] allRooms = new RoomStays[0];
+
+    // =================== Shared Instance ===================
+    // Loads the shared engine if needed; may block on MySQL, so call it off the FX thread
+    public static AvailabilityEngine shared() throws SQLException {
+        synchronized (LOAD_LOCK) {
+            int loading;
+            synchronized (AvailabilityEngine.class) {
+                if (shared != null) {
+                    return shared;
+                }
+                loading = generation;
+                pendingUpdates = new ArrayList<>();
+            }
+
+            AvailabilityEngine engine;
+            try (Connection conn = Database.getConnection()) {
+                engine = load(conn);
+            } catch (SQLException | RuntimeException e) {
+                synchronized (AvailabilityEngine.class) {
+                    pendingUpdates = null;
+                }
+                throw e;
+            }
+
+            synchronized (AvailabilityEngine.class) {
+                // A write may have committed after load() read its table; updates are idempotent, so
+                // replaying ones the load already saw is harmless
+                for (Consumer<AvailabilityEngine> update : pendingUpdates) {
+                    update.accept(engine);
+                }
+                pendingUpdates = null;
+                // Invalidated while loading: answer this caller, but let the next one load afresh
+                if (generation == loading) {
+                    shared = engine;
+                }
+            }
+            return engine;
+        }
+    }
+
+    // Applies a write to the shared engine if it has been loaded, or queues it for the load under way;
+    // otherwise the next load sees it
+    public static synchronized void whenLoaded(Consumer<AvailabilityEngine> update) {
+        if (shared != null) {
+            update.accept(shared);
+        } else if (pendingUpdates != null) {
+            pendingUpdates.add(update);
+        }
+    }
+
+    // Drops the shared engine after a bulk write it was not told about; the next shared() reloads it
+    public static synchronized void invalidateShared() {
+        shared = null;
+        generation++;
+    }
+
+    // ChangePoller listener: re-reads the rooms and reservations other desks wrote and applies them to
+    // the shared engine, if it has been loaded. Our own writes come back too and change nothing.
+    public static void applyChanges(List<ChangeLog.Change> changes) {
+        synchronized (AvailabilityEngine.class) {
+            if (shared == null && pendingUpdates == null) {
+                return;
+            }
+        }
+        Set<Integer> roomNumbers = new LinkedHashSet<>();
+        Set<Integer> reservationIds = new LinkedHashSet<>();
+        for (ChangeLog.Change change : changes) {
+            Set<Integer> keys = switch (change.getTable()) {
+                case ROOMS -> roomNumbers;
+                case RESERVATIONS -> reservationIds;
+                default -> null;
+            };
+            if (keys != null && change.getOperation() == ChangeLog.RELOAD) {
+                invalidateShared();
+                return;
+            }
+            if (keys != null) {
+                keys.add((int) change.getKey());
+            }
+        }
+        if (roomNumbers.size() > MAX_CHANGES_APPLIED || reservationIds.size() > MAX_CHANGES_APPLIED) {
+            invalidateShared();
+            return;
+        }
+
+        // Read everything first and apply it in one go, to the engine or to the load under way
+        Map<Integer, Integer> roomHotels = new HashMap<>();
+        Map<Integer, LocalDate[]> reservationDates = new HashMap<>();
+        Map<Integer, Integer> reservationRooms = new HashMap<>();
+        try (Connection conn = Database.getConnection()) {
+            if (!roomNumbers.isEmpty()) {
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT number, hotel_id FROM rooms "
+                        + "WHERE number IN (" + placeholders(roomNumbers.size()) + ")")) {
+                    bindAll(pstmt, roomNumbers);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        roomHotels.put(rs.getInt("number"), rs.getInt("hotel_id"));
+                        roomNumbers.remove(rs.getInt("number"));
+                    }
+                }
+            }
+            if (!reservationIds.isEmpty()) {
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT id, room_number, check_in, check_out "
+                        + "FROM reservations WHERE id IN (" + placeholders(reservationIds.size()) + ")")) {
+                    bindAll(pstmt, reservationIds);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        reservationRooms.put(rs.getInt("id"), rs.getInt("room_number"));
+                        reservationDates.put(rs.getInt("id"), new LocalDate[] {
+                                rs.getDate("check_in").toLocalDate(), rs.getDate("check_out").toLocalDate()});
+                        reservationIds.remove(rs.getInt("id"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            invalidateShared();
+            return;
+        }
+
+        // What remains in roomNumbers and reservationIds was deleted
+        whenLoaded(engine -> {
+            roomHotels.forEach(engine::putRoom);
+            for (int deleted : roomNumbers) {
+                engine.removeRoom(deleted);
+            }
+            reservationRooms.forEach((id, roomNumber) -> engine.putReservation(id, roomNumber,
+                    reservationDates.get(id)[0], reservationDates.get(id)[1]));
+            for (int deleted : reservationIds) {
+                engine.removeReservation(deleted);
+            }
+        });
+    }
+
+    private static String placeholders(int count) {
+        return "?,".repeat(count - 1) + "?";
+    }
+
+    private static void bindAll(PreparedStatement pstmt, Set<Integer> keys) throws SQLException {
+        int index = 1;
+        for (int key : keys) {
+            pstmt.setInt(index++, key);
+        }
+    }
+
+    public static AvailabilityEngine load(Connection conn) throws SQLException {
+        AvailabilityEngine engine = new AvailabilityEngine();
+        try (PreparedStatement rooms = conn.prepareStatement("SELECT number, hotel_id FROM rooms")) {
+            ResultSet rs = rooms.executeQuery();
+            while (rs.next()) {
+                engine.rooms.put(rs.getInt("number"), new RoomStays(rs.getInt("number"), rs.getInt("hotel_id")));
+            }
+        }
+
+        try (PreparedStatement reservations = conn.prepareStatement(
+                "SELECT id, room_number, check_in, check_out FROM reservations")) {
+            ResultSet rs = reservations.executeQuery();
+            while (rs.next()) {
+                RoomStays stays = engine.rooms.get(rs.getInt("room_number"));
+                if (stays != null) {
+                    stays.append(rs.getInt("id"), epochDay(rs.getDate("check_in").toLocalDate()),
+                            epochDay(rs.getDate("check_out").toLocalDate()));
+                }
+            }
+        }
+
+        // Sorting once after the bulk load is far cheaper than keeping each room sorted while appending
+        for (RoomStays stays : engine.rooms.values()) {
+            stays.sortAndIndex();
+        }
+        engine.rebuildHotelIndex();
+        return engine;
+    }
+
+    // =================== Queries ===================
+    // Rooms of the hotel (all hotels when null) with no stay overlapping [checkIn, checkOut),
+    // ascending. A stay with id excludeReservationId is ignored, so an edit doesn't conflict with itself.
+    public synchronized int[] freeRooms(Integer hotelId, LocalDate checkIn, LocalDate checkOut,
+            Integer excludeReservationId) {
+        RoomStays[] candidates = hotelId == null ? allRooms : roomsByHotel.getOrDefault(hotelId, new RoomStays[0]);
+        int in = epochDay(checkIn);
+        int out = epochDay(checkOut);
+        int exclude = excludeReservationId == null ? -1 : excludeReservationId;
+
+        int[] free = new int[candidates.length];
+        int count = 0;
+        for (RoomStays stays : candidates) {
+            if (stays.isFree(in, out, exclude)) {
+                free[count++] = stays.number;
+            }
+        }
+        return Arrays.copyOf(free, count);
+    }
+
+    public synchronized boolean isFree(int roomNumber, LocalDate checkIn, LocalDate checkOut,
+            Integer excludeReservationId) {
+        RoomStays stays = rooms.get(roomNumber);
+        return stays != null && stays.isFree(epochDay(checkIn), epochDay(checkOut),
+                excludeReservationId == null ? -1 : excludeReservationId);
+    }
+
+    public synchronized boolean hasRoom(int roomNumber) {
+        return rooms.containsKey(roomNumber);
+    }
+
+    // =================== Updates ===================
+    // Adds a reservation or replaces its dates; applying the same write twice is harmless
+    public synchronized void putReservation(int id, int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        RoomStays stays = rooms.get(roomNumber);
+        if (stays != null) {
+            stays.remove(id);
+            stays.insert(id, epochDay(checkIn), epochDay(checkOut));
+        }
+    }
+
+    public synchronized void removeReservation(int id, int roomNumber) {
+        RoomStays stays = rooms.get(roomNumber);
+        if (stays != null) {
+            stays.remove(id);
+        }
+    }
+
+    // For a deleted reservation whose room isn't known; looks through every room
+    public synchronized void removeReservation(int id) {
+        for (RoomStays stays : allRooms) {
+            stays.remove(id);
+        }
+    }
+
+    public synchronized void putRoom(int roomNumber, int hotelId) {
+        RoomStays stays = rooms.get(roomNumber);
+        if (stays == null) {
+            rooms.put(roomNumber, new RoomStays(roomNumber, hotelId));
+        } else if (stays.hotelId == hotelId) {
+            return;
+        } else {
+            stays.hotelId = hotelId;
+        }
+        rebuildHotelIndex();
+    }
+
+    public synchronized void removeRoom(int roomNumber) {
+        if (rooms.remove(roomNumber) != null) {
+            rebuildHotelIndex();
+        }
+    }
+
+    private void rebuildHotelIndex() {
+        allRooms = rooms.values().toArray(new RoomStays[0]);
+        Arrays.sort(allRooms, (a, b) -> Integer.compare(a.number, b.number));
+
+        Map<Integer, List<RoomStays>> byHotel = new HashMap<>();
+        for (RoomStays stays : allRooms) {
+            byHotel.computeIfAbsent(stays.hotelId, k -> new ArrayList<>()).add(stays);
+        }
+        roomsByHotel.clear();
+        for (Map.Entry<Integer, List<RoomStays>> entry : byHotel.entrySet()) {
+            roomsByHotel.put(entry.getKey(), entry.getValue().toArray(new RoomStays[0]));
+        }
+    }
+
+    private static int epochDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    // =================== Per-Room Stays ===================
+    private static class RoomStays {
+        private final int number;
+        private int hotelId;
+        private int[] ids = new int[0];
+        private int[] starts = new int[0];
+        private int[] ends = new int[0];
+        // maxEnd[i] = max(ends[0..i]), so "does any stay among the first i+1 end after day d" is one lookup
+        private int[] maxEnd = new int[0];
+        private int size = 0;
+
+        RoomStays(int number, int hotelId) {
+            this.number = number;
+            this.hotelId = hotelId;
+        }
+
+        boolean isFree(int in, int out, int excludeId) {
+            // Stays with start < out are [0, last]; any of them with end > in overlaps
+            int last = lastStartingBefore(out);
+            if (last < 0 || maxEnd[last] <= in) {
+                return true;
+            }
+            if (excludeId < 0) {
+                return false;
+            }
+            // Rare path: an overlap was found but it may be the excluded stay itself
+            for (int i = 0; i <= last; i++) {
+                if (ends[i] > in && ids[i] != excludeId) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int lastStartingBefore(int day) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low - 1;
+        }
+
+        void append(int id, int start, int end) {
+            ensureCapacity(size + 1);
+            ids[size] = id;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        void insert(int id, int start, int end) {
+            ensureCapacity(size + 1);
+            int index = lastStartingBefore(start + 1) + 1;
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(starts, index, starts, index + 1, size - index);
+            System.arraycopy(ends, index, ends, index + 1, size - index);
+            ids[index] = id;
+            starts[index] = start;
+            ends[index] = end;
+            size++;
+            updateMaxEnd(index);
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                    System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+                    size--;
+                    updateMaxEnd(i);
+                    return;
+                }
+            }
+        }
+
+        void sortAndIndex() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(starts[a], starts[b]));
+            int[] sortedIds = new int[size];
+            int[] sortedStarts = new int[size];
+            int[] sortedEnds = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedIds[i] = ids[order[i]];
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+            }
+            ids = sortedIds;
+            starts = sortedStarts;
+            ends = sortedEnds;
+            maxEnd = new int[size];
+            updateMaxEnd(0);
+        }
+
+        private void updateMaxEnd(int from) {
+            for (int i = from; i < size; i++) {
+                maxEnd[i] = i == 0 ? ends[0] : Math.max(maxEnd[i - 1], ends[i]);
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int grown = Math.max(4, Math.max(capacity, ids.length * 2));
+            ids = Arrays.copyOf(ids, grown);
+            starts = Arrays.copyOf(starts, grown);
+            ends = Arrays.copyOf(ends, grown);
+            maxEnd = Arrays.copyOf(maxEnd, grown);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotelmanagement;
+
+import java.time.LocalDate;
+
+// Thrown when a room is already booked for part of the requested stay
+public class BookingConflictException extends Exception {
+    private final int roomNumber;
+    private final int conflictingReservationId;
+    private final LocalDate conflictingCheckIn;
+    private final LocalDate conflictingCheckOut;
+
+    public BookingConflictException(int roomNumber, int conflictingReservationId,
+            LocalDate conflictingCheckIn, LocalDate conflictingCheckOut) {
+        super("Room " + roomNumber + " is already booked from " + conflictingCheckIn + " to "
+                + conflictingCheckOut + " (reservation #" + conflictingReservationId + ")");
+        this.roomNumber = roomNumber;
+        this.conflictingReservationId = conflictingReservationId;
+        this.conflictingCheckIn = conflictingCheckIn;
+        this.conflictingCheckOut = conflictingCheckOut;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public int getConflictingReservationId() {
+        return conflictingReservationId;
+    }
+
+    public LocalDate getConflictingCheckIn() {
+        return conflictingCheckIn;
+    }
+
+    public LocalDate getConflictingCheckOut() {
+        return conflictingCheckOut;
+    }
+}
@@ -0,0 +1,156 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Books, reschedules and cancels reservations so that no two stays in the same room overlap, even when
+ * several front desks book at once.
+ * <p>
+ * Each booking is one transaction that first locks the room's row ({@code SELECT ... FOR UPDATE}),
+ * then checks for overlapping stays and writes. Two desks booking the same room are serialized on
+ * that lock and the second one sees the first one's stay; desks booking different rooms never
+ * wait for each other. Stays are half-open, [check-in, check-out), so a guest may check in on the
+ * day the previous one checks out.
+ * <p>
+ * Deadlocks and lock wait timeouts are retried a few times with jittered exponential backoff.
+ * The SQL itself lives in {@link RoomRepository} and {@link ReservationRepository}; this class
+ * owns the transaction around it, which also carries the stay's nights to {@link OccupancyRollup}.
+ * Call from a background thread.
+ */
+public class BookingService {
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BACKOFF_BASE_MS = 20;
+    private static final long BACKOFF_MAX_MS = 500;
+
+    // MySQL error codes worth retrying: ER_LOCK_DEADLOCK and ER_LOCK_WAIT_TIMEOUT
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    private static final RoomRepository ROOMS = new RoomRepository();
+    private static final ReservationRepository RESERVATIONS = new ReservationRepository();
+
+    private interface Work {
+        int run(Connection conn) throws SQLException, BookingConflictException;
+    }
+
+    // Returns the id of the new reservation
+    public static int book(int customerId, int roomNumber, LocalDate checkIn, LocalDate checkOut)
+            throws SQLException, BookingConflictException {
+        return inTransaction(conn -> {
+            lockRoom(conn, roomNumber);
+            checkOverlap(conn, roomNumber, checkIn, checkOut, null);
+            int id = RESERVATIONS.insert(conn, customerId, roomNumber, checkIn, checkOut);
+            OccupancyRollup.addStay(conn, roomNumber, checkIn, checkOut);
+            RoomAvailability.refreshRooms(conn, roomNumber);
+            return id;
+        }, id -> AvailabilityEngine.whenLoaded(engine -> engine.putReservation(id, roomNumber, checkIn, checkOut)));
+    }
+
+    // Moves an existing reservation to new dates in the same room
+    public static void reschedule(int reservationId, int roomNumber, LocalDate checkIn, LocalDate checkOut)
+            throws SQLException, BookingConflictException {
+        inTransaction(conn -> {
+            lockRoom(conn, roomNumber);
+            checkOverlap(conn, roomNumber, checkIn, checkOut, reservationId);
+            Reservation current = findReservation(conn, reservationId);
+            RESERVATIONS.updateDates(conn, reservationId, checkIn, checkOut);
+            OccupancyRollup.removeStay(conn, roomNumber, current.getCheckIn(), current.getCheckOut());
+            OccupancyRollup.addStay(conn, roomNumber, checkIn, checkOut);
+            RoomAvailability.refreshRooms(conn, roomNumber);
+            return reservationId;
+        }, id -> AvailabilityEngine.whenLoaded(engine -> engine.putReservation(id, roomNumber, checkIn, checkOut)));
+    }
+
+    public static void cancel(int reservationId, int roomNumber) throws SQLException {
+        try {
+            inTransaction(conn -> {
+                // Locked like a booking so two desks cancelling the same stay can't both subtract its nights
+                lockRoom(conn, roomNumber);
+                Reservation current = RESERVATIONS.findById(conn, reservationId);
+                if (current == null) {
+                    return reservationId; // already cancelled by another desk
+                }
+                RESERVATIONS.delete(conn, reservationId);
+                OccupancyRollup.removeStay(conn, roomNumber, current.getCheckIn(), current.getCheckOut());
+                RoomAvailability.refreshRooms(conn, roomNumber);
+                return reservationId;
+            }, id -> AvailabilityEngine.whenLoaded(engine -> engine.removeReservation(id, roomNumber)));
+        } catch (BookingConflictException e) {
+            throw new IllegalStateException("Cancelling cannot conflict", e);
+        }
+    }
+
+    private static void lockRoom(Connection conn, int roomNumber) throws SQLException {
+        if (!ROOMS.lock(conn, roomNumber)) {
+            throw new SQLException("Room " + roomNumber + " does not exist");
+        }
+    }
+
+    private static Reservation findReservation(Connection conn, int reservationId) throws SQLException {
+        Reservation reservation = RESERVATIONS.findById(conn, reservationId);
+        if (reservation == null) {
+            throw new SQLException("Reservation " + reservationId + " does not exist");
+        }
+        return reservation;
+    }
+
+    // Runs after lockRoom: it is the first plain read of the transaction, so its InnoDB snapshot is taken
+    // after the lock was granted and includes any stay committed by the desk that held the lock before us
+    private static void checkOverlap(Connection conn, int roomNumber, LocalDate checkIn, LocalDate checkOut,
+            Integer excludeReservationId) throws SQLException, BookingConflictException {
+        Reservation conflict = RESERVATIONS.findOverlap(conn, roomNumber, checkIn, checkOut, excludeReservationId);
+        if (conflict != null) {
+            int id = conflict.getId();
+            LocalDate conflictIn = conflict.getCheckIn();
+            LocalDate conflictOut = conflict.getCheckOut();
+            // Usually another desk's booking the engine hasn't reloaded yet; learn it so it isn't offered again
+            AvailabilityEngine.whenLoaded(engine -> engine.putReservation(id, roomNumber, conflictIn, conflictOut));
+            throw new BookingConflictException(roomNumber, id, conflictIn, conflictOut);
+        }
+    }
+
+    private static int inTransaction(Work work, IntConsumer afterCommit)
+            throws SQLException, BookingConflictException {
+        SchemaMigrator.ensureMigrated();
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = Database.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    int result = work.run(conn);
+                    conn.commit();
+                    afterCommit.accept(result);
+                    return result;
+                } catch (SQLException | BookingConflictException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                if (!isRetryable(e) || attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private static boolean isRetryable(SQLException e) {
+        return e.getErrorCode() == ER_LOCK_DEADLOCK || e.getErrorCode() == ER_LOCK_WAIT_TIMEOUT
+                || "40001".equals(e.getSQLState());
+    }
+
+    // Full jitter keeps desks that collided from colliding again on the retry
+    private static void backoff(int attempt) throws SQLException {
+        long cap = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << (attempt - 1));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying booking", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Append-only log of writes to the four Dashboard tables, read by {@link ChangePoller}.
+ * <p>
+ * Every row-level write goes through a repository, which appends one entry naming the table, the
+ * row's key and the kind of change in the same transaction as the write. Entries are numbered by
+ * an AUTO_INCREMENT {@code version}, so a reader that remembers the last version it saw can ask for
+ * everything after it with a primary key range scan. Bulk writes (imports, the availability
+ * rollover) append a single {@link #RELOAD} entry for the table instead of one per row.
+ * <p>
+ * The log only says which rows changed; readers fetch the rows themselves, so an entry never
+ * carries data that could disagree with the table.
+ */
+public class ChangeLog {
+
+    public static final char INSERT = 'I';
+    public static final char UPDATE = 'U';
+    public static final char DELETE = 'D';
+    // Too many rows changed to list; reload the whole table
+    public static final char RELOAD = 'R';
+
+    private static final String APPEND = "INSERT INTO change_log (table_name, row_key, operation) VALUES (?, ?, ?)";
+
+    // Call with the connection (and transaction) that made the write
+    static void record(Connection conn, DataTable table, char operation, long key) throws SQLException {
+        if (conn.getAutoCommit()) {
+            SchemaMigrator.ensureMigrated();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(APPEND)) {
+            pstmt.setString(1, table.getTableName());
+            pstmt.setLong(2, key);
+            pstmt.setString(3, String.valueOf(operation));
+            pstmt.executeUpdate();
+        }
+    }
+
+    static void recordAll(Connection conn, DataTable table, char operation, int... keys) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(APPEND)) {
+            for (int key : keys) {
+                pstmt.setString(1, table.getTableName());
+                pstmt.setLong(2, key);
+                pstmt.setString(3, String.valueOf(operation));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    // After a bulk write that touched too many rows to list
+    public static void recordReload(DataTable table) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            record(conn, table, RELOAD, 0);
+        }
+    }
+
+    // =================== Change ===================
+    public static class Change {
+        private final long version;
+        private final DataTable table;
+        private final char operation;
+        private final long key;
+
+        Change(long version, DataTable table, char operation, long key) {
+            this.version = version;
+            this.table = table;
+            this.operation = operation;
+            this.key = key;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public DataTable getTable() {
+            return table;
+        }
+
+        public char getOperation() {
+            return operation;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        @Override
+        public String toString() {
+            return version + ":" + table + "/" + operation + key;
+        }
+    }
+}
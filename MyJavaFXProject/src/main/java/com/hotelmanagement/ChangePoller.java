@@ -0,0 +1,211 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows the {@link ChangeLog} and hands every new entry to the registered listeners, so that
+ * one desk sees another desk's writes within a poll instead of at its next full reload.
+ * <p>
+ * Each poll asks for entries with a version above the highest one seen, a primary key range scan
+ * that normally returns nothing. AUTO_INCREMENT numbers are handed out when a row is inserted, not
+ * when its transaction commits, so a lower version can become visible after a higher one. Versions
+ * skipped over are therefore remembered and asked for again on later polls, until they turn up or
+ * are old enough that their transaction must have rolled back. Entries may reach listeners slightly
+ * out of version order, and a desk also hears about its own writes; listeners re-read the rows
+ * concerned, which makes both harmless.
+ * <p>
+ * The first poll starts from the current end of the log. Listeners run on the poller thread and
+ * should hand UI work to the FX thread. Entries older than {@link #RETENTION} are pruned; a poller
+ * that could not reach the database for longer than that reports a reload of every table.
+ */
+public class ChangePoller {
+
+    public interface Listener {
+        void changed(List<ChangeLog.Change> changes);
+    }
+
+    private static final long POLL_MILLIS = Long.getLong("hotel.changes.pollMillis", 500);
+    private static final int MAX_CHANGES_PER_QUERY = 1000;
+    // A version skipped for this long belongs to a transaction that rolled back
+    private static final long GAP_TIMEOUT_MILLIS = 30_000;
+    private static final int MAX_OPEN_GAPS = 1000;
+    private static final Duration RETENTION = Duration.ofDays(1);
+    private static final long PRUNE_EVERY_MILLIS = 10 * 60_000;
+
+    static final String READ_AFTER = "SELECT version, table_name, row_key, operation "
+            + "FROM change_log WHERE version > ? ORDER BY version LIMIT ?";
+
+    private static ChangePoller shared;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    // Highest version seen; -1 until the first successful poll
+    private long lastVersion = -1;
+    // Skipped versions that may still commit, with the time they were first skipped
+    private final Map<Long, Long> openGaps = new LinkedHashMap<>();
+    private long lastPolledAt;
+    private long lastPrunedAt;
+
+    private ChangePoller() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::poll, 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Starts polling on first use
+    public static synchronized ChangePoller shared() {
+        if (shared == null) {
+            shared = new ChangePoller();
+        }
+        return shared;
+    }
+
+    public static synchronized void shutdown() {
+        if (shared != null) {
+            shared.scheduler.shutdownNow();
+            shared = null;
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // =================== Polling ===================
+    private void poll() {
+        if (OfflineStore.isOffline()) {
+            return; // picked up where it left off once the server is back
+        }
+        try {
+            List<ChangeLog.Change> changes = new ArrayList<>();
+            try (Connection conn = Database.getServerConnection()) {
+                long now = System.currentTimeMillis();
+                if (lastVersion < 0) {
+                    SchemaMigrator.ensureMigrated();
+                    lastVersion = currentVersion(conn);
+                } else if (now - lastPolledAt > RETENTION.toMillis()) {
+                    // Entries we never saw may have been pruned
+                    for (DataTable table : DataTable.values()) {
+                        changes.add(new ChangeLog.Change(lastVersion, table, ChangeLog.RELOAD, 0));
+                    }
+                    openGaps.clear();
+                    lastVersion = currentVersion(conn);
+                } else {
+                    recheckGaps(conn, changes, now);
+                    readNewChanges(conn, changes, now);
+                }
+                lastPolledAt = now;
+                if (now - lastPrunedAt > PRUNE_EVERY_MILLIS) {
+                    prune(conn);
+                    lastPrunedAt = now;
+                }
+            }
+            if (!changes.isEmpty()) {
+                for (Listener listener : listeners) {
+                    try {
+                        listener.changed(changes);
+                    } catch (RuntimeException e) {
+                        QueryMetrics.shared().recordFailure("Apply remote changes", e);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // The database is unreachable; the next poll picks up where this one left off
+            System.err.println("Change polling failed: " + e.getMessage());
+        }
+    }
+
+    private void readNewChanges(Connection conn, List<ChangeLog.Change> changes, long now) throws SQLException {
+        List<ChangeLog.Change> page;
+        do {
+            try (PreparedStatement pstmt = conn.prepareStatement(READ_AFTER)) {
+                pstmt.setLong(1, lastVersion);
+                pstmt.setInt(2, MAX_CHANGES_PER_QUERY);
+                page = mapAll(pstmt.executeQuery());
+            }
+            for (ChangeLog.Change change : page) {
+                long firstSkipped = Math.max(lastVersion + 1, change.getVersion() - MAX_OPEN_GAPS);
+                for (long skipped = firstSkipped; skipped < change.getVersion(); skipped++) {
+                    openGaps.put(skipped, now);
+                }
+                lastVersion = change.getVersion();
+                changes.add(change);
+            }
+        } while (page.size() == MAX_CHANGES_PER_QUERY);
+
+        // A burst of rolled-back inserts could leave many; the oldest are the least likely to commit
+        Iterator<Long> oldest = openGaps.keySet().iterator();
+        while (openGaps.size() > MAX_OPEN_GAPS) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void recheckGaps(Connection conn, List<ChangeLog.Change> changes, long now) throws SQLException {
+        openGaps.values().removeIf(skippedAt -> now - skippedAt > GAP_TIMEOUT_MILLIS);
+        if (openGaps.isEmpty()) {
+            return;
+        }
+        Long[] versions = openGaps.keySet().toArray(new Long[0]);
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT version, table_name, row_key, operation "
+                + "FROM change_log WHERE version IN (" + "?,".repeat(versions.length - 1) + "?)")) {
+            for (int i = 0; i < versions.length; i++) {
+                pstmt.setLong(i + 1, versions[i]);
+            }
+            for (ChangeLog.Change change : mapAll(pstmt.executeQuery())) {
+                openGaps.remove(change.getVersion());
+                changes.add(change);
+            }
+        }
+    }
+
+    private static long currentVersion(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COALESCE(MAX(version), 0) FROM change_log")) {
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Every desk prunes; deleting rows another desk already deleted is a no-op
+    private static void prune(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM change_log WHERE changed_at < ?")) {
+            pstmt.setTimestamp(1, Timestamp.from(Instant.now().minus(RETENTION)));
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static List<ChangeLog.Change> mapAll(ResultSet rs) throws SQLException {
+        List<ChangeLog.Change> list = new ArrayList<>();
+        while (rs.next()) {
+            DataTable table = DataTable.forTableName(rs.getString("table_name"));
+            if (table != null) {
+                list.add(new ChangeLog.Change(rs.getLong("version"), table, rs.getString("operation").charAt(0),
+                        rs.getLong("row_key")));
+            }
+        }
+        return list;
+    }
+}
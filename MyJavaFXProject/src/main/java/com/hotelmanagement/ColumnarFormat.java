@@ -0,0 +1,126 @@
+package com.hotelmanagement;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Constants and encoding helpers shared by {@link ColumnarWriter} and {@link ColumnarReader}.
+ * <p>
+ * File layout, all numbers little-endian:
+ * <pre>
+ * "HCOL" version
+ * row group*        varint rows, then one chunk per column
+ * footer            varint columns, (varint name length, UTF-8 name, type code)*,
+ *                   varint row groups, (long offset, varint rows)*, long total rows
+ * int footer length
+ * "HCOL"
+ * </pre>
+ * A column chunk is: encoding byte, null flag byte, varint payload length, payload. When the null
+ * flag is set the payload starts with a bitmap of the null rows and only non-null values follow.
+ */
+public final class ColumnarFormat {
+
+    static final byte[] MAGIC = {'H', 'C', 'O', 'L'};
+    static final byte VERSION = 1;
+
+    // Column chunk encodings
+    static final byte PLAIN = 0;
+    static final byte DELTA_VARINT = 1;
+    static final byte DICTIONARY = 2;
+    static final byte BIT_PACKED = 3;
+
+    public enum Type {
+        INT(1), LONG(2), DOUBLE(3), BOOLEAN(4), STRING(5), DATE(6); // DATE is stored as epoch days
+
+        final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown column type " + code);
+        }
+    }
+
+    private ColumnarFormat() {
+    }
+
+    // Zigzag maps small negative and positive numbers alike to small unsigned ones
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new BufferUnderflowException();
+    }
+
+    // Growable little-endian byte sink; reused between chunks so encoding doesn't allocate per row group
+    static final class Sink {
+        private byte[] bytes = new byte[4096];
+        private int size = 0;
+
+        void clear() {
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] array() {
+            return bytes;
+        }
+
+        void put(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        void putBytes(byte[] b, int offset, int length) {
+            ensure(length);
+            System.arraycopy(b, offset, bytes, size, length);
+            size += length;
+        }
+
+        void putVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void putLong(long value) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                bytes[size++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+            }
+        }
+    }
+}
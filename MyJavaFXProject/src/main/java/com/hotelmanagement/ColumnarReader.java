@@ -0,0 +1,250 @@
+package com.hotelmanagement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads files written by {@link ColumnarWriter} one row group at a time.
+ * <p>
+ * Only the footer is read on open. Row groups are fetched with positional reads, so
+ * {@link #readRowGroup(int)} may be called from several threads at once to decode groups in
+ * parallel.
+ */
+public class ColumnarReader implements Closeable {
+
+    private final FileChannel channel;
+    private final List<String> names = new ArrayList<>();
+    private final List<ColumnarFormat.Type> types = new ArrayList<>();
+    private final long[] groupOffsets;
+    private final int[] groupRows;
+    private final long rowCount;
+
+    public ColumnarReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer tail = read(size - 8, 8);
+            int footerLength = tail.getInt();
+            byte[] magic = new byte[4];
+            tail.get(magic);
+            if (!Arrays.equals(magic, ColumnarFormat.MAGIC)) {
+                throw new IOException(file + " is not a columnar export");
+            }
+
+            ByteBuffer footer = read(size - 8 - footerLength, footerLength);
+            int columnCount = (int) ColumnarFormat.readVarint(footer);
+            for (int i = 0; i < columnCount; i++) {
+                byte[] name = new byte[(int) ColumnarFormat.readVarint(footer)];
+                footer.get(name);
+                names.add(new String(name, StandardCharsets.UTF_8));
+                types.add(ColumnarFormat.Type.of(footer.get()));
+            }
+            int groups = (int) ColumnarFormat.readVarint(footer);
+            groupOffsets = new long[groups];
+            groupRows = new int[groups];
+            for (int i = 0; i < groups; i++) {
+                groupOffsets[i] = footer.getLong();
+                groupRows[i] = (int) ColumnarFormat.readVarint(footer);
+            }
+            rowCount = footer.getLong();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> getColumnNames() {
+        return names;
+    }
+
+    public List<ColumnarFormat.Type> getColumnTypes() {
+        return types;
+    }
+
+    public int columnIndex(String name) {
+        int index = names.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("No column " + name + " in " + names);
+        }
+        return index;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getRowGroupCount() {
+        return groupOffsets.length;
+    }
+
+    public RowGroup readRowGroup(int group) throws IOException {
+        long end = group + 1 < groupOffsets.length ? groupOffsets[group + 1] : footerStart();
+        ByteBuffer in = read(groupOffsets[group], (int) (end - groupOffsets[group]));
+        int rows = (int) ColumnarFormat.readVarint(in);
+        RowGroup rowGroup = new RowGroup(rows, types.size());
+        for (int column = 0; column < types.size(); column++) {
+            byte encoding = in.get();
+            boolean hasNulls = in.get() != 0;
+            int length = (int) ColumnarFormat.readVarint(in);
+            ByteBuffer chunk = in.slice(in.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+            in.position(in.position() + length);
+            rowGroup.decode(column, types.get(column), encoding, hasNulls, chunk);
+        }
+        return rowGroup;
+    }
+
+    private long footerStart() throws IOException {
+        ByteBuffer tail = read(channel.size() - 8, 4);
+        return channel.size() - 8 - tail.getInt();
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // =================== Row Group ===================
+    // Decoded columns of one row group; ints and dates as int[], booleans as boolean[], and so on
+    public static class RowGroup {
+        private final int rows;
+        private final boolean[][] nulls;
+        private final Object[] values;
+
+        RowGroup(int rows, int columns) {
+            this.rows = rows;
+            this.nulls = new boolean[columns][];
+            this.values = new Object[columns];
+        }
+
+        public int getRowCount() {
+            return rows;
+        }
+
+        public boolean isNull(int column, int row) {
+            return nulls[column] != null && nulls[column][row];
+        }
+
+        public int[] ints(int column) {
+            return (int[]) values[column];
+        }
+
+        public long[] longs(int column) {
+            return (long[]) values[column];
+        }
+
+        public double[] doubles(int column) {
+            return (double[]) values[column];
+        }
+
+        public boolean[] booleans(int column) {
+            return (boolean[]) values[column];
+        }
+
+        public String[] strings(int column) {
+            return (String[]) values[column];
+        }
+
+        private void decode(int column, ColumnarFormat.Type type, byte encoding, boolean hasNulls, ByteBuffer in) {
+            boolean[] isNull = new boolean[rows];
+            if (hasNulls) {
+                for (int from = 0; from < rows; from += 8) {
+                    int bits = in.get();
+                    for (int bit = 0; bit < 8 && from + bit < rows; bit++) {
+                        isNull[from + bit] = (bits & (1 << bit)) != 0;
+                    }
+                }
+                nulls[column] = isNull;
+            }
+
+            switch (type) {
+                case INT, DATE -> {
+                    int[] out = new int[rows];
+                    long previous = 0;
+                    for (int row = 0; row < rows; row++) {
+                        if (!isNull[row]) {
+                            previous += ColumnarFormat.unzigzag(ColumnarFormat.readVarint(in));
+                            out[row] = (int) previous;
+                        }
+                    }
+                    values[column] = out;
+                }
+                case LONG -> {
+                    long[] out = new long[rows];
+                    long previous = 0;
+                    for (int row = 0; row < rows; row++) {
+                        if (!isNull[row]) {
+                            previous += ColumnarFormat.unzigzag(ColumnarFormat.readVarint(in));
+                            out[row] = previous;
+                        }
+                    }
+                    values[column] = out;
+                }
+                case DOUBLE -> {
+                    double[] out = new double[rows];
+                    for (int row = 0; row < rows; row++) {
+                        if (!isNull[row]) {
+                            out[row] = Double.longBitsToDouble(in.getLong());
+                        }
+                    }
+                    values[column] = out;
+                }
+                case BOOLEAN -> {
+                    boolean[] out = new boolean[rows];
+                    int count = 0;
+                    int bits = 0;
+                    for (int row = 0; row < rows; row++) {
+                        if (!isNull[row]) {
+                            if (count % 8 == 0) {
+                                bits = in.get();
+                            }
+                            out[row] = (bits & (1 << (count % 8))) != 0;
+                            count++;
+                        }
+                    }
+                    values[column] = out;
+                }
+                case STRING -> {
+                    String[] dictionary = null;
+                    if (encoding == ColumnarFormat.DICTIONARY) {
+                        dictionary = new String[(int) ColumnarFormat.readVarint(in)];
+                        for (int i = 0; i < dictionary.length; i++) {
+                            dictionary[i] = readString(in);
+                        }
+                    }
+                    String[] out = new String[rows];
+                    for (int row = 0; row < rows; row++) {
+                        if (!isNull[row]) {
+                            out[row] = dictionary != null ? dictionary[(int) ColumnarFormat.readVarint(in)] : readString(in);
+                        }
+                    }
+                    values[column] = out;
+                }
+            }
+        }
+
+        private static String readString(ByteBuffer in) {
+            byte[] bytes = new byte[(int) ColumnarFormat.readVarint(in)];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.hotelmanagement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows to a compact column-oriented binary file, a much simplified take on Parquet.
+ * <p>
+ * Rows are collected into row groups of {@value #ROW_GROUP_SIZE}; each full group is encoded and
+ * written as one chunk per column, so only one group is ever held in memory and the buffers are
+ * allocated once. Ints, longs and dates are stored as zigzag varint deltas, so ascending keys cost
+ * about a byte each; strings with few distinct values in a group are dictionary encoded; booleans
+ * are bit-packed. The footer records where every row group starts, so {@link ColumnarReader} can
+ * read any group, or all of them in parallel, without scanning the file. The layout is described in
+ * {@link ColumnarFormat}.
+ * <p>
+ * Usage: set every column of a row with the {@code put} methods, call {@link #endRow()}, repeat,
+ * then {@link #close()}, which writes the footer; the channel belongs to the caller and is left
+ * open. Not thread-safe.
+ */
+public class ColumnarWriter implements Closeable {
+
+    static final int ROW_GROUP_SIZE = 65_536;
+
+    private final FileChannel channel;
+    private final List<String> names;
+    private final List<ColumnarFormat.Type> types;
+    private final Column[] columns;
+    private final ColumnarFormat.Sink chunk = new ColumnarFormat.Sink();
+    private final ColumnarFormat.Sink out = new ColumnarFormat.Sink();
+
+    private final List<Long> groupOffsets = new ArrayList<>();
+    private final List<Integer> groupRows = new ArrayList<>();
+    private int rows = 0;
+    private long totalRows = 0;
+
+    public ColumnarWriter(FileChannel channel, List<String> names, List<ColumnarFormat.Type> types)
+            throws IOException {
+        this.channel = channel;
+        this.names = List.copyOf(names);
+        this.types = List.copyOf(types);
+        columns = new Column[types.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(types.get(i));
+        }
+        out.putBytes(ColumnarFormat.MAGIC, 0, ColumnarFormat.MAGIC.length);
+        out.put(ColumnarFormat.VERSION);
+        flushOut();
+    }
+
+    // =================== Rows ===================
+    public void putInt(int column, int value) {
+        columns[column].longs[rows] = value;
+        columns[column].nulls[rows] = false;
+    }
+
+    public void putLong(int column, long value) {
+        columns[column].longs[rows] = value;
+        columns[column].nulls[rows] = false;
+    }
+
+    public void putDouble(int column, double value) {
+        columns[column].doubles[rows] = value;
+        columns[column].nulls[rows] = false;
+    }
+
+    public void putBoolean(int column, boolean value) {
+        columns[column].longs[rows] = value ? 1 : 0;
+        columns[column].nulls[rows] = false;
+    }
+
+    // Null strings are stored as nulls
+    public void putString(int column, String value) {
+        columns[column].strings[rows] = value;
+        columns[column].nulls[rows] = value == null;
+    }
+
+    public void putDate(int column, int epochDay) {
+        putInt(column, epochDay);
+    }
+
+    public void putNull(int column) {
+        columns[column].nulls[rows] = true;
+        if (columns[column].strings != null) {
+            columns[column].strings[rows] = null;
+        }
+    }
+
+    public void endRow() throws IOException {
+        rows++;
+        totalRows++;
+        if (rows == ROW_GROUP_SIZE) {
+            writeRowGroup();
+        }
+    }
+
+    public long getRowCount() {
+        return totalRows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (rows > 0) {
+            writeRowGroup();
+        }
+        out.putVarint(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+            out.putVarint(name.length);
+            out.putBytes(name, 0, name.length);
+            out.put(types.get(i).code);
+        }
+        out.putVarint(groupOffsets.size());
+        for (int i = 0; i < groupOffsets.size(); i++) {
+            out.putLong(groupOffsets.get(i));
+            out.putVarint(groupRows.get(i));
+        }
+        out.putLong(totalRows);
+        int footerLength = out.size();
+        for (int i = 0; i < 4; i++) {
+            out.put((byte) (footerLength >>> (8 * i)));
+        }
+        out.putBytes(ColumnarFormat.MAGIC, 0, ColumnarFormat.MAGIC.length);
+        flushOut();
+    }
+
+    // =================== Encoding ===================
+    private void writeRowGroup() throws IOException {
+        groupOffsets.add(channel.position());
+        groupRows.add(rows);
+        out.putVarint(rows);
+        for (Column column : columns) {
+            chunk.clear();
+            boolean hasNulls = false;
+            for (int row = 0; row < rows; row++) {
+                hasNulls |= column.nulls[row];
+            }
+            if (hasNulls) {
+                for (int from = 0; from < rows; from += 8) {
+                    int bits = 0;
+                    for (int bit = 0; bit < 8 && from + bit < rows; bit++) {
+                        bits |= column.nulls[from + bit] ? 1 << bit : 0;
+                    }
+                    chunk.put((byte) bits);
+                }
+            }
+            byte encoding = column.encode(chunk, rows);
+            out.put(encoding);
+            out.put((byte) (hasNulls ? 1 : 0));
+            out.putVarint(chunk.size());
+            out.putBytes(chunk.array(), 0, chunk.size());
+        }
+        flushOut();
+        rows = 0;
+    }
+
+    private void flushOut() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(out.array(), 0, out.size()).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        out.clear();
+    }
+
+    // One row group's worth of values for a column; ints, dates and booleans share the long array
+    private static class Column {
+        private final ColumnarFormat.Type type;
+        private final boolean[] nulls = new boolean[ROW_GROUP_SIZE];
+        private final long[] longs;
+        private final double[] doubles;
+        private final String[] strings;
+
+        Column(ColumnarFormat.Type type) {
+            this.type = type;
+            longs = type == ColumnarFormat.Type.DOUBLE || type == ColumnarFormat.Type.STRING
+                    ? null : new long[ROW_GROUP_SIZE];
+            doubles = type == ColumnarFormat.Type.DOUBLE ? new double[ROW_GROUP_SIZE] : null;
+            strings = type == ColumnarFormat.Type.STRING ? new String[ROW_GROUP_SIZE] : null;
+        }
+
+        // Appends the non-null values and returns the encoding used
+        byte encode(ColumnarFormat.Sink sink, int rows) {
+            switch (type) {
+                case INT, LONG, DATE -> {
+                    long previous = 0;
+                    for (int row = 0; row < rows; row++) {
+                        if (!nulls[row]) {
+                            sink.putVarint(ColumnarFormat.zigzag(longs[row] - previous));
+                            previous = longs[row];
+                        }
+                    }
+                    return ColumnarFormat.DELTA_VARINT;
+                }
+                case DOUBLE -> {
+                    for (int row = 0; row < rows; row++) {
+                        if (!nulls[row]) {
+                            sink.putLong(Double.doubleToRawLongBits(doubles[row]));
+                        }
+                    }
+                    return ColumnarFormat.PLAIN;
+                }
+                case BOOLEAN -> {
+                    int bits = 0;
+                    int count = 0;
+                    for (int row = 0; row < rows; row++) {
+                        if (!nulls[row]) {
+                            bits |= (int) longs[row] << (count % 8);
+                            if (++count % 8 == 0) {
+                                sink.put((byte) bits);
+                                bits = 0;
+                            }
+                        }
+                    }
+                    if (count % 8 != 0) {
+                        sink.put((byte) bits);
+                    }
+                    return ColumnarFormat.BIT_PACKED;
+                }
+                default -> {
+                    return encodeStrings(sink, rows);
+                }
+            }
+        }
+
+        private byte encodeStrings(ColumnarFormat.Sink sink, int rows) {
+            // Dictionary pays off when values repeat, e.g. room types, hotel names, first names
+            Map<String, Integer> dictionary = new HashMap<>();
+            int nonNull = 0;
+            for (int row = 0; row < rows; row++) {
+                if (!nulls[row]) {
+                    nonNull++;
+                    dictionary.putIfAbsent(strings[row], dictionary.size());
+                }
+            }
+            boolean useDictionary = dictionary.size() <= nonNull / 2;
+            if (useDictionary) {
+                String[] entries = new String[dictionary.size()];
+                dictionary.forEach((value, index) -> entries[index] = value);
+                sink.putVarint(entries.length);
+                for (String entry : entries) {
+                    putString(sink, entry);
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                if (!nulls[row]) {
+                    if (useDictionary) {
+                        sink.putVarint(dictionary.get(strings[row]));
+                    } else {
+                        putString(sink, strings[row]);
+                    }
+                }
+            }
+            return useDictionary ? ColumnarFormat.DICTIONARY : ColumnarFormat.PLAIN;
+        }
+
+        private static void putString(ColumnarFormat.Sink sink, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            sink.putVarint(bytes.length);
+            sink.putBytes(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,606 @@
+package com.hotelmanagement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool used behind {@link Database#getConnection()}.
+ * <p>
+ * Callers keep the usual {@code try (Connection conn = Database.getConnection())}
+ * pattern: closing the returned connection hands the physical connection back
+ * to the pool instead of tearing down the socket. Connections are validated on
+ * borrow, evicted when idle for too long or past their maximum lifetime, and
+ * reported when a caller holds one longer than the leak detection threshold.
+ * <p>
+ * Each physical connection also keeps up to {@code statementCacheSize} prepared statements open,
+ * least recently used dropped first. {@code prepareStatement(sql)} (and its generated-keys variant)
+ * hands back the cached statement for that SQL when there is one, so a query is parsed and planned
+ * once per connection instead of once per call. Closing the statement, or the connection, returns
+ * it to the cache with its parameters cleared and its result sets closed. A statement whose fetch
+ * size, timeout or similar settings were changed is closed instead, so the next caller never
+ * inherits them. If the same SQL is prepared again while the cached statement is still open, that
+ * caller gets an ordinary uncached statement.
+ */
+public class ConnectionPool {
+
+    // Skip the validation round trip for connections used this recently
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 30_000;
+
+    // Statement settings that would leak into the next caller of a cached statement
+    private static final Set<String> RECONFIGURING_METHODS = Set.of("setFetchSize", "setFetchDirection",
+            "setMaxRows", "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout", "setEscapeProcessing",
+            "setCursorName", "setPoolable", "closeOnCompletion");
+    private static final String GENERATED_KEYS_PREFIX = "/* keys */ ";
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long connectionTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long leakDetectionThresholdMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> all = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+    private final AtomicLong prepareNanos = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize,
+            long connectionTimeoutMillis, long idleTimeoutMillis, long maxLifetimeMillis,
+            long leakDetectionThresholdMillis, int statementCacheSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.connectionTimeoutMillis = connectionTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleAtFixedRate(this::housekeep, HOUSEKEEPING_PERIOD_MILLIS,
+                HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + connectionTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ")", "08001");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = create();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowTrace = leakDetectionThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowCount.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Most recently returned connection first, so the rest can age out when load drops
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (isExpired(pooled, now)) {
+                evict(pooled);
+                continue;
+            }
+            if (now - pooled.lastReturnedAt > VALIDATION_BYPASS_MILLIS && !isValid(pooled)) {
+                evict(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        PooledConnection pooled = new PooledConnection(physical);
+        all.add(pooled);
+        createdCount.incrementAndGet();
+        return pooled;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return (maxLifetimeMillis > 0 && now - pooled.createdAt > maxLifetimeMillis)
+                || (idleTimeoutMillis > 0 && now - pooled.lastReturnedAt > idleTimeoutMillis);
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            if (!pooled.broken && !pooled.physical.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            pooled.broken = true;
+        }
+
+        pooled.borrowTrace = null;
+        pooled.lastReturnedAt = System.currentTimeMillis();
+        if (pooled.broken || shutdown || isExpired(pooled, pooled.lastReturnedAt)) {
+            evict(pooled);
+        } else {
+            idle.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    private void evict(PooledConnection pooled) {
+        if (all.remove(pooled)) {
+            evictedCount.incrementAndGet();
+        }
+        idle.remove(pooled);
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            // Already unusable, nothing left to clean up
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idle) {
+            if (isExpired(pooled, now) && idle.remove(pooled)) {
+                evict(pooled);
+            }
+        }
+
+        if (leakDetectionThresholdMillis > 0) {
+            for (PooledConnection pooled : all) {
+                Throwable trace = pooled.borrowTrace;
+                if (trace != null && !pooled.leakReported
+                        && now - pooled.borrowedAt > leakDetectionThresholdMillis) {
+                    pooled.leakReported = true;
+                    leakCount.incrementAndGet();
+                    System.err.println("Possible connection leak: connection held for "
+                            + (now - pooled.borrowedAt) + " ms");
+                    trace.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // Drops least recently used statements past the cache size; one still in use is closed when returned
+    private void trimStatementCache(PooledConnection pooled) {
+        Iterator<CachedStatement> eldest = pooled.statementCache.values().iterator();
+        while (pooled.statementCache.size() > statementCacheSize) {
+            CachedStatement cached = eldest.next();
+            eldest.remove();
+            cached.evicted = true;
+            statementCacheEvictions.incrementAndGet();
+            if (!cached.inUse) {
+                closeStatement(pooled, cached.physical);
+            }
+        }
+    }
+
+    private static void closeStatement(PooledConnection pooled, Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            pooled.broken = true;
+        }
+    }
+
+    // Unwraps a driver exception, marking the connection broken if it reports a connection failure
+    private static Throwable driverException(PooledConnection pooled, InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof SQLException) {
+            String state = ((SQLException) cause).getSQLState();
+            if (state != null && state.startsWith("08")) {
+                pooled.broken = true;
+            }
+        }
+        return cause;
+    }
+
+    private void recordPrepare(long nanos) {
+        prepareNanos.addAndGet(nanos);
+        statementCacheMisses.incrementAndGet();
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            evict(pooled);
+        }
+    }
+
+    // =================== Metrics ===================
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        return all.size();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getThreadsAwaitingConnection() {
+        return permits.getQueueLength();
+    }
+
+    public long getTotalBorrows() {
+        return borrowCount.get();
+    }
+
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public long getLeakCount() {
+        return leakCount.get();
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    // Statements actually prepared by the driver: cache misses plus every statement the cache doesn't hold
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions.get();
+    }
+
+    public double getStatementCacheHitRatio() {
+        long lookups = statementCacheHits.get() + statementCacheMisses.get();
+        return lookups == 0 ? 0 : (double) statementCacheHits.get() / lookups;
+    }
+
+    public double getAveragePrepareMillis() {
+        long misses = statementCacheMisses.get();
+        return misses == 0 ? 0 : prepareNanos.get() / 1_000_000.0 / misses;
+    }
+
+    // Estimate: every hit would otherwise have cost an average prepare
+    public double getPrepareMillisSaved() {
+        return statementCacheHits.get() * getAveragePrepareMillis();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[active=%d, idle=%d, total=%d/%d, waiting=%d, borrows=%d, "
+                + "avgWait=%.3f ms, maxWait=%.3f ms, created=%d, evicted=%d, timeouts=%d, leaks=%d, "
+                + "statementHits=%d, statementMisses=%d, avgPrepare=%.3f ms]",
+                getActiveConnections(), getIdleConnections(), getTotalConnections(), maxSize,
+                getThreadsAwaitingConnection(), getTotalBorrows(), getAverageWaitMillis(), getMaxWaitMillis(),
+                getCreatedCount(), getEvictedCount(), getTimeoutCount(), getLeakCount(),
+                getStatementCacheHits(), getStatementCacheMisses(), getAveragePrepareMillis());
+    }
+
+    // =================== Pooled Connection ===================
+    private class PooledConnection {
+        private final Connection physical;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastReturnedAt = createdAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+        // Keyed by SQL in access order; only the current borrower touches it
+        private final LinkedHashMap<String, CachedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true);
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Handle(this));
+        }
+    }
+
+    // One handle per borrow, so a stale reference cannot touch the next borrower's session
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final List<Statement> statements = new ArrayList<>();
+        private final List<StatementHandle> cachedStatements = new ArrayList<>();
+        private boolean closed = false;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeStatements();
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool", "08003");
+            }
+            try {
+                boolean prepare = method.getName().equals("prepareStatement");
+                String key = prepare ? cacheKey(args) : null;
+                if (key != null) {
+                    return prepareCached(key, method, args);
+                }
+                long start = System.nanoTime();
+                Object result = method.invoke(pooled.physical, args);
+                if (prepare) {
+                    recordPrepare(System.nanoTime() - start);
+                }
+                if (result instanceof Statement) {
+                    statements.add((Statement) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw driverException(pooled, e);
+            }
+        }
+
+        // prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached; null otherwise
+        private String cacheKey(Object[] args) {
+            if (statementCacheSize <= 0) {
+                return null;
+            }
+            if (args.length == 1) {
+                return (String) args[0];
+            }
+            if (args.length == 2 && args[1] instanceof Integer) {
+                return (Integer) args[1] == Statement.RETURN_GENERATED_KEYS
+                        ? GENERATED_KEYS_PREFIX + args[0] : (String) args[0];
+            }
+            return null;
+        }
+
+        private PreparedStatement prepareCached(String key, Method method, Object[] args)
+                throws InvocationTargetException, IllegalAccessException {
+            CachedStatement cached = pooled.statementCache.get(key);
+            if (cached != null && !cached.inUse) {
+                statementCacheHits.incrementAndGet();
+            } else {
+                long start = System.nanoTime();
+                PreparedStatement physical = (PreparedStatement) method.invoke(pooled.physical, args);
+                recordPrepare(System.nanoTime() - start);
+                if (cached != null) {
+                    // The cached one is still open, e.g. for an outer query over the same SQL
+                    statements.add(physical);
+                    return physical;
+                }
+                cached = new CachedStatement(key, physical);
+                pooled.statementCache.put(key, cached);
+                trimStatementCache(pooled);
+            }
+            cached.inUse = true;
+            StatementHandle handle = new StatementHandle(pooled, cached);
+            cachedStatements.add(handle);
+            return handle.newProxy();
+        }
+
+        // Physical connections outlive the borrower, so statements left open would pile up
+        private void closeStatements() {
+            for (StatementHandle handle : cachedStatements) {
+                handle.giveBack();
+            }
+            cachedStatements.clear();
+            for (Statement statement : statements) {
+                closeStatement(pooled, statement);
+            }
+            statements.clear();
+        }
+    }
+
+    // =================== Statement Cache ===================
+    private static class CachedStatement {
+        private final String key;
+        private final PreparedStatement physical;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(String key, PreparedStatement physical) {
+            this.key = key;
+            this.physical = physical;
+        }
+    }
+
+    // One handle per checkout of a cached statement; closing it puts the statement back in the cache
+    private static class StatementHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final CachedStatement cached;
+        private final List<ResultSet> resultSets = new ArrayList<>();
+        private boolean reconfigured = false;
+        private boolean returned = false;
+
+        StatementHandle(PooledConnection pooled, CachedStatement cached) {
+            this.pooled = pooled;
+            this.cached = cached;
+        }
+
+        PreparedStatement newProxy() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    return returned || cached.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Statement has already been closed");
+            }
+            if (RECONFIGURING_METHODS.contains(method.getName())) {
+                reconfigured = true;
+            }
+            try {
+                Object result = method.invoke(cached.physical, args);
+                if (result instanceof ResultSet) {
+                    resultSets.add((ResultSet) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw driverException(pooled, e);
+            }
+        }
+
+        private void giveBack() {
+            if (returned) {
+                return;
+            }
+            returned = true;
+            boolean reusable = !reconfigured && !cached.evicted && !pooled.broken;
+            try {
+                for (ResultSet rs : resultSets) {
+                    rs.close();
+                }
+                if (reusable) {
+                    cached.physical.clearParameters();
+                    cached.physical.clearBatch();
+                    cached.physical.clearWarnings();
+                }
+            } catch (SQLException e) {
+                reusable = false;
+            }
+            resultSets.clear();
+            cached.inUse = false;
+            if (!reusable) {
+                pooled.statementCache.remove(cached.key, cached);
+                closeStatement(pooled, cached.physical);
+            }
+        }
+    }
+}
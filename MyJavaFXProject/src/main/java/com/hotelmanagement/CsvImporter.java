@@ -0,0 +1,506 @@
+package com.hotelmanagement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of hotels, rooms, customers and historical reservations from CSV files.
+ * <p>
+ * The file is streamed one record at a time and written in chunks of {@value #CHUNK_SIZE} rows.
+ * Each chunk is one JDBC batch, which the driver sends as a few multi-row INSERTs when
+ * {@code rewriteBatchedStatements} is on (see {@link Database}), and one commit, so memory stays
+ * constant however large the file is. A failure loses at most the chunk in flight.
+ * <p>
+ * Every row is validated before it is written, with the same rules as the dialogs plus the
+ * references the dialogs get from their combo boxes: a room's hotel, a reservation's customer and
+ * room, and that a reservation doesn't overlap another stay in its room (checked against a private
+ * {@link AvailabilityEngine} that also learns the file's own rows). Rows that fail are skipped and
+ * reported with their line number. If the database still rejects a chunk, e.g. a duplicate key, the
+ * chunk is rolled back and written row by row so only the offending rows are lost.
+ * <p>
+ * The first record names the columns, in any order; unknown columns are ignored:
+ * <ul>
+ *   <li>hotels: {@code name, rating} and optionally {@code id, description, address}</li>
+ *   <li>rooms: {@code number, type, hotel_id} and optionally {@code available}</li>
+ *   <li>customers: {@code name, email} and optionally {@code id, phone, address}</li>
+ *   <li>reservations: {@code customer_id, room_number, check_in, check_out} and optionally {@code id}</li>
+ * </ul>
+ * Rows without an id get a generated one. Dates are ISO ({@code 2024-07-14}). Call from a
+ * background thread.
+ */
+public class CsvImporter {
+
+    // Called after every committed chunk with the running totals
+    public interface Progress {
+        void update(long rowsRead, long rowsImported, long rowsRejected);
+    }
+
+    private static final int CHUNK_SIZE = 1000;
+    // Errors past this many are only counted, so a file full of bad rows can't exhaust memory
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    public static Report importFile(DataTable target, Path file, Progress progress) throws IOException, SQLException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importCsv(target, reader, progress);
+        }
+    }
+
+    public static Report importCsv(DataTable target, Reader reader, Progress progress) throws IOException, SQLException {
+        Loader<?> loader = switch (target) {
+            case HOTELS -> new HotelLoader();
+            case ROOMS -> new RoomLoader();
+            case CUSTOMERS -> new CustomerLoader();
+            case RESERVATIONS -> new ReservationLoader();
+        };
+        Report report = run(loader, new CsvReader(reader), progress);
+        if (report.rowsImported > 0) {
+            // Batches bypass the per-row change log; other desks reload the table instead
+            ChangeLog.recordReload(target);
+        }
+        return report;
+    }
+
+    private static <T> Report run(Loader<T> loader, CsvReader csv, Progress progress)
+            throws IOException, SQLException {
+        Report report = new Report();
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IOException("The file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : loader.requiredColumns) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("Missing column '" + required + "'; expected " + loader.requiredColumns);
+            }
+        }
+
+        loader.begin();
+        List<Pending<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            report.rowsRead++;
+            try {
+                chunk.add(new Pending<>(csv.getRecordLine(), loader.parse(new Row(columns, fields))));
+            } catch (IllegalArgumentException e) {
+                report.reject(csv.getRecordLine(), e.getMessage());
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                writeChunk(loader, chunk, report);
+                chunk.clear();
+                progress.update(report.rowsRead, report.rowsImported, report.rowsRejected);
+            }
+        }
+        writeChunk(loader, chunk, report);
+        progress.update(report.rowsRead, report.rowsImported, report.rowsRejected);
+        loader.finish();
+        return report;
+    }
+
+    // A connection per chunk rather than one for the whole file keeps a long import from holding
+    // a pool slot (and tripping leak detection) for minutes
+    private static <T> void writeChunk(Loader<T> loader, List<Pending<T>> chunk, Report report) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            List<Pending<T>> valid = loader.validate(conn, chunk, report);
+            List<T> rows = new ArrayList<>(valid.size());
+            for (Pending<T> pending : valid) {
+                rows.add(pending.row);
+            }
+            try {
+                loader.insert(conn, rows);
+                conn.commit();
+                report.rowsImported += rows.size();
+            } catch (SQLException e) {
+                conn.rollback();
+                if (isConnectionFailure(e)) {
+                    throw e;
+                }
+                // A failed INSERT doesn't abort the transaction, so the good rows still commit together
+                for (Pending<T> pending : valid) {
+                    try {
+                        loader.insert(conn, List.of(pending.row));
+                        report.rowsImported++;
+                    } catch (SQLException rowError) {
+                        if (isConnectionFailure(rowError)) {
+                            throw rowError;
+                        }
+                        loader.rejected(pending.row);
+                        report.reject(pending.line, rowError.getMessage());
+                    }
+                }
+                conn.commit();
+            }
+        }
+    }
+
+    private static boolean isConnectionFailure(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("08");
+    }
+
+    // =================== Report ===================
+    public static class Report {
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(long line, String message) {
+            rowsRejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + line + ": " + message);
+            }
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsImported() {
+            return rowsImported;
+        }
+
+        public long getRowsRejected() {
+            return rowsRejected;
+        }
+
+        // The first MAX_REPORTED_ERRORS rejected rows, as "Line n: reason"
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+    }
+
+    // =================== Rows ===================
+    private static class Pending<T> {
+        private final long line;
+        private final T row;
+
+        Pending(long line, T row) {
+            this.line = line;
+            this.row = row;
+        }
+    }
+
+    // One record seen through the header; getters throw IllegalArgumentException with a message for the report
+    private static class Row {
+        private final Map<String, Integer> columns;
+        private final List<String> fields;
+
+        Row(Map<String, Integer> columns, List<String> fields) {
+            this.columns = columns;
+            this.fields = fields;
+        }
+
+        String optionalText(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        String text(String column) {
+            String value = optionalText(column);
+            if (value == null) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            return value;
+        }
+
+        int intValue(String column) {
+            String value = text(column);
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " must be a whole number, got '" + value + "'");
+            }
+        }
+
+        int optionalId(String column) {
+            if (optionalText(column) == null) {
+                return 0;
+            }
+            int id = intValue(column);
+            if (id <= 0) {
+                throw new IllegalArgumentException(column + " must be positive");
+            }
+            return id;
+        }
+
+        double doubleValue(String column) {
+            String value = text(column);
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + " must be a number, got '" + value + "'");
+            }
+        }
+
+        boolean booleanValue(String column, boolean defaultValue) {
+            String value = optionalText(column);
+            if (value == null) {
+                return defaultValue;
+            }
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "true", "1", "yes":
+                    return true;
+                case "false", "0", "no":
+                    return false;
+                default:
+                    throw new IllegalArgumentException(column + " must be true or false, got '" + value + "'");
+            }
+        }
+
+        LocalDate date(String column) {
+            String value = text(column);
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(column + " must be a date like 2024-07-14, got '" + value + "'");
+            }
+        }
+    }
+
+    // =================== Loaders ===================
+    private abstract static class Loader<T> {
+        private final List<String> requiredColumns;
+
+        Loader(String... requiredColumns) {
+            this.requiredColumns = List.of(requiredColumns);
+        }
+
+        void begin() throws SQLException {
+        }
+
+        // Field-level checks; throws IllegalArgumentException for a bad row
+        abstract T parse(Row row);
+
+        // Checks that need the database; returns the rows that passed and reports the others
+        List<Pending<T>> validate(Connection conn, List<Pending<T>> chunk, Report report) throws SQLException {
+            return chunk;
+        }
+
+        abstract void insert(Connection conn, List<T> rows) throws SQLException;
+
+        // A validated row the database refused after all
+        void rejected(T row) {
+        }
+
+        // Caches and derived data that the bulk write bypassed
+        void finish() {
+        }
+    }
+
+    private static class HotelLoader extends Loader<Hotel> {
+        private final HotelRepository hotels = new HotelRepository();
+
+        HotelLoader() {
+            super("name", "rating");
+        }
+
+        @Override
+        Hotel parse(Row row) {
+            double rating = row.doubleValue("rating");
+            if (rating < 1.0 || rating > 5.0) {
+                throw new IllegalArgumentException("rating must be between 1.0 and 5.0");
+            }
+            return new Hotel(row.optionalId("id"), row.text("name"), row.optionalText("description"),
+                    row.optionalText("address"), rating);
+        }
+
+        @Override
+        void insert(Connection conn, List<Hotel> rows) throws SQLException {
+            hotels.insertAll(conn, rows);
+        }
+
+        @Override
+        void finish() {
+            ReferenceData.invalidateHotels();
+        }
+    }
+
+    private static class RoomLoader extends Loader<Room> {
+        private final HotelRepository hotels = new HotelRepository();
+        private final RoomRepository rooms = new RoomRepository();
+
+        RoomLoader() {
+            super("number", "type", "hotel_id");
+        }
+
+        @Override
+        Room parse(Row row) {
+            int number = row.intValue("number");
+            if (number <= 0) {
+                throw new IllegalArgumentException("number must be positive");
+            }
+            return new Room(number, row.text("type"), row.booleanValue("available", true), row.intValue("hotel_id"));
+        }
+
+        @Override
+        List<Pending<Room>> validate(Connection conn, List<Pending<Room>> chunk, Report report) throws SQLException {
+            Set<Integer> hotelIds = new HashSet<>();
+            Set<Integer> numbers = new HashSet<>();
+            for (Pending<Room> pending : chunk) {
+                hotelIds.add(pending.row.getHotelId());
+                numbers.add(pending.row.getNumber());
+            }
+            Set<Integer> knownHotels = hotels.findExistingIds(conn, hotelIds);
+            Set<Integer> taken = new HashSet<>(rooms.findExistingNumbers(conn, numbers));
+
+            List<Pending<Room>> valid = new ArrayList<>(chunk.size());
+            for (Pending<Room> pending : chunk) {
+                Room room = pending.row;
+                if (!knownHotels.contains(room.getHotelId())) {
+                    report.reject(pending.line, "hotel " + room.getHotelId() + " does not exist");
+                } else if (!taken.add(room.getNumber())) {
+                    report.reject(pending.line, "room " + room.getNumber() + " already exists");
+                } else {
+                    valid.add(pending);
+                }
+            }
+            return valid;
+        }
+
+        @Override
+        void insert(Connection conn, List<Room> rows) throws SQLException {
+            rooms.insertAll(conn, rows);
+        }
+
+        @Override
+        void finish() {
+            AvailabilityEngine.invalidateShared();
+        }
+    }
+
+    private static class CustomerLoader extends Loader<Customer> {
+        private final CustomerRepository customers = new CustomerRepository();
+
+        CustomerLoader() {
+            super("name", "email");
+        }
+
+        @Override
+        Customer parse(Row row) {
+            String email = row.text("email");
+            if (!Customer.isValidEmail(email)) {
+                throw new IllegalArgumentException("'" + email + "' is not a valid email address");
+            }
+            return new Customer(row.optionalId("id"), row.text("name"), email, row.optionalText("phone"),
+                    row.optionalText("address"));
+        }
+
+        @Override
+        void insert(Connection conn, List<Customer> rows) throws SQLException {
+            customers.insertAll(conn, rows);
+        }
+    }
+
+    private static class ReservationLoader extends Loader<Reservation> {
+        private final CustomerRepository customers = new CustomerRepository();
+        private final ReservationRepository reservations = new ReservationRepository();
+        private AvailabilityEngine engine;
+        // Stand-in engine ids for rows whose real id the database will generate
+        private int nextProvisionalId = -1;
+
+        ReservationLoader() {
+            super("customer_id", "room_number", "check_in", "check_out");
+        }
+
+        @Override
+        void begin() throws SQLException {
+            SchemaMigrator.ensureMigrated();
+            try (Connection conn = Database.getConnection()) {
+                engine = AvailabilityEngine.load(conn);
+            }
+        }
+
+        @Override
+        Reservation parse(Row row) {
+            LocalDate checkIn = row.date("check_in");
+            LocalDate checkOut = row.date("check_out");
+            if (!checkOut.isAfter(checkIn)) {
+                throw new IllegalArgumentException("check_out must be after check_in");
+            }
+            int id = row.optionalId("id");
+            return new Reservation(id > 0 ? id : nextProvisionalId--, row.intValue("customer_id"), null,
+                    row.intValue("room_number"), checkIn, checkOut);
+        }
+
+        @Override
+        List<Pending<Reservation>> validate(Connection conn, List<Pending<Reservation>> chunk, Report report)
+                throws SQLException {
+            Set<Integer> customerIds = new HashSet<>();
+            for (Pending<Reservation> pending : chunk) {
+                customerIds.add(pending.row.getCustomerId());
+            }
+            Set<Integer> knownCustomers = customers.findExistingIds(conn, customerIds);
+
+            List<Pending<Reservation>> valid = new ArrayList<>(chunk.size());
+            for (Pending<Reservation> pending : chunk) {
+                Reservation res = pending.row;
+                LocalDate checkIn = res.getCheckIn();
+                LocalDate checkOut = res.getCheckOut();
+                if (!knownCustomers.contains(res.getCustomerId())) {
+                    report.reject(pending.line, "customer " + res.getCustomerId() + " does not exist");
+                } else if (!engine.hasRoom(res.getRoomNumber())) {
+                    report.reject(pending.line, "room " + res.getRoomNumber() + " does not exist");
+                } else if (!engine.isFree(res.getRoomNumber(), checkIn, checkOut, null)) {
+                    report.reject(pending.line, "room " + res.getRoomNumber() + " is already booked between "
+                            + checkIn + " and " + checkOut);
+                } else {
+                    // Later rows of the file must not overlap this one either
+                    engine.putReservation(res.getId(), res.getRoomNumber(), checkIn, checkOut);
+                    valid.add(pending);
+                }
+            }
+            return valid;
+        }
+
+        @Override
+        void insert(Connection conn, List<Reservation> rows) throws SQLException {
+            List<Reservation> toInsert = new ArrayList<>(rows.size());
+            for (Reservation res : rows) {
+                toInsert.add(res.getId() > 0 ? res : new Reservation(0, res.getCustomerId(), null,
+                        res.getRoomNumber(), res.getCheckIn(), res.getCheckOut()));
+            }
+            reservations.insertAll(conn, toInsert);
+            OccupancyRollup.addStays(conn, toInsert);
+        }
+
+        @Override
+        void rejected(Reservation row) {
+            engine.removeReservation(row.getId(), row.getRoomNumber());
+        }
+
+        @Override
+        void finish() {
+            AvailabilityEngine.invalidateShared();
+            ReportEngine.invalidateShared();
+            RoomAvailability.reconcile();
+        }
+    }
+}
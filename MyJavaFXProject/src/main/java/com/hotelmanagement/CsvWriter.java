@@ -0,0 +1,80 @@
+package com.hotelmanagement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes RFC 4180 CSV, the format {@link CsvReader} reads, to a channel through a fixed-size
+ * buffer. Fields are quoted only when they contain a comma, quote or line break; nulls are written
+ * as empty fields. {@link #close()} flushes but leaves the channel to its owner.
+ */
+class CsvWriter implements Closeable {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final StringBuilder record = new StringBuilder();
+    private boolean firstField = true;
+
+    CsvWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    void field(String value) {
+        if (!firstField) {
+            record.append(',');
+        }
+        firstField = false;
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            record.append(value);
+            return;
+        }
+        record.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                record.append('"');
+            }
+            record.append(c);
+        }
+        record.append('"');
+    }
+
+    void endRecord() throws IOException {
+        record.append("\r\n");
+        byte[] bytes = record.toString().getBytes(StandardCharsets.UTF_8);
+        record.setLength(0);
+        firstField = true;
+        if (bytes.length > buffer.remaining()) {
+            flush();
+        }
+        if (bytes.length > buffer.capacity()) {
+            write(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,42 @@
+package com.hotelmanagement;
+
+public class Customer {
+    private int id;
+    private String name;
+    private String email;
+    private String phone;
+    private String address;
+
+    public Customer(int id, String name, String email, String phone, String address) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.address = address;
+    }
+
+    // Shared by the customer dialog and the CSV import so both accept the same addresses
+    public static boolean isValidEmail(String email) {
+        return email.matches("^[A-Za-z0-9+_.-]+@(.+)$");
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+}
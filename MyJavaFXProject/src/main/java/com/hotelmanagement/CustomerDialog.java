@@ -8,8 +8,6 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 public class CustomerDialog {
     private Stage stage;
@@ -90,16 +88,13 @@ public class CustomerDialog {
 
     private void loadCustomerData(int customerId) {
         try (Connection conn = Database.getConnection()) {
-            String sql = "SELECT * FROM customers WHERE id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, customerId);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                nameField.setText(rs.getString("name"));
-                emailField.setText(rs.getString("email"));
-                phoneField.setText(rs.getString("phone") != null ? rs.getString("phone") : "");
-                addressArea.setText(rs.getString("address") != null ? rs.getString("address") : "");
+            Customer customer = new CustomerRepository().findById(conn, customerId);
+
+            if (customer != null) {
+                nameField.setText(customer.getName());
+                emailField.setText(customer.getEmail());
+                phoneField.setText(customer.getPhone() != null ? customer.getPhone() : "");
+                addressArea.setText(customer.getAddress() != null ? customer.getAddress() : "");
             }
         } catch (Exception e) {
             showError("Error loading customer data: " + e.getMessage());
@@ -117,7 +112,7 @@ public class CustomerDialog {
             return false;
         }
 
-        if (!isValidEmail(emailField.getText().trim())) {
+        if (!Customer.isValidEmail(emailField.getText().trim())) {
             showError("Please enter a valid email address!");
             return false;
         }
@@ -125,10 +120,6 @@ public class CustomerDialog {
         return true;
     }
 
-    private boolean isValidEmail(String email) {
-        return email.matches("^[A-Za-z0-9+_.-]+@(.+)$");
-    }
-
     private void showError(String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setTitle("Validation Error");
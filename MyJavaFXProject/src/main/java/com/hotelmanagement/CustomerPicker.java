@@ -0,0 +1,117 @@
+package com.hotelmanagement;
+
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Type-ahead customer picker.
+ * <p>
+ * Nothing is loaded when the picker is created, so it opens in constant time however many
+ * customers there are. As the user types, a prefix search on the name ({@code name LIKE 'text%'},
+ * served by the index on {@code customers.name}) or on the id when the text is a number runs in the
+ * background and the popup shows the top matches. Values are typed {@link Customer}
+ * objects rather than formatted strings.
+ */
+public class CustomerPicker {
+
+    private static final long DEBOUNCE_MS = 150;
+    private static final int MAX_RESULTS = 50;
+
+    private static final CustomerRepository CUSTOMERS = new CustomerRepository();
+
+    private final ComboBox<Customer> comboBox = new ComboBox<>();
+    private final PauseTransition debounce = new PauseTransition(Duration.millis(DEBOUNCE_MS));
+    private Task<List<Customer>> pendingSearch;
+
+    public CustomerPicker() {
+        comboBox.setEditable(true);
+        comboBox.setPromptText("Type a name or id...");
+        comboBox.setVisibleRowCount(10);
+        comboBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Customer customer) {
+                return customer == null ? "" : customer.getName() + " (#" + customer.getId() + ")";
+            }
+
+            // Typed text only selects a customer by picking it from the suggestions
+            @Override
+            public Customer fromString(String text) {
+                Customer current = comboBox.getValue();
+                return current != null && toString(current).equals(text) ? current : null;
+            }
+        });
+
+        debounce.setOnFinished(e -> search(comboBox.getEditor().getText()));
+        comboBox.getEditor().textProperty().addListener((obs, oldVal, newVal) -> {
+            // Text set by picking a suggestion is not a new query
+            if (comboBox.getValue() != null && comboBox.getConverter().toString(comboBox.getValue()).equals(newVal)) {
+                return;
+            }
+            debounce.playFromStart();
+        });
+    }
+
+    public ComboBox<Customer> getControl() {
+        return comboBox;
+    }
+
+    public Customer getValue() {
+        return comboBox.getValue();
+    }
+
+    public void setValue(Customer customer) {
+        comboBox.getItems().setAll(customer);
+        comboBox.setValue(customer);
+    }
+
+    private void search(String text) {
+        if (pendingSearch != null) {
+            pendingSearch.cancel();
+            pendingSearch = null;
+        }
+        String query = text == null ? "" : text.trim();
+        if (query.isEmpty()) {
+            comboBox.getItems().clear();
+            comboBox.hide();
+            return;
+        }
+
+        pendingSearch = DbExecutor.submit("Find customers", () -> findCustomers(query), customers -> {
+            pendingSearch = null;
+            comboBox.setPlaceholder(null);
+            comboBox.getItems().setAll(customers);
+            if (customers.isEmpty()) {
+                comboBox.hide();
+            } else if (comboBox.getEditor().isFocused()) {
+                comboBox.show();
+            }
+        }, e -> {
+            pendingSearch = null;
+            QueryMetrics.shared().recordFailure("Find customers", e);
+            // The popup shows its placeholder while there are no suggestions
+            comboBox.getItems().clear();
+            comboBox.setPlaceholder(new Label("Could not search customers: " + e.getMessage()));
+            if (comboBox.getEditor().isFocused()) {
+                comboBox.show();
+            }
+        });
+    }
+
+    private static List<Customer> findCustomers(String query) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            if (query.matches("\\d{1,9}")) {
+                Customer customer = CUSTOMERS.findById(conn, Integer.parseInt(query));
+                return customer == null ? List.of() : List.of(customer);
+            }
+            return CUSTOMERS.findByNamePrefix(conn, query, MAX_RESULTS);
+        }
+    }
+}
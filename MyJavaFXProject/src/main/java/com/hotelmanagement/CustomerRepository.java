@@ -0,0 +1,143 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+// Data access for the customers table; see HotelRepository for how repositories are used
+public class CustomerRepository {
+
+    static final String FIND_PAGE_FORWARD = "SELECT * FROM customers " + PagedLoader.keysetClause("id", true);
+    private static final String FIND_PAGE_BACKWARD = "SELECT * FROM customers " + PagedLoader.keysetClause("id", false);
+    private static final String FIND_BY_ID = "SELECT * FROM customers WHERE id = ?";
+    private static final String SEARCH = "SELECT * FROM customers WHERE name LIKE ? OR email LIKE ? ORDER BY id LIMIT ?";
+    // A prefix LIKE can use the index on name
+    static final String FIND_BY_NAME_PREFIX = "SELECT * FROM customers WHERE name LIKE ? ORDER BY name LIMIT ?";
+    private static final String INSERT = "INSERT INTO customers (name, email, phone, address) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID = "INSERT INTO customers (name, email, phone, address, id) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE customers SET name = ?, email = ?, phone = ?, address = ? WHERE id = ?";
+    private static final String DELETE = "DELETE FROM customers WHERE id = ?";
+
+    public List<Customer> findPage(Connection conn, long key, boolean forward, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(forward ? FIND_PAGE_FORWARD : FIND_PAGE_BACKWARD)) {
+            pstmt.setLong(1, key);
+            pstmt.setInt(2, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    public Customer findById(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(FIND_BY_ID)) {
+            pstmt.setInt(1, id);
+            List<Customer> customers = mapAll(pstmt.executeQuery());
+            return customers.isEmpty() ? null : customers.get(0);
+        }
+    }
+
+    public List<Customer> search(Connection conn, String likePattern, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SEARCH)) {
+            pstmt.setString(1, likePattern);
+            pstmt.setString(2, likePattern);
+            pstmt.setInt(3, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    public List<Customer> findByNamePrefix(Connection conn, String prefix, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(FIND_BY_NAME_PREFIX)) {
+            pstmt.setString(1, SearchPipeline.escapeLike(prefix) + "%");
+            pstmt.setInt(2, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    // Returns the customer with its generated id
+    public Customer insert(Connection conn, Customer customer) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            bind(pstmt, customer);
+            pstmt.executeUpdate();
+            ResultSet generatedKeys = pstmt.getGeneratedKeys();
+            generatedKeys.next();
+            int id = generatedKeys.getInt(1);
+            ChangeLog.record(conn, DataTable.CUSTOMERS, ChangeLog.INSERT, id);
+            return new Customer(id, customer.getName(), customer.getEmail(), customer.getPhone(),
+                    customer.getAddress());
+        }
+    }
+
+    // Customers with an id keep it, like HotelRepository.insertAll
+    public void insertAll(Connection conn, List<Customer> customers) throws SQLException {
+        List<Customer> withId = new ArrayList<>();
+        List<Customer> withoutId = new ArrayList<>();
+        for (Customer customer : customers) {
+            (customer.getId() > 0 ? withId : withoutId).add(customer);
+        }
+        if (!withId.isEmpty()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_WITH_ID)) {
+                for (Customer customer : withId) {
+                    bind(pstmt, customer);
+                    pstmt.setInt(5, customer.getId());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+        if (!withoutId.isEmpty()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT)) {
+                for (Customer customer : withoutId) {
+                    bind(pstmt, customer);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    public void update(Connection conn, Customer customer) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPDATE)) {
+            bind(pstmt, customer);
+            pstmt.setInt(5, customer.getId());
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.CUSTOMERS, ChangeLog.UPDATE, customer.getId());
+    }
+
+    public void delete(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE)) {
+            pstmt.setInt(1, id);
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.CUSTOMERS, ChangeLog.DELETE, id);
+    }
+
+    public Set<Integer> findExistingIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        return KeyLookup.existing(conn, "customers", "id", ids);
+    }
+
+    private void bind(PreparedStatement pstmt, Customer customer) throws SQLException {
+        pstmt.setString(1, customer.getName());
+        pstmt.setString(2, customer.getEmail());
+        pstmt.setString(3, customer.getPhone());
+        pstmt.setString(4, customer.getAddress());
+    }
+
+    private List<Customer> mapAll(ResultSet rs) throws SQLException {
+        List<Customer> list = new ArrayList<>();
+        while (rs.next()) {
+            list.add(new Customer(
+                    rs.getInt("id"),
+                    rs.getString("name"),
+                    rs.getString("email"),
+                    rs.getString("phone"),
+                    rs.getString("address")));
+        }
+        return list;
+    }
+}
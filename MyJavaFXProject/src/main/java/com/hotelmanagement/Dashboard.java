@@ -1,21 +1,99 @@
 package com.hotelmanagement;
 
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
+import java.io.File;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.Statement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 public class Dashboard {
 
+    // Paging: rows per query, rows from the window edge that trigger the next page,
+    // pages held in each table and pages kept in the LRU cache after leaving the window
+    // (overridable with -Dhotel.page.size=... and the other hotel.page.* properties below)
+    private static final int PAGE_SIZE = Integer.getInteger("hotel.page.size", 200);
+    private static final int PREFETCH_ROWS = Integer.getInteger("hotel.page.prefetchRows", 50);
+    private static final int MAX_PAGES_IN_MEMORY = Integer.getInteger("hotel.page.maxPagesInMemory", 10);
+    private static final int CACHED_PAGES = Integer.getInteger("hotel.page.cachedPages", 20);
+
+    // Search: quiet period before a query runs, and when/how much to ask the server
+    // for tables that are only partially loaded
+    private static final long SEARCH_DEBOUNCE_MS = 200;
+    private static final int MIN_SERVER_QUERY_LENGTH = 2;
+    private static final int SERVER_SEARCH_LIMIT = 500;
+
+    // Other desks' changes: rows re-read per table per poll before a full reload is cheaper
+    private static final int MAX_ROWS_PATCHED = 200;
+
+    private static final String ALL_ROOM_TYPES = "All Types";
+    private static final DateTimeFormatter CHART_DATE_FORMAT = DateTimeFormatter.ofPattern("d MMM");
+
+    // Tables load in the background when their tab is first shown; switching away cancels a pending load
+    private final Map<Tab, Runnable> tabLoaders = new HashMap<>();
+    private final Map<Tab, Task<?>> pendingLoads = new HashMap<>();
+    private final Set<Tab> loadedTabs = new HashSet<>();
+    private final Map<TableView<?>, PagedLoader<?>> loaders = new HashMap<>();
+    private final Map<TableView<?>, SearchPipeline<?>> searches = new HashMap<>();
+    private final Map<TableView<?>, Label> searchStatuses = new HashMap<>();
+    private final Map<DataTable, RemoteChanges<?>> remoteChanges = new EnumMap<>(DataTable.class);
+    private final ChangePoller.Listener changeListener = changes -> Platform.runLater(() -> applyRemoteChanges(changes));
+    private final Label offlineLabel = new Label(
+            "Offline: working from this desk's copy; changes will be sent when the server is back");
+    private final OfflineStore.Listener offlineListener = new OfflineStore.Listener() {
+        @Override
+        public void wentOffline() {
+            Platform.runLater(() -> offlineLabel.setVisible(true));
+        }
+
+        @Override
+        public void backOnline(int replayed, List<String> conflicts) {
+            Platform.runLater(() -> onBackOnline(replayed, conflicts));
+        }
+    };
+
+    private final HotelRepository hotelRepository = new HotelRepository();
+    private final RoomRepository roomRepository = new RoomRepository();
+    private final ReservationRepository reservationRepository = new ReservationRepository();
+    private final CustomerRepository customerRepository = new CustomerRepository();
+
+    // Signed-in user, named in the audit log
+    private final String user;
+
+    public Dashboard(String user) {
+        this.user = user;
+    }
+
     public void start(Stage stage) {
         stage.setTitle("Hotel Management - Dashboard");
 
@@ -23,31 +101,53 @@ public class Dashboard {
         TabPane tabPane = new TabPane();
 
         Tab hotelsTab = new Tab("Hotels");
-        hotelsTab.setContent(createHotelsTab());
+        hotelsTab.setContent(createHotelsTab(hotelsTab));
         hotelsTab.setClosable(false);
 
         Tab roomsTab = new Tab("Rooms");
-        roomsTab.setContent(createRoomsTab());
+        roomsTab.setContent(createRoomsTab(roomsTab));
         roomsTab.setClosable(false);
 
         Tab reservationsTab = new Tab("Reservations");
-        reservationsTab.setContent(createReservationsTab());
+        reservationsTab.setContent(createReservationsTab(reservationsTab));
         reservationsTab.setClosable(false);
 
         Tab customersTab = new Tab("Customers");
-        customersTab.setContent(createCustomersTab());
+        customersTab.setContent(createCustomersTab(customersTab));
         customersTab.setClosable(false);
 
-        tabPane.getTabs().addAll(hotelsTab, roomsTab, reservationsTab, customersTab);
+        Tab analyticsTab = new Tab("Analytics");
+        analyticsTab.setContent(createAnalyticsTab(analyticsTab));
+        analyticsTab.setClosable(false);
+
+        tabPane.getTabs().addAll(hotelsTab, roomsTab, reservationsTab, customersTab, analyticsTab);
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> {
+            Task<?> pending = pendingLoads.remove(oldTab);
+            if (pending != null) {
+                pending.cancel();
+            }
+            loadTabIfNeeded(newTab);
+        });
+        loadTabIfNeeded(tabPane.getSelectionModel().getSelectedItem());
+        ReferenceData.preload();
+        ChangePoller.shared().addListener(changeListener);
+        OfflineStore.addListener(offlineListener);
 
         Button logoutButton = new Button("Logout");
         logoutButton.setStyle(
                 "-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 25; -fx-cursor: hand;");
         logoutButton.setOnAction(e -> {
+            ChangePoller.shared().removeListener(changeListener);
+            OfflineStore.removeListener(offlineListener);
             LoginPage loginPage = new LoginPage();
             loginPage.start(stage);
         });
 
+        Button diagnosticsButton = new Button("Diagnostics");
+        diagnosticsButton.setStyle(
+                "-fx-background-color: #607D8B; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
+        diagnosticsButton.setOnAction(e -> new DiagnosticsDialog(stage).show());
+
         Label titleLabel = new Label("Hotel Management System");
         titleLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: #2196F3;");
 
@@ -55,8 +155,10 @@ public class Dashboard {
         topBar.setSpacing(10);
         topBar.setStyle(
                 "-fx-padding: 15; -fx-background-color: #ffffff; -fx-border-color: #e0e0e0; -fx-border-width: 0 0 2 0;");
-        topBar.getChildren().addAll(titleLabel, new javafx.scene.layout.Region());
-        topBar.getChildren().add(logoutButton);
+        offlineLabel.setStyle("-fx-text-fill: #E65100; -fx-font-weight: bold; -fx-padding: 5 0 0 20;");
+        offlineLabel.setVisible(OfflineStore.isOffline());
+        topBar.getChildren().addAll(titleLabel, offlineLabel, new javafx.scene.layout.Region());
+        topBar.getChildren().addAll(diagnosticsButton, logoutButton);
 
         tabPane.setStyle("-fx-font-size: 14px; -fx-font-weight: bold;");
 
@@ -70,60 +172,385 @@ public class Dashboard {
         stage.show();
     }
 
+    // =================== Background Loading ===================
+    private void loadTabIfNeeded(Tab tab) {
+        if (tab != null && !loadedTabs.contains(tab) && !pendingLoads.containsKey(tab)) {
+            Runnable loader = tabLoaders.get(tab);
+            if (loader != null) {
+                loader.run();
+            }
+        }
+    }
+
+    // Tables only hold a window of pages; the rest is fetched by key as the user scrolls
+    private <T> PagedLoader<T> createLoader(String name, TableView<T> table, ObservableList<T> data,
+            PagedLoader.PageQuery<T> query, ToLongFunction<T> key) {
+        PagedLoader<T> loader = new PagedLoader<>(name, data, query, key, PAGE_SIZE, PREFETCH_ROWS,
+                MAX_PAGES_IN_MEMORY, CACHED_PAGES);
+        loader.attach(table);
+        loaders.put(table, loader);
+        return loader;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> PagedLoader<T> loaderFor(TableView<T> table) {
+        return (PagedLoader<T>) loaders.get(table);
+    }
+
+    // Debounced search over the loaded rows, falling back to the server while the table is partially loaded.
+    // The status label under the table also says when scrolling could not fetch more rows.
+    private <T> SearchPipeline<T> createSearch(TextField searchField, Label status, TableView<T> table,
+            ObservableList<T> shownRows, Consumer<String> localFilter,
+            SearchPipeline.ServerSearch<T> serverSearch, ToLongFunction<T> key) {
+        PagedLoader<T> loader = loaderFor(table);
+        SearchPipeline<T> search = new SearchPipeline<>(searchField, status, table, shownRows, loader,
+                localFilter, serverSearch, key, SEARCH_DEBOUNCE_MS, MIN_SERVER_QUERY_LENGTH, SERVER_SEARCH_LIMIT);
+        loader.setOnPageFailure(e -> status.setText("Could not load more " + loader.getName() + ": " + e.getMessage()));
+        searches.put(table, search);
+        searchStatuses.put(table, status);
+        return search;
+    }
+
+    // For background work on a table that nobody waits on, e.g. a reload after a remote change
+    private void showTableStatus(TableView<?> table, String message) {
+        Label status = searchStatuses.get(table);
+        if (status != null) {
+            status.setText(message);
+        }
+    }
+
+    private void reloadTable(TableView<?> table) {
+        PagedLoader<?> loader = loaderFor(table);
+        loader.reset(() -> { }, e -> showTableStatus(table, "Could not reload " + loader.getName() + ": " + e.getMessage()));
+    }
+
+    private Label createSearchStatus() {
+        Label status = new Label();
+        status.setMaxHeight(Double.MAX_VALUE);
+        status.setStyle("-fx-text-fill: #757575; -fx-font-size: 12px;");
+        return status;
+    }
+
+    private <T> void loadTable(Tab tab, TableView<T> table, String what) {
+        table.setPlaceholder(loadingPlaceholder("Loading " + what + "..."));
+        Task<?> task = loaderFor(table).reset(() -> {
+            pendingLoads.remove(tab);
+            loadedTabs.add(tab);
+            table.setPlaceholder(new Label("No " + what + " found"));
+        }, e -> {
+            pendingLoads.remove(tab);
+            table.setPlaceholder(new Label("Could not load " + what + ": " + e.getMessage()));
+        });
+        pendingLoads.put(tab, task);
+    }
+
+    // =================== Incremental Updates ===================
+    // Replaces a row in place so the table keeps its position instead of rebuilding every row.
+    // Rows picked from server search results may not be in the loaded window; those are left alone.
+    private <T> void replaceRow(List<T> list, T oldRow, T newRow) {
+        int index = list.indexOf(oldRow);
+        if (index >= 0) {
+            list.set(index, newRow);
+        }
+    }
+
+    // Other desks' writes reach the table through the change log (see applyRemoteChanges), so after
+    // patching our own write in locally only server search results, which are a snapshot, need a refresh
+    private <T> void syncAfterWrite(TableView<T> table) {
+        SearchPipeline<?> search = searches.get(table);
+        if (search != null && search.isShowingServerResults()) {
+            search.refresh(); // merged server hits may include the written row
+        }
+    }
+
+    // =================== Remote Changes ===================
+    private interface RowLookup<T> {
+        T find(Connection conn, int key) throws SQLException;
+    }
+
+    private static class RemoteChanges<T> {
+        final Tab tab;
+        final TableView<T> table;
+        final RowLookup<T> lookup;
+
+        RemoteChanges(Tab tab, TableView<T> table, RowLookup<T> lookup) {
+            this.tab = tab;
+            this.table = table;
+            this.lookup = lookup;
+        }
+    }
+
+    private <T> void watchChanges(DataTable target, Tab tab, TableView<T> table, RowLookup<T> lookup) {
+        remoteChanges.put(target, new RemoteChanges<>(tab, table, lookup));
+    }
+
+    // Other desks' writes, from the change log. Tables not loaded yet will read them when they are;
+    // loaded ones re-read just the changed rows and patch them in, unless there are too many.
+    private void applyRemoteChanges(List<ChangeLog.Change> changes) {
+        Map<DataTable, Set<Integer>> changedKeys = new EnumMap<>(DataTable.class);
+        Set<DataTable> reloads = new HashSet<>();
+        for (ChangeLog.Change change : changes) {
+            if (change.getOperation() == ChangeLog.RELOAD) {
+                reloads.add(change.getTable());
+            } else {
+                changedKeys.computeIfAbsent(change.getTable(), t -> new LinkedHashSet<>()).add((int) change.getKey());
+            }
+        }
+        if (reloads.contains(DataTable.HOTELS) || changedKeys.containsKey(DataTable.HOTELS)) {
+            ReferenceData.invalidateHotels();
+        }
+
+        for (Map.Entry<DataTable, RemoteChanges<?>> entry : remoteChanges.entrySet()) {
+            Set<Integer> keys = changedKeys.get(entry.getKey());
+            if (reloads.contains(entry.getKey()) || keys != null) {
+                applyRemoteChanges(entry.getValue(), keys, reloads.contains(entry.getKey()));
+            }
+        }
+    }
+
+    private <T> void applyRemoteChanges(RemoteChanges<T> target, Set<Integer> keys, boolean reload) {
+        Task<?> pending = pendingLoads.get(target.tab);
+        if (pending != null) {
+            // The load may have read the table before the change; start it again
+            pending.cancel();
+            pendingLoads.remove(target.tab);
+            tabLoaders.get(target.tab).run();
+            return;
+        }
+        if (!loadedTabs.contains(target.tab)) {
+            return;
+        }
+        PagedLoader<T> loader = loaderFor(target.table);
+        if (reload || keys.size() > MAX_ROWS_PATCHED) {
+            reloadTable(target.table);
+            return;
+        }
+
+        DbExecutor.submit("Apply remote changes", () -> {
+            Map<Integer, T> rows = new HashMap<>();
+            try (Connection conn = Database.getConnection()) {
+                for (int key : keys) {
+                    rows.put(key, target.lookup.find(conn, key));
+                }
+            }
+            return rows;
+        }, rows -> {
+            for (Map.Entry<Integer, T> row : rows.entrySet()) {
+                loader.apply(row.getKey(), row.getValue());
+            }
+            SearchPipeline<?> search = searches.get(target.table);
+            if (search != null && search.isShowingServerResults()) {
+                search.refresh();
+            }
+        }, e -> {
+            QueryMetrics.shared().recordFailure("Apply remote changes", e);
+            showTableStatus(target.table, "Could not show changes made at other desks: " + e.getMessage());
+        });
+    }
+
+    // =================== Offline Mode ===================
+    // The server is back and has the changes made offline: show its rows again and say what didn't make it
+    private void onBackOnline(int replayed, List<String> conflicts) {
+        offlineLabel.setVisible(false);
+        for (RemoteChanges<?> target : remoteChanges.values()) {
+            if (loadedTabs.contains(target.tab)) {
+                reloadTable(target.table);
+            }
+        }
+        if (conflicts.isEmpty() && replayed > 0) {
+            showSuccess("Back online: " + replayed + " change(s) made offline were saved.");
+        } else if (!conflicts.isEmpty()) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle("Back Online");
+            alert.setHeaderText(null);
+            alert.setContentText(replayed + " change(s) made offline were saved; " + conflicts.size()
+                    + " could not be.");
+            TextArea details = new TextArea(String.join("\n", conflicts));
+            details.setEditable(false);
+            alert.getDialogPane().setExpandableContent(details);
+            alert.getDialogPane().setExpanded(true);
+            alert.showAndWait();
+        }
+    }
+
+    // =================== Audit ===================
+    // Queues the event and returns at once; see AuditLog
+    private void audit(String action, DataTable table, long key, String detail) {
+        AuditLog.shared().record(user, action, table, key, detail);
+    }
+
+    private static String roomDetail(Room room) {
+        return room.getType() + ", hotel " + room.getHotelId();
+    }
+
+    private static String reservationDetail(Reservation reservation) {
+        return "room " + reservation.getRoomNumber() + ", " + reservation.getCheckIn() + " to "
+                + reservation.getCheckOut() + ", " + reservation.getCustomerName();
+    }
+
+    // =================== CSV Import ===================
+    private Button createImportButton(DataTable target, TableView<?> table) {
+        Button button = new Button("Import CSV");
+        button.setStyle(
+                "-fx-background-color: #607D8B; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
+        button.setOnAction(e -> handleImport(target, table, button));
+        return button;
+    }
+
+    private void handleImport(DataTable target, TableView<?> table, Button button) {
+        // An import is sent to other desks as a table reload, which can't be replayed from the offline copy
+        if (OfflineStore.isOffline()) {
+            showError("Importing needs the database server; try again once it is back.");
+            return;
+        }
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import " + target + " from CSV");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showOpenDialog(table.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        button.setDisable(true);
+        button.setText("Importing...");
+        DbExecutor.submit("Import " + target, () -> CsvImporter.importFile(target, file.toPath(), (read, imported, rejected) ->
+                Platform.runLater(() -> button.setText("Imported " + imported + "..."))), report -> {
+            button.setText("Import CSV");
+            button.setDisable(false);
+            reloadTable(table);
+            audit("import", target, 0, file.getName() + ": " + report.getRowsImported() + " rows");
+            showImportReport(target, report);
+        }, e -> {
+            button.setText("Import CSV");
+            button.setDisable(false);
+            showError("Error importing " + target + ": " + e.getMessage());
+        });
+    }
+
+    private Button createExportButton(DataTable target, TableView<?> table) {
+        Button button = new Button("Export");
+        button.setStyle(
+                "-fx-background-color: #607D8B; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
+        button.setOnAction(e -> handleExport(target, table, button));
+        return button;
+    }
+
+    private void handleExport(DataTable target, TableView<?> table, Button button) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export " + target);
+        FileChooser.ExtensionFilter csvFilter = new FileChooser.ExtensionFilter("CSV files", "*.csv");
+        FileChooser.ExtensionFilter columnarFilter = new FileChooser.ExtensionFilter("Columnar files", "*.hcol");
+        chooser.getExtensionFilters().addAll(csvFilter, columnarFilter);
+        chooser.setInitialFileName(target + ".csv");
+        File file = chooser.showSaveDialog(table.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        TableExporter.Format format = chooser.getSelectedExtensionFilter() == columnarFilter
+                || file.getName().endsWith(".hcol") ? TableExporter.Format.COLUMNAR : TableExporter.Format.CSV;
+
+        button.setDisable(true);
+        button.setText("Exporting...");
+        DbExecutor.submit("Export " + target, () -> TableExporter.export(target, format, file.toPath(), rows ->
+                Platform.runLater(() -> button.setText("Exported " + rows + "..."))), rows -> {
+            button.setText("Export");
+            button.setDisable(false);
+            showSuccess("Exported " + rows + " " + target + " to " + file.getName());
+        }, e -> {
+            button.setText("Export");
+            button.setDisable(false);
+            showError("Error exporting " + target + ": " + e.getMessage());
+        });
+    }
+
+    private void showImportReport(DataTable target, CsvImporter.Report report) {
+        Alert alert = new Alert(report.getRowsRejected() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
+        alert.setTitle("Import Finished");
+        alert.setHeaderText(null);
+        alert.setContentText("Imported " + report.getRowsImported() + " of " + report.getRowsRead() + " "
+                + target + "; " + report.getRowsRejected() + " rows were rejected.");
+        if (!report.getErrors().isEmpty()) {
+            TextArea errors = new TextArea(String.join("\n", report.getErrors()));
+            errors.setEditable(false);
+            alert.getDialogPane().setExpandableContent(errors);
+            alert.getDialogPane().setExpanded(true);
+        }
+        alert.showAndWait();
+    }
+
+    private Node loadingPlaceholder(String message) {
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.setMaxSize(40, 40);
+        VBox box = new VBox(10, progress, new Label(message));
+        box.setStyle("-fx-alignment: center;");
+        return box;
+    }
+
     // =================== Hotels ===================
-    private BorderPane createHotelsTab() {
+    private BorderPane createHotelsTab(Tab tab) {
         TableView<Hotel> table = new TableView<>();
-        ObservableList<Hotel> data = getHotelsFromDB();
-        ObservableList<Hotel> filteredData = FXCollections.observableArrayList(data);
+        ObservableList<Hotel> data = FXCollections.observableArrayList();
+        SearchIndex<Hotel> index = new SearchIndex<>(data, Hotel::getName, Hotel::getAddress, Hotel::getDescription);
+        FilteredList<Hotel> filteredData = new FilteredList<>(data);
+        SortedList<Hotel> sortedData = new SortedList<>(filteredData);
 
+        // Cells read the getters directly; PropertyValueFactory would find them by reflection for every cell
         TableColumn<Hotel, Integer> colId = new TableColumn<>("ID");
-        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
+        colId.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getId()));
         colId.setPrefWidth(80);
 
         TableColumn<Hotel, String> colName = new TableColumn<>("Hotel Name");
-        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        colName.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getName()));
         colName.setPrefWidth(200);
 
         TableColumn<Hotel, String> colDescription = new TableColumn<>("Description");
-        colDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
+        colDescription.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getDescription()));
         colDescription.setPrefWidth(250);
 
         TableColumn<Hotel, String> colAddress = new TableColumn<>("Address");
-        colAddress.setCellValueFactory(new PropertyValueFactory<>("address"));
+        colAddress.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getAddress()));
         colAddress.setPrefWidth(200);
 
         TableColumn<Hotel, Double> colRating = new TableColumn<>("Rating");
-        colRating.setCellValueFactory(new PropertyValueFactory<>("rating"));
+        colRating.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getRating()));
         colRating.setPrefWidth(80);
 
-        table.setItems(filteredData);
+        sortedData.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sortedData);
         table.getColumns().addAll(colId, colName, colDescription, colAddress, colRating);
         table.setStyle("-fx-font-size: 13px;");
 
         Button addButton = new Button("+ Add Hotel");
         addButton.setStyle(
                 "-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        addButton.setOnAction(e -> handleAddHotel(table, data, filteredData));
+        addButton.setOnAction(e -> handleAddHotel(table, data));
 
         Button editButton = new Button("Edit Hotel");
         editButton.setStyle(
                 "-fx-background-color: #FF9800; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        editButton.setOnAction(e -> handleEditHotel(table, data, filteredData));
+        editButton.setOnAction(e -> handleEditHotel(table, data));
 
         Button deleteButton = new Button("Delete Hotel");
         deleteButton.setStyle(
                 "-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        deleteButton.setOnAction(e -> handleDeleteHotel(table, data, filteredData));
+        deleteButton.setOnAction(e -> handleDeleteHotel(table, data));
 
         TextField searchField = new TextField();
         searchField.setPromptText("Search by hotel name or address...");
         searchField.setPrefWidth(250);
         searchField.setStyle("-fx-padding: 10; -fx-font-size: 13px;");
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            filterHotels(newVal, data, filteredData);
-        });
-
-        HBox controls = new HBox(15, addButton, editButton, deleteButton, searchField);
+        Label searchStatus = createSearchStatus();
+
+        createLoader("hotels", table, data, hotelRepository::findPage, Hotel::getId);
+        createSearch(searchField, searchStatus, table, sortedData,
+                text -> filterHotels(text, index, filteredData), hotelRepository::search, Hotel::getId);
+        tabLoaders.put(tab, () -> loadTable(tab, table, "hotels"));
+        watchChanges(DataTable.HOTELS, tab, table, hotelRepository::findById);
+
+        Button importButton = createImportButton(DataTable.HOTELS, table);
+        Button exportButton = createExportButton(DataTable.HOTELS, table);
+        HBox controls = new HBox(15, addButton, editButton, deleteButton, importButton, exportButton, searchField,
+                searchStatus);
         controls.setStyle("-fx-padding: 15; -fx-background-color: #f5f5f5;");
 
         BorderPane pane = new BorderPane();
@@ -134,43 +561,30 @@ public class Dashboard {
         return pane;
     }
 
-    private void handleAddHotel(TableView<Hotel> table, ObservableList<Hotel> data,
-            ObservableList<Hotel> filteredData) {
+    private void handleAddHotel(TableView<Hotel> table, ObservableList<Hotel> data) {
         Stage stage = (Stage) table.getScene().getWindow();
         HotelDialog dialog = new HotelDialog(stage, null);
         dialog.showAndWait();
 
         if (dialog.isConfirmed()) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "INSERT INTO hotels (name, description, address, rating) VALUES (?, ?, ?, ?)";
-                PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-                pstmt.setString(1, dialog.getHotelName());
-                pstmt.setString(2, dialog.getDescription());
-                pstmt.setString(3, dialog.getAddress());
-                pstmt.setDouble(4, dialog.getRating());
-                pstmt.executeUpdate();
-
-                // Get the generated ID
-                ResultSet generatedKeys = pstmt.getGeneratedKeys();
-                int newId = -1;
-                if (generatedKeys.next()) {
-                    newId = generatedKeys.getInt(1);
-                }
-
-                Hotel newHotel = new Hotel(newId, dialog.getHotelName(), dialog.getDescription(),
-                        dialog.getAddress(), dialog.getRating());
-                data.add(newHotel);
-                filteredData.add(newHotel);
-
+            Hotel hotel = new Hotel(0, dialog.getHotelName(), dialog.getDescription(), dialog.getAddress(),
+                    dialog.getRating());
+
+            DbExecutor.submit("Add hotel", () -> {
+                Hotel newHotel = Database.inTransaction(conn -> hotelRepository.insert(conn, hotel));
+                ReferenceData.invalidateHotels();
+                return newHotel;
+            }, newHotel -> {
+                loaderFor(table).insert(newHotel);
+                syncAfterWrite(table);
+
+                audit("add", DataTable.HOTELS, newHotel.getId(), newHotel.getName());
                 showSuccess("Hotel added successfully!");
-            } catch (Exception e) {
-                showError("Error adding hotel: " + e.getMessage());
-            }
+            }, e -> showError("Error adding hotel: " + e.getMessage()));
         }
     }
 
-    private void handleEditHotel(TableView<Hotel> table, ObservableList<Hotel> data,
-            ObservableList<Hotel> filteredData) {
+    private void handleEditHotel(TableView<Hotel> table, ObservableList<Hotel> data) {
         Hotel selectedHotel = table.getSelectionModel().getSelectedItem();
         if (selectedHotel == null) {
             showError("Please select a hotel to edit!");
@@ -182,33 +596,28 @@ public class Dashboard {
         dialog.showAndWait();
 
         if (dialog.isConfirmed()) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "UPDATE hotels SET name = ?, description = ?, address = ?, rating = ? WHERE id = ?";
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, dialog.getHotelName());
-                pstmt.setString(2, dialog.getDescription());
-                pstmt.setString(3, dialog.getAddress());
-                pstmt.setDouble(4, dialog.getRating());
-                pstmt.setInt(5, selectedHotel.getId());
-                pstmt.executeUpdate();
-
-                data.remove(selectedHotel);
-                filteredData.remove(selectedHotel);
-                Hotel updatedHotel = new Hotel(selectedHotel.getId(), dialog.getHotelName(),
-                        dialog.getDescription(), dialog.getAddress(),
-                        dialog.getRating());
-                data.add(updatedHotel);
-                filteredData.add(updatedHotel);
-
+            Hotel updatedHotel = new Hotel(selectedHotel.getId(), dialog.getHotelName(),
+                    dialog.getDescription(), dialog.getAddress(),
+                    dialog.getRating());
+
+            DbExecutor.submit("Edit hotel", () -> {
+                Database.inTransaction(conn -> {
+                    hotelRepository.update(conn, updatedHotel);
+                    return updatedHotel;
+                });
+                ReferenceData.invalidateHotels();
+                return updatedHotel;
+            }, saved -> {
+                replaceRow(data, selectedHotel, updatedHotel);
+                syncAfterWrite(table);
+
+                audit("edit", DataTable.HOTELS, updatedHotel.getId(), updatedHotel.getName());
                 showSuccess("Hotel updated successfully!");
-            } catch (Exception e) {
-                showError("Error updating hotel: " + e.getMessage());
-            }
+            }, e -> showError("Error updating hotel: " + e.getMessage()));
         }
     }
 
-    private void handleDeleteHotel(TableView<Hotel> table, ObservableList<Hotel> data,
-            ObservableList<Hotel> filteredData) {
+    private void handleDeleteHotel(TableView<Hotel> table, ObservableList<Hotel> data) {
         Hotel selectedHotel = table.getSelectionModel().getSelectedItem();
         if (selectedHotel == null) {
             showError("Please select a hotel to delete!");
@@ -222,113 +631,96 @@ public class Dashboard {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try (Connection conn = Database.getConnection()) {
-                    String sql = "DELETE FROM hotels WHERE id = ?";
-                    PreparedStatement pstmt = conn.prepareStatement(sql);
-                    pstmt.setInt(1, selectedHotel.getId());
-                    pstmt.executeUpdate();
-
-                    data.remove(selectedHotel);
-                    filteredData.remove(selectedHotel);
-
+                DbExecutor.submit("Delete hotel", () -> {
+                    Database.inTransaction(conn -> {
+                        hotelRepository.delete(conn, selectedHotel.getId());
+                        return selectedHotel;
+                    });
+                    ReferenceData.invalidateHotels();
+                    return selectedHotel;
+                }, deleted -> {
+                    loaderFor(table).remove(selectedHotel);
+                    syncAfterWrite(table);
+
+                    audit("delete", DataTable.HOTELS, selectedHotel.getId(), selectedHotel.getName());
                     showSuccess("Hotel deleted successfully!");
-                } catch (Exception e) {
-                    showError("Error deleting hotel: " + e.getMessage());
-                }
+                }, e -> showError("Error deleting hotel: " + e.getMessage()));
             }
         });
     }
 
-    private void filterHotels(String searchText, ObservableList<Hotel> data, ObservableList<Hotel> filteredData) {
-        filteredData.clear();
-        if (searchText == null || searchText.trim().isEmpty()) {
-            filteredData.addAll(data);
-        } else {
-            String lowerSearch = searchText.toLowerCase();
-            for (Hotel hotel : data) {
-                if (hotel.getName().toLowerCase().contains(lowerSearch) ||
-                        hotel.getAddress().toLowerCase().contains(lowerSearch) ||
-                        (hotel.getDescription() != null
-                                && hotel.getDescription().toLowerCase().contains(lowerSearch))) {
-                    filteredData.add(hotel);
-                }
-            }
-        }
-    }
-
-    private ObservableList<Hotel> getHotelsFromDB() {
-        ObservableList<Hotel> list = FXCollections.observableArrayList();
-        try (Connection conn = Database.getConnection()) {
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT * FROM hotels ORDER BY id");
-            while (rs.next()) {
-                list.add(new Hotel(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getString("address"),
-                        rs.getDouble("rating")));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            // If table doesn't exist yet, show empty table
-            // You can also create the table here if needed
-        }
-        return list;
+    // The index keeps the match set up to date as rows change; a new predicate makes the list re-test
+    private void filterHotels(String searchText, SearchIndex<Hotel> index, FilteredList<Hotel> filteredData) {
+        index.setQuery(searchText);
+        filteredData.setPredicate(hotel -> index.matches(hotel));
     }
 
     // =================== Rooms ===================
-    private BorderPane createRoomsTab() {
+    private BorderPane createRoomsTab(Tab tab) {
 
         TableView<Room> table = new TableView<>();
-        ObservableList<Room> data = getRoomsFromDB();
-        ObservableList<Room> filteredData = FXCollections.observableArrayList(data);
+        ObservableList<Room> data = FXCollections.observableArrayList();
+        SearchIndex<Room> index = new SearchIndex<>(data, room -> String.valueOf(room.getNumber()), Room::getType);
+        FilteredList<Room> filteredData = new FilteredList<>(data);
+        SortedList<Room> sortedData = new SortedList<>(filteredData);
 
         ComboBox<String> hotelFilterComboBox = new ComboBox<>();
         hotelFilterComboBox.setPromptText("Filter by Hotel");
         hotelFilterComboBox.setPrefWidth(200);
-        loadHotelFilters(hotelFilterComboBox, table, data, filteredData);
 
         TableColumn<Room, Integer> colNumber = new TableColumn<>("Room Number");
-        colNumber.setCellValueFactory(new PropertyValueFactory<>("number"));
+        colNumber.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getNumber()));
         colNumber.setPrefWidth(150);
 
         TableColumn<Room, String> colType = new TableColumn<>("Type");
-        colType.setCellValueFactory(new PropertyValueFactory<>("type"));
+        colType.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getType()));
         colType.setPrefWidth(150);
 
         TableColumn<Room, Boolean> colAvailable = new TableColumn<>("Available");
-        colAvailable.setCellValueFactory(new PropertyValueFactory<>("available"));
+        colAvailable.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getAvailable()));
         colAvailable.setPrefWidth(120);
 
-        table.setItems(filteredData);
+        sortedData.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sortedData);
         table.getColumns().addAll(colNumber, colType, colAvailable);
         table.setStyle("-fx-font-size: 13px;");
 
         Button addButton = new Button("+ Add Room");
         addButton.setStyle(
                 "-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        addButton.setOnAction(e -> handleAddRoom(table, data, filteredData));
+        addButton.setOnAction(e -> handleAddRoom(table, data));
 
         Button editButton = new Button("Edit Room");
         editButton.setStyle(
                 "-fx-background-color: #FF9800; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        editButton.setOnAction(e -> handleEditRoom(table, data, filteredData));
+        editButton.setOnAction(e -> handleEditRoom(table, data));
 
         Button deleteButton = new Button("Delete Room");
         deleteButton.setStyle(
                 "-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        deleteButton.setOnAction(e -> handleDeleteRoom(table, data, filteredData));
+        deleteButton.setOnAction(e -> handleDeleteRoom(table, data));
 
         TextField searchField = new TextField();
         searchField.setPromptText("Search by room number or type...");
         searchField.setPrefWidth(250);
         searchField.setStyle("-fx-padding: 10; -fx-font-size: 13px;");
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            filterRooms(newVal, data, filteredData);
+        Label searchStatus = createSearchStatus();
+
+        createLoader("rooms", table, data, roomRepository::findPage, Room::getNumber);
+        SearchPipeline<Room> search = createSearch(searchField, searchStatus, table, sortedData,
+                text -> filterRooms(text, hotelFilterComboBox.getValue(), index, filteredData),
+                roomRepository::search, Room::getNumber);
+        search.setServerRowFilter(room -> isInSelectedHotel(room, hotelFilterComboBox.getValue()));
+        tabLoaders.put(tab, () -> {
+            loadHotelFilters(hotelFilterComboBox, search::refresh);
+            loadTable(tab, table, "rooms");
         });
+        watchChanges(DataTable.ROOMS, tab, table, roomRepository::findByNumber);
 
-        HBox controls = new HBox(15, addButton, editButton, deleteButton, searchField, hotelFilterComboBox);
+        Button importButton = createImportButton(DataTable.ROOMS, table);
+        Button exportButton = createExportButton(DataTable.ROOMS, table);
+        HBox controls = new HBox(15, addButton, editButton, deleteButton, importButton, exportButton, searchField,
+                hotelFilterComboBox, searchStatus);
         controls.setStyle("-fx-padding: 15; -fx-background-color: #f5f5f5;");
 
        
@@ -342,68 +734,47 @@ public class Dashboard {
     }
 
 
-   private void loadHotelFilters(ComboBox<String> comboBox, TableView<Room> table, 
-                              ObservableList<Room> data, ObservableList<Room> filteredData) {
-    try (Connection conn = Database.getConnection()) {
-        String sql = "SELECT id, name FROM hotels ORDER BY name";
-        PreparedStatement pstmt = conn.prepareStatement(sql);
-        ResultSet rs = pstmt.executeQuery();
-
+   private void loadHotelFilters(ComboBox<String> comboBox, Runnable onSelected) {
+    DbExecutor.submit("Load hotel filter", ReferenceData::hotels, hotels -> {
         comboBox.getItems().clear();
         comboBox.getItems().add("All Hotels"); // Default option
+        comboBox.getItems().addAll(hotels);
         
-        while (rs.next()) {
-            comboBox.getItems().add(rs.getInt("id") + " - " + rs.getString("name"));
-        }
-        
-        comboBox.setOnAction(e -> {
-            String selected = comboBox.getValue();
-            if (selected == null || selected.equals("All Hotels")) {
-                filteredData.setAll(data);
-            } else {
-                int hotelId = Integer.parseInt(selected.split(" - ")[0]);
-                filteredData.clear();
-                for (Room room : data) {
-                    if (room.getHotelId() == hotelId) {
-                        filteredData.add(room);
-                    }
-                }
-            }
-        });
-    } catch (Exception e) {
-        e.printStackTrace();
-    }
+        comboBox.setOnAction(e -> onSelected.run());
+    }, e -> {
+        QueryMetrics.shared().recordFailure("Load hotel filter", e);
+        comboBox.setPromptText("Could not load hotels");
+    });
 }
 
 
-    private void handleAddRoom(TableView<Room> table, ObservableList<Room> data, ObservableList<Room> filteredData) {
+    private void handleAddRoom(TableView<Room> table, ObservableList<Room> data) {
         Stage stage = (Stage) table.getScene().getWindow();
         RoomDialog dialog = new RoomDialog(stage, null);
         dialog.showAndWait();
 
         if (dialog.isConfirmed()) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "INSERT INTO rooms (number, type, available, hotel_id) VALUES (?, ?, ?, ?)";
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setInt(1, dialog.getRoomNumber());
-                pstmt.setString(2, dialog.getRoomType());
-                pstmt.setBoolean(3, dialog.isAvailable());
-                pstmt.setInt(4, dialog.getHotelId()); // NEW: Add hotel_id
-                pstmt.executeUpdate();
-
-                Room newRoom = new Room(dialog.getRoomNumber(), dialog.getRoomType(),
-                        dialog.isAvailable(), dialog.getHotelId()); // Updated constructor
-                data.add(newRoom);
-                filteredData.add(newRoom);
-
+            Room newRoom = new Room(dialog.getRoomNumber(), dialog.getRoomType(),
+                    dialog.isAvailable(), dialog.getHotelId());
+
+            DbExecutor.submit("Add room", () -> {
+                Database.inTransaction(conn -> {
+                    roomRepository.insert(conn, newRoom);
+                    return newRoom;
+                });
+                AvailabilityEngine.whenLoaded(engine -> engine.putRoom(newRoom.getNumber(), newRoom.getHotelId()));
+                return newRoom;
+            }, added -> {
+                loaderFor(table).insert(newRoom);
+                syncAfterWrite(table);
+
+                audit("add", DataTable.ROOMS, newRoom.getNumber(), roomDetail(newRoom));
                 showSuccess("Room added successfully!");
-            } catch (Exception e) {
-                showError("Error adding room: " + e.getMessage());
-            }
+            }, e -> showError("Error adding room: " + e.getMessage()));
         }
     }
 
-    private void handleEditRoom(TableView<Room> table, ObservableList<Room> data, ObservableList<Room> filteredData) {
+    private void handleEditRoom(TableView<Room> table, ObservableList<Room> data) {
         Room selectedRoom = table.getSelectionModel().getSelectedItem();
         if (selectedRoom == null) {
             showError("Please select a room to edit!");
@@ -415,30 +786,36 @@ public class Dashboard {
         dialog.showAndWait();
 
         if (dialog.isConfirmed()) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "UPDATE rooms SET type = ?, available = ?, hotel_id = ? WHERE number = ?";
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, dialog.getRoomType());
-                pstmt.setBoolean(2, dialog.isAvailable());
-                pstmt.setInt(3, dialog.getHotelId()); // NEW: Update hotel_id
-                pstmt.setInt(4, selectedRoom.getNumber());
-                pstmt.executeUpdate();
-
-                data.remove(selectedRoom);
-                filteredData.remove(selectedRoom);
-                Room updatedRoom = new Room(selectedRoom.getNumber(), dialog.getRoomType(),
-                        dialog.isAvailable(), dialog.getHotelId()); // Updated constructor
-                data.add(updatedRoom);
-                filteredData.add(updatedRoom);
+            Room updatedRoom = new Room(selectedRoom.getNumber(), dialog.getRoomType(),
+                    dialog.isAvailable(), dialog.getHotelId());
+
+            DbExecutor.submit("Edit room", () -> {
+                Database.inTransaction(conn -> {
+                    roomRepository.update(conn, updatedRoom);
+                    return updatedRoom;
+                });
+                AvailabilityEngine.whenLoaded(engine -> engine.putRoom(updatedRoom.getNumber(),
+                        updatedRoom.getHotelId()));
+                // The room's past nights are still counted under its old hotel and type
+                if (updatedRoom.getHotelId() != selectedRoom.getHotelId()
+                        || !updatedRoom.getType().equals(selectedRoom.getType())) {
+                    OccupancyRollup.rebuildHotel(selectedRoom.getHotelId());
+                    if (updatedRoom.getHotelId() != selectedRoom.getHotelId()) {
+                        OccupancyRollup.rebuildHotel(updatedRoom.getHotelId());
+                    }
+                }
+                return updatedRoom;
+            }, saved -> {
+                replaceRow(data, selectedRoom, updatedRoom);
+                syncAfterWrite(table);
 
+                audit("edit", DataTable.ROOMS, updatedRoom.getNumber(), roomDetail(updatedRoom));
                 showSuccess("Room updated successfully!");
-            } catch (Exception e) {
-                showError("Error updating room: " + e.getMessage());
-            }
+            }, e -> showError("Error updating room: " + e.getMessage()));
         }
     }
 
-    private void handleDeleteRoom(TableView<Room> table, ObservableList<Room> data, ObservableList<Room> filteredData) {
+    private void handleDeleteRoom(TableView<Room> table, ObservableList<Room> data) {
         Room selectedRoom = table.getSelectionModel().getSelectedItem();
         if (selectedRoom == null) {
             showError("Please select a room to delete!");
@@ -452,36 +829,35 @@ public class Dashboard {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try (Connection conn = Database.getConnection()) {
-                    String sql = "DELETE FROM rooms WHERE number = ?";
-                    PreparedStatement pstmt = conn.prepareStatement(sql);
-                    pstmt.setInt(1, selectedRoom.getNumber());
-                    pstmt.executeUpdate();
-
-                    data.remove(selectedRoom);
-                    filteredData.remove(selectedRoom);
-
+                DbExecutor.submit("Delete room", () -> {
+                    Database.inTransaction(conn -> {
+                        roomRepository.delete(conn, selectedRoom.getNumber());
+                        return selectedRoom;
+                    });
+                    AvailabilityEngine.whenLoaded(engine -> engine.removeRoom(selectedRoom.getNumber()));
+                    return selectedRoom;
+                }, deleted -> {
+                    loaderFor(table).remove(selectedRoom);
+                    syncAfterWrite(table);
+
+                    audit("delete", DataTable.ROOMS, selectedRoom.getNumber(), roomDetail(selectedRoom));
                     showSuccess("Room deleted successfully!");
-                } catch (Exception e) {
-                    showError("Error deleting room: " + e.getMessage());
-                }
+                }, e -> showError("Error deleting room: " + e.getMessage()));
             }
         });
     }
 
-    private void filterRooms(String searchText, ObservableList<Room> data, ObservableList<Room> filteredData) {
-        filteredData.clear();
-        if (searchText == null || searchText.trim().isEmpty()) {
-            filteredData.addAll(data);
-        } else {
-            String lowerSearch = searchText.toLowerCase();
-            for (Room room : data) {
-                if (String.valueOf(room.getNumber()).contains(lowerSearch) ||
-                        room.getType().toLowerCase().contains(lowerSearch)) {
-                    filteredData.add(room);
-                }
-            }
+    private void filterRooms(String searchText, String selectedHotel, SearchIndex<Room> index,
+            FilteredList<Room> filteredData) {
+        index.setQuery(searchText);
+        filteredData.setPredicate(room -> isInSelectedHotel(room, selectedHotel) && index.matches(room));
+    }
+
+    private boolean isInSelectedHotel(Room room, String selectedHotel) {
+        if (selectedHotel == null || selectedHotel.equals("All Hotels")) {
+            return true;
         }
+        return room.getHotelId() == Integer.parseInt(selectedHotel.split(" - ")[0]);
     }
 
     private void showSuccess(String message) {
@@ -500,78 +876,72 @@ public class Dashboard {
         alert.showAndWait();
     }
 
-    private ObservableList<Room> getRoomsFromDB() {
-        ObservableList<Room> list = FXCollections.observableArrayList();
-        try (Connection conn = Database.getConnection()) {
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT * FROM rooms");
-            while (rs.next()) {
-                list.add(new Room(
-                        rs.getInt("number"),
-                        rs.getString("type"),
-                        rs.getBoolean("available"),
-                        rs.getInt("hotel_id")));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return list;
-    }
-
     // =================== Reservations ===================
-    private BorderPane createReservationsTab() {
+    private BorderPane createReservationsTab(Tab tab) {
         TableView<Reservation> table = new TableView<>();
-        ObservableList<Reservation> data = getReservationsFromDB();
-        ObservableList<Reservation> filteredData = FXCollections.observableArrayList(data);
+        ObservableList<Reservation> data = FXCollections.observableArrayList();
+        SearchIndex<Reservation> index = new SearchIndex<>(data, Reservation::getCustomerName,
+                res -> String.valueOf(res.getRoomNumber()));
+        FilteredList<Reservation> filteredData = new FilteredList<>(data);
+        SortedList<Reservation> sortedData = new SortedList<>(filteredData);
 
         TableColumn<Reservation, Integer> colId = new TableColumn<>("ID");
-        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
+        colId.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getId()));
         colId.setPrefWidth(80);
 
         TableColumn<Reservation, String> colCustomer = new TableColumn<>("Customer");
-        colCustomer.setCellValueFactory(new PropertyValueFactory<>("customerName"));
+        colCustomer.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getCustomerName()));
         colCustomer.setPrefWidth(150);
 
         TableColumn<Reservation, Integer> colRoom = new TableColumn<>("Room");
-        colRoom.setCellValueFactory(new PropertyValueFactory<>("roomNumber"));
+        colRoom.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getRoomNumber()));
         colRoom.setPrefWidth(100);
 
-        TableColumn<Reservation, String> colCheckIn = new TableColumn<>("Check-in");
-        colCheckIn.setCellValueFactory(new PropertyValueFactory<>("checkIn"));
+        TableColumn<Reservation, LocalDate> colCheckIn = new TableColumn<>("Check-in");
+        colCheckIn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getCheckIn()));
         colCheckIn.setPrefWidth(130);
 
-        TableColumn<Reservation, String> colCheckOut = new TableColumn<>("Check-out");
-        colCheckOut.setCellValueFactory(new PropertyValueFactory<>("checkOut"));
+        TableColumn<Reservation, LocalDate> colCheckOut = new TableColumn<>("Check-out");
+        colCheckOut.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getCheckOut()));
         colCheckOut.setPrefWidth(130);
 
-        table.setItems(filteredData);
+        sortedData.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sortedData);
         table.getColumns().addAll(colId, colCustomer, colRoom, colCheckIn, colCheckOut);
         table.setStyle("-fx-font-size: 13px;");
 
         Button addButton = new Button("+ Add Reservation");
         addButton.setStyle(
                 "-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        addButton.setOnAction(e -> handleAddReservation(table, data, filteredData));
+        addButton.setOnAction(e -> handleAddReservation(table, data));
 
         Button editButton = new Button("Edit Reservation");
         editButton.setStyle(
                 "-fx-background-color: #FF9800; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        editButton.setOnAction(e -> handleEditReservation(table, data, filteredData));
+        editButton.setOnAction(e -> handleEditReservation(table, data));
 
         Button deleteButton = new Button("Delete Reservation");
         deleteButton.setStyle(
                 "-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        deleteButton.setOnAction(e -> handleDeleteReservation(table, data, filteredData));
+        deleteButton.setOnAction(e -> handleDeleteReservation(table, data));
 
         TextField searchField = new TextField();
         searchField.setPromptText("Search by customer or room...");
         searchField.setPrefWidth(250);
         searchField.setStyle("-fx-padding: 10; -fx-font-size: 13px;");
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            filterReservations(newVal, data, filteredData);
-        });
-
-        HBox controls = new HBox(15, addButton, editButton, deleteButton, searchField);
+        Label searchStatus = createSearchStatus();
+
+        createLoader("reservations", table, data, reservationRepository::findPage, Reservation::getId);
+        createSearch(searchField, searchStatus, table, sortedData,
+                text -> filterReservations(text, index, filteredData), reservationRepository::search,
+                Reservation::getId);
+        tabLoaders.put(tab, () -> loadTable(tab, table, "reservations"));
+        watchChanges(DataTable.RESERVATIONS, tab, table, reservationRepository::findById);
+
+        Button importButton = createImportButton(DataTable.RESERVATIONS, table);
+        Button exportButton = createExportButton(DataTable.RESERVATIONS, table);
+        HBox controls = new HBox(15, addButton, editButton, deleteButton, importButton, exportButton, searchField,
+                searchStatus);
         controls.setStyle("-fx-padding: 15; -fx-background-color: #f5f5f5;");
 
         BorderPane pane = new BorderPane();
@@ -582,38 +952,32 @@ public class Dashboard {
         return pane;
     }
 
-    private void handleAddReservation(TableView<Reservation> table, ObservableList<Reservation> data,
-            ObservableList<Reservation> filteredData) {
+    private void handleAddReservation(TableView<Reservation> table, ObservableList<Reservation> data) {
         Stage stage = (Stage) table.getScene().getWindow();
         ReservationDialog dialog = new ReservationDialog(stage, null);
         dialog.showAndWait();
 
+        // The dialog books the room itself so it can report a conflict and let the user pick again
         if (dialog.isConfirmed()) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "INSERT INTO reservations (customer_id, room_number, check_in, check_out) VALUES (?, ?, ?, ?)";
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setInt(1, dialog.getCustomerId());
-                pstmt.setInt(2, dialog.getRoomNumber());
-                pstmt.setString(3, dialog.getCheckIn());
-                pstmt.setString(4, dialog.getCheckOut());
-                pstmt.executeUpdate();
-
-                updateRoomsAvailability();
-                ObservableList<Reservation> newData = getReservationsFromDB();
-                data.clear();
-                data.addAll(newData);
-                filteredData.clear();
-                filteredData.addAll(newData);
+            int id = dialog.getReservationId();
 
+            DbExecutor.submit("Add reservation", () -> {
+                try (Connection conn = Database.getConnection()) {
+                    return reservationRepository.findById(conn, id);
+                }
+            }, added -> {
+                if (added != null) {
+                    loaderFor(table).insert(added);
+                }
+                syncAfterWrite(table);
+
+                audit("add", DataTable.RESERVATIONS, id, added != null ? reservationDetail(added) : null);
                 showSuccess("Reservation added successfully!");
-            } catch (Exception e) {
-                showError("Error adding reservation: " + e.getMessage());
-            }
+            }, e -> showError("Error loading the new reservation: " + e.getMessage()));
         }
     }
 
-    private void handleEditReservation(TableView<Reservation> table, ObservableList<Reservation> data,
-            ObservableList<Reservation> filteredData) {
+    private void handleEditReservation(TableView<Reservation> table, ObservableList<Reservation> data) {
         Reservation selectedReservation = table.getSelectionModel().getSelectedItem();
         if (selectedReservation == null) {
             showError("Please select a reservation to edit!");
@@ -625,30 +989,24 @@ public class Dashboard {
         dialog.showAndWait();
 
         if (dialog.isConfirmed()) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "UPDATE reservations SET check_in = ?, check_out = ? WHERE id = ?";
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, dialog.getCheckIn());
-                pstmt.setString(2, dialog.getCheckOut());
-                pstmt.setInt(3, selectedReservation.getId());
-                pstmt.executeUpdate();
-
-                updateRoomsAvailability();
-                ObservableList<Reservation> newData = getReservationsFromDB();
-                data.clear();
-                data.addAll(newData);
-                filteredData.clear();
-                filteredData.addAll(newData);
+            DbExecutor.submit("Edit reservation", () -> {
+                try (Connection conn = Database.getConnection()) {
+                    return reservationRepository.findById(conn, selectedReservation.getId());
+                }
+            }, updated -> {
+                if (updated != null) {
+                    replaceRow(data, selectedReservation, updated);
+                }
+                syncAfterWrite(table);
 
+                audit("edit", DataTable.RESERVATIONS, selectedReservation.getId(),
+                        updated != null ? reservationDetail(updated) : null);
                 showSuccess("Reservation updated successfully!");
-            } catch (Exception e) {
-                showError("Error updating reservation: " + e.getMessage());
-            }
+            }, e -> showError("Error loading the updated reservation: " + e.getMessage()));
         }
     }
 
-    private void handleDeleteReservation(TableView<Reservation> table, ObservableList<Reservation> data,
-            ObservableList<Reservation> filteredData) {
+    private void handleDeleteReservation(TableView<Reservation> table, ObservableList<Reservation> data) {
         Reservation selectedReservation = table.getSelectionModel().getSelectedItem();
         if (selectedReservation == null) {
             showError("Please select a reservation to delete!");
@@ -662,120 +1020,83 @@ public class Dashboard {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try (Connection conn = Database.getConnection()) {
-                    String sql = "DELETE FROM reservations WHERE id = ?";
-                    PreparedStatement pstmt = conn.prepareStatement(sql);
-                    pstmt.setInt(1, selectedReservation.getId());
-                    pstmt.executeUpdate();
-
-                    updateRoomsAvailability();
-                    data.remove(selectedReservation);
-                    filteredData.remove(selectedReservation);
-
+                DbExecutor.submit("Cancel reservation", () -> {
+                    BookingService.cancel(selectedReservation.getId(), selectedReservation.getRoomNumber());
+                    return selectedReservation;
+                }, deleted -> {
+                    loaderFor(table).remove(selectedReservation);
+                    syncAfterWrite(table);
+
+                    audit("delete", DataTable.RESERVATIONS, selectedReservation.getId(),
+                            reservationDetail(selectedReservation));
                     showSuccess("Reservation deleted successfully!");
-                } catch (Exception e) {
-                    showError("Error deleting reservation: " + e.getMessage());
-                }
+                }, e -> showError("Error deleting reservation: " + e.getMessage()));
             }
         });
     }
 
-    private void filterReservations(String searchText, ObservableList<Reservation> data,
-            ObservableList<Reservation> filteredData) {
-        filteredData.clear();
-        if (searchText == null || searchText.trim().isEmpty()) {
-            filteredData.addAll(data);
-        } else {
-            String lowerSearch = searchText.toLowerCase();
-            for (Reservation res : data) {
-                if (res.getCustomerName().toLowerCase().contains(lowerSearch) ||
-                        String.valueOf(res.getRoomNumber()).contains(lowerSearch)) {
-                    filteredData.add(res);
-                }
-            }
-        }
-    }
-
-    private void updateRoomsAvailability() {
-        try (Connection conn = Database.getConnection()) {
-            String sql = "UPDATE rooms SET available = CASE WHEN number NOT IN " +
-                    "(SELECT room_number FROM reservations WHERE CURDATE() BETWEEN check_in AND check_out) " +
-                    "THEN true ELSE false END";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.executeUpdate();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
-    private ObservableList<Reservation> getReservationsFromDB() {
-        ObservableList<Reservation> list = FXCollections.observableArrayList();
-        try (Connection conn = Database.getConnection()) {
-            Statement stmt = conn.createStatement();
-            String sql = "SELECT r.id, c.name AS customerName, r.room_number, r.check_in, r.check_out " +
-                    "FROM reservations r " +
-                    "JOIN customers c ON r.customer_id = c.id";
-            ResultSet rs = stmt.executeQuery(sql);
-            while (rs.next()) {
-                list.add(new Reservation(
-                        rs.getInt("id"),
-                        rs.getString("customerName"),
-                        rs.getInt("room_number"),
-                        rs.getString("check_in"),
-                        rs.getString("check_out")));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return list;
+    private void filterReservations(String searchText, SearchIndex<Reservation> index,
+            FilteredList<Reservation> filteredData) {
+        index.setQuery(searchText);
+        filteredData.setPredicate(res -> index.matches(res));
     }
 
     // =================== Customers ===================
-    private BorderPane createCustomersTab() {
+    private BorderPane createCustomersTab(Tab tab) {
         TableView<Customer> table = new TableView<>();
-        ObservableList<Customer> data = getCustomersFromDB();
-        ObservableList<Customer> filteredData = FXCollections.observableArrayList(data);
+        ObservableList<Customer> data = FXCollections.observableArrayList();
+        SearchIndex<Customer> index = new SearchIndex<>(data, Customer::getName, Customer::getEmail);
+        FilteredList<Customer> filteredData = new FilteredList<>(data);
+        SortedList<Customer> sortedData = new SortedList<>(filteredData);
 
         TableColumn<Customer, Integer> colId = new TableColumn<>("ID");
-        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
+        colId.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getId()));
         colId.setPrefWidth(80);
 
         TableColumn<Customer, String> colName = new TableColumn<>("Name");
-        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        colName.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getName()));
         colName.setPrefWidth(150);
 
         TableColumn<Customer, String> colEmail = new TableColumn<>("Email");
-        colEmail.setCellValueFactory(new PropertyValueFactory<>("email"));
+        colEmail.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getEmail()));
         colEmail.setPrefWidth(200);
 
-        table.setItems(filteredData);
+        sortedData.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sortedData);
         table.getColumns().addAll(colId, colName, colEmail);
         table.setStyle("-fx-font-size: 13px;");
 
         Button addButton = new Button("+ Add Customer");
         addButton.setStyle(
                 "-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        addButton.setOnAction(e -> handleAddCustomer(table, data, filteredData));
+        addButton.setOnAction(e -> handleAddCustomer(table, data));
 
         Button editButton = new Button("Edit Customer");
         editButton.setStyle(
                 "-fx-background-color: #FF9800; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        editButton.setOnAction(e -> handleEditCustomer(table, data, filteredData));
+        editButton.setOnAction(e -> handleEditCustomer(table, data));
 
         Button deleteButton = new Button("Delete Customer");
         deleteButton.setStyle(
                 "-fx-background-color: #f44336; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
-        deleteButton.setOnAction(e -> handleDeleteCustomer(table, data, filteredData));
+        deleteButton.setOnAction(e -> handleDeleteCustomer(table, data));
 
         TextField searchField = new TextField();
         searchField.setPromptText("Search by name or email...");
         searchField.setPrefWidth(250);
         searchField.setStyle("-fx-padding: 10; -fx-font-size: 13px;");
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            filterCustomers(newVal, data, filteredData);
-        });
-
-        HBox controls = new HBox(15, addButton, editButton, deleteButton, searchField);
+        Label searchStatus = createSearchStatus();
+
+        createLoader("customers", table, data, customerRepository::findPage, Customer::getId);
+        createSearch(searchField, searchStatus, table, sortedData,
+                text -> filterCustomers(text, index, filteredData), customerRepository::search, Customer::getId);
+        tabLoaders.put(tab, () -> loadTable(tab, table, "customers"));
+        watchChanges(DataTable.CUSTOMERS, tab, table, customerRepository::findById);
+
+        Button importButton = createImportButton(DataTable.CUSTOMERS, table);
+        Button exportButton = createExportButton(DataTable.CUSTOMERS, table);
+        HBox controls = new HBox(15, addButton, editButton, deleteButton, importButton, exportButton, searchField,
+                searchStatus);
         controls.setStyle("-fx-padding: 15; -fx-background-color: #f5f5f5;");
 
         BorderPane pane = new BorderPane();
@@ -786,37 +1107,28 @@ public class Dashboard {
         return pane;
     }
 
-    private void handleAddCustomer(TableView<Customer> table, ObservableList<Customer> data,
-            ObservableList<Customer> filteredData) {
+    private void handleAddCustomer(TableView<Customer> table, ObservableList<Customer> data) {
         Stage stage = (Stage) table.getScene().getWindow();
         CustomerDialog dialog = new CustomerDialog(stage, null);
         dialog.showAndWait();
 
         if (dialog.isConfirmed()) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "INSERT INTO customers (name, email, phone, address) VALUES (?, ?, ?, ?)";
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, dialog.getCustomerName());
-                pstmt.setString(2, dialog.getEmail());
-                pstmt.setString(3, dialog.getPhone());
-                pstmt.setString(4, dialog.getAddress());
-                pstmt.executeUpdate();
-
-                ObservableList<Customer> newData = getCustomersFromDB();
-                data.clear();
-                data.addAll(newData);
-                filteredData.clear();
-                filteredData.addAll(newData);
+            Customer customer = new Customer(0, dialog.getCustomerName(), dialog.getEmail(), dialog.getPhone(),
+                    dialog.getAddress());
 
+            DbExecutor.submit("Add customer", () -> {
+                return Database.inTransaction(conn -> customerRepository.insert(conn, customer));
+            }, newCustomer -> {
+                loaderFor(table).insert(newCustomer);
+                syncAfterWrite(table);
+
+                audit("add", DataTable.CUSTOMERS, newCustomer.getId(), newCustomer.getName());
                 showSuccess("Customer added successfully!");
-            } catch (Exception e) {
-                showError("Error adding customer: " + e.getMessage());
-            }
+            }, e -> showError("Error adding customer: " + e.getMessage()));
         }
     }
 
-    private void handleEditCustomer(TableView<Customer> table, ObservableList<Customer> data,
-            ObservableList<Customer> filteredData) {
+    private void handleEditCustomer(TableView<Customer> table, ObservableList<Customer> data) {
         Customer selectedCustomer = table.getSelectionModel().getSelectedItem();
         if (selectedCustomer == null) {
             showError("Please select a customer to edit!");
@@ -828,31 +1140,25 @@ public class Dashboard {
         dialog.showAndWait();
 
         if (dialog.isConfirmed()) {
-            try (Connection conn = Database.getConnection()) {
-                String sql = "UPDATE customers SET name = ?, email = ?, phone = ?, address = ? WHERE id = ?";
-                PreparedStatement pstmt = conn.prepareStatement(sql);
-                pstmt.setString(1, dialog.getCustomerName());
-                pstmt.setString(2, dialog.getEmail());
-                pstmt.setString(3, dialog.getPhone());
-                pstmt.setString(4, dialog.getAddress());
-                pstmt.setInt(5, selectedCustomer.getId());
-                pstmt.executeUpdate();
-
-                ObservableList<Customer> newData = getCustomersFromDB();
-                data.clear();
-                data.addAll(newData);
-                filteredData.clear();
-                filteredData.addAll(newData);
-
+            Customer updatedCustomer = new Customer(selectedCustomer.getId(), dialog.getCustomerName(),
+                    dialog.getEmail(), dialog.getPhone(), dialog.getAddress());
+
+            DbExecutor.submit("Edit customer", () -> {
+                return Database.inTransaction(conn -> {
+                    customerRepository.update(conn, updatedCustomer);
+                    return updatedCustomer;
+                });
+            }, saved -> {
+                replaceRow(data, selectedCustomer, updatedCustomer);
+                syncAfterWrite(table);
+
+                audit("edit", DataTable.CUSTOMERS, updatedCustomer.getId(), updatedCustomer.getName());
                 showSuccess("Customer updated successfully!");
-            } catch (Exception e) {
-                showError("Error updating customer: " + e.getMessage());
-            }
+            }, e -> showError("Error updating customer: " + e.getMessage()));
         }
     }
 
-    private void handleDeleteCustomer(TableView<Customer> table, ObservableList<Customer> data,
-            ObservableList<Customer> filteredData) {
+    private void handleDeleteCustomer(TableView<Customer> table, ObservableList<Customer> data) {
         Customer selectedCustomer = table.getSelectionModel().getSelectedItem();
         if (selectedCustomer == null) {
             showError("Please select a customer to delete!");
@@ -866,181 +1172,170 @@ public class Dashboard {
 
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try (Connection conn = Database.getConnection()) {
-                    String sql = "DELETE FROM customers WHERE id = ?";
-                    PreparedStatement pstmt = conn.prepareStatement(sql);
-                    pstmt.setInt(1, selectedCustomer.getId());
-                    pstmt.executeUpdate();
-
-                    data.remove(selectedCustomer);
-                    filteredData.remove(selectedCustomer);
-
+                DbExecutor.submit("Delete customer", () -> {
+                    return Database.inTransaction(conn -> {
+                        customerRepository.delete(conn, selectedCustomer.getId());
+                        return selectedCustomer;
+                    });
+                }, deleted -> {
+                    loaderFor(table).remove(selectedCustomer);
+                    syncAfterWrite(table);
+
+                    audit("delete", DataTable.CUSTOMERS, selectedCustomer.getId(), selectedCustomer.getName());
                     showSuccess("Customer deleted successfully!");
-                } catch (Exception e) {
-                    showError("Error deleting customer: " + e.getMessage());
-                }
+                }, e -> showError("Error deleting customer: " + e.getMessage()));
             }
         });
     }
 
-    private void filterCustomers(String searchText, ObservableList<Customer> data,
-            ObservableList<Customer> filteredData) {
-        filteredData.clear();
-        if (searchText == null || searchText.trim().isEmpty()) {
-            filteredData.addAll(data);
-        } else {
-            String lowerSearch = searchText.toLowerCase();
-            for (Customer customer : data) {
-                if (customer.getName().toLowerCase().contains(lowerSearch) ||
-                        customer.getEmail().toLowerCase().contains(lowerSearch)) {
-                    filteredData.add(customer);
-                }
-            }
-        }
+    private void filterCustomers(String searchText, SearchIndex<Customer> index,
+            FilteredList<Customer> filteredData) {
+        index.setQuery(searchText);
+        filteredData.setPredicate(customer -> index.matches(customer));
     }
 
-    private ObservableList<Customer> getCustomersFromDB() {
-        ObservableList<Customer> list = FXCollections.observableArrayList();
-        try (Connection conn = Database.getConnection()) {
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery("SELECT * FROM customers");
-            while (rs.next()) {
-                list.add(new Customer(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("email")));
+    // =================== Analytics ===================
+    // Reads the pre-aggregated rollup, never raw reservations, so a year for the whole chain is a few
+    // thousand rows. Reloaded every time the tab is shown since bookings change it.
+    private BorderPane createAnalyticsTab(Tab tab) {
+        ComboBox<String> hotelComboBox = new ComboBox<>();
+        hotelComboBox.setPromptText("All Hotels");
+        hotelComboBox.setPrefWidth(200);
+
+        ComboBox<String> typeComboBox = new ComboBox<>();
+        typeComboBox.getItems().add(ALL_ROOM_TYPES);
+        typeComboBox.getItems().addAll(Room.TYPES);
+        typeComboBox.setValue(ALL_ROOM_TYPES);
+
+        int year = LocalDate.now().getYear();
+        DatePicker fromPicker = new DatePicker(LocalDate.of(year, 1, 1));
+        DatePicker toPicker = new DatePicker(LocalDate.of(year, 12, 31));
+        fromPicker.setPrefWidth(130);
+        toPicker.setPrefWidth(130);
+
+        Label summary = new Label();
+        summary.setMaxHeight(Double.MAX_VALUE);
+        summary.setStyle("-fx-font-size: 13px;");
+
+        LineChart<Number, Number> occupancyChart = createDailyChart("Occupancy (%)");
+        LineChart<Number, Number> rateChart = createDailyChart("ADR and RevPAR");
+
+        Runnable refresh = () -> {
+            LocalDate from = fromPicker.getValue();
+            LocalDate to = toPicker.getValue();
+            if (from == null || to == null || to.isBefore(from)) {
+                summary.setText("Choose a valid date range");
+                return;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return list;
-    }
+            String hotel = hotelComboBox.getValue();
+            int hotelId = hotel == null || hotel.equals("All Hotels") ? 0 : Integer.parseInt(hotel.split(" - ")[0]);
+            String roomType = ALL_ROOM_TYPES.equals(typeComboBox.getValue()) ? null : typeComboBox.getValue();
 
-    // =================== Nested Model Classes ===================
-    public static class Hotel {
-        private int id;
-        private String name;
-        private String description;
-        private String address;
-        private double rating;
-
-        public Hotel(int id, String name, String description, String address, double rating) {
-            this.id = id;
-            this.name = name;
-            this.description = description;
-            this.address = address;
-            this.rating = rating;
-        }
+            Task<?> previous = pendingLoads.remove(tab);
+            if (previous != null) {
+                previous.cancel();
+            }
+            summary.setText("Loading...");
+            Task<?> task = DbExecutor.submit("Load analytics", () -> {
+                SchemaMigrator.ensureMigrated();
+                try (Connection conn = Database.getConnection()) {
+                    return OccupancyRollup.load(conn, hotelId, roomType, from, to);
+                }
+            }, series -> {
+                pendingLoads.remove(tab);
+                showAnalytics(series, occupancyChart, rateChart, summary);
+            }, e -> {
+                pendingLoads.remove(tab);
+                summary.setText("Could not load analytics: " + e.getMessage());
+            });
+            pendingLoads.put(tab, task);
+        };
+        typeComboBox.setOnAction(e -> refresh.run());
+        fromPicker.setOnAction(e -> refresh.run());
+        toPicker.setOnAction(e -> refresh.run());
+        tabLoaders.put(tab, () -> {
+            if (hotelComboBox.getItems().isEmpty()) {
+                loadHotelFilters(hotelComboBox, refresh);
+            }
+            refresh.run();
+        });
 
-        public int getId() {
-            return id;
-        }
+        Button reportButton = new Button("Reports...");
+        reportButton.setStyle(
+                "-fx-background-color: #607D8B; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 10 20; -fx-cursor: hand;");
+        reportButton.setOnAction(e -> new ReportDialog((Stage) reportButton.getScene().getWindow()).show());
 
-        public String getName() {
-            return name;
-        }
+        HBox controls = new HBox(15, hotelComboBox, typeComboBox, new Label("From"), fromPicker,
+                new Label("To"), toPicker, reportButton, summary);
+        controls.setStyle("-fx-padding: 15; -fx-background-color: #f5f5f5; -fx-alignment: center-left;");
 
-        public String getDescription() {
-            return description;
-        }
+        VBox charts = new VBox(10, occupancyChart, rateChart);
+        VBox.setVgrow(occupancyChart, Priority.ALWAYS);
+        VBox.setVgrow(rateChart, Priority.ALWAYS);
 
-        public String getAddress() {
-            return address;
-        }
+        BorderPane pane = new BorderPane();
+        pane.setTop(controls);
+        pane.setCenter(charts);
+        pane.setStyle("-fx-background-color: white;");
 
-        public double getRating() {
-            return rating;
-        }
+        return pane;
     }
 
-    public static class Room {
-        private int number;
-        private String type;
-        private boolean available;
-        private int hotelId; // NEW: Add hotel ID
-        private String hotelName; // Optional: Add hotel name for display
-
-        public Room(int number, String type, boolean available, int hotelId) {
-            this.number = number;
-            this.type = type;
-            this.available = available;
-            this.hotelId = hotelId;
-        }
-
-        public int getNumber() {
-            return number;
-        }
-
-        public String getType() {
-            return type;
-        }
+    // X values are epoch days; no symbols or animation so a year of points draws in one pass
+    private LineChart<Number, Number> createDailyChart(String title) {
+        NumberAxis xAxis = new NumberAxis();
+        xAxis.setAutoRanging(false);
+        xAxis.setMinorTickVisible(false);
+        xAxis.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number epochDay) {
+                return LocalDate.ofEpochDay(epochDay.longValue()).format(CHART_DATE_FORMAT);
+            }
 
-        public boolean getAvailable() {
-            return available;
-        }
+            @Override
+            public Number fromString(String text) {
+                throw new UnsupportedOperationException();
+            }
+        });
 
-        public int getHotelId() {
-            return hotelId;
-        } // NEW: Getter
+        LineChart<Number, Number> chart = new LineChart<>(xAxis, new NumberAxis());
+        chart.setTitle(title);
+        chart.setCreateSymbols(false);
+        chart.setAnimated(false);
+        return chart;
     }
 
-    public static class Reservation {
-        private int id;
-        private String customerName;
-        private int roomNumber;
-        private String checkIn;
-        private String checkOut;
-
-        public Reservation(int id, String customerName, int roomNumber, String checkIn, String checkOut) {
-            this.id = id;
-            this.customerName = customerName;
-            this.roomNumber = roomNumber;
-            this.checkIn = checkIn;
-            this.checkOut = checkOut;
+    private void showAnalytics(OccupancyRollup.Series series, LineChart<Number, Number> occupancyChart,
+            LineChart<Number, Number> rateChart, Label summary) {
+        long firstDay = series.getFrom().toEpochDay();
+        List<XYChart.Data<Number, Number>> occupancy = new ArrayList<>(series.getDays());
+        List<XYChart.Data<Number, Number>> adr = new ArrayList<>(series.getDays());
+        List<XYChart.Data<Number, Number>> revPar = new ArrayList<>(series.getDays());
+        for (int day = 0; day < series.getDays(); day++) {
+            occupancy.add(new XYChart.Data<>(firstDay + day, series.getOccupancy(day) * 100));
+            adr.add(new XYChart.Data<>(firstDay + day, series.getAdr(day)));
+            revPar.add(new XYChart.Data<>(firstDay + day, series.getRevPar(day)));
         }
 
-        public int getId() {
-            return id;
+        for (LineChart<Number, Number> chart : List.of(occupancyChart, rateChart)) {
+            NumberAxis xAxis = (NumberAxis) chart.getXAxis();
+            xAxis.setLowerBound(firstDay);
+            xAxis.setUpperBound(firstDay + series.getDays() - 1);
+            xAxis.setTickUnit(Math.max(1, series.getDays() / 12));
         }
+        occupancyChart.getData().setAll(List.of(chartSeries("Occupancy", occupancy)));
+        rateChart.getData().setAll(List.of(chartSeries("ADR", adr), chartSeries("RevPAR", revPar)));
 
-        public String getCustomerName() {
-            return customerName;
-        }
-
-        public int getRoomNumber() {
-            return roomNumber;
-        }
-
-        public String getCheckIn() {
-            return checkIn;
-        }
-
-        public String getCheckOut() {
-            return checkOut;
-        }
+        summary.setText(String.format("Occupancy %.1f%%   ADR %.2f   RevPAR %.2f   %,d room nights   %,d rooms",
+                series.getTotalOccupancy() * 100, series.getTotalAdr(), series.getTotalRevPar(),
+                series.getTotalRoomsSold(), series.getRoomCount()));
     }
 
-    public static class Customer {
-        private int id;
-        private String name;
-        private String email;
-
-        public Customer(int id, String name, String email) {
-            this.id = id;
-            this.name = name;
-            this.email = email;
-        }
-
-        public int getId() {
-            return id;
-        }
-
-        public String getName() {
-            return name;
-        }
-
-        public String getEmail() {
-            return email;
-        }
+    // Points are added in one call so the chart lays out once per series rather than once per point
+    private XYChart.Series<Number, Number> chartSeries(String name, List<XYChart.Data<Number, Number>> points) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(name);
+        series.getData().setAll(points);
+        return series;
     }
 }
\ No newline at end of file
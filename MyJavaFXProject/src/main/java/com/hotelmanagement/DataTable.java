@@ -0,0 +1,40 @@
+package com.hotelmanagement;
+
+// The tables that can be bulk imported and exported, with the key they are ordered by
+public enum DataTable {
+    HOTELS("hotels", "id"),
+    ROOMS("rooms", "number"),
+    CUSTOMERS("customers", "id"),
+    RESERVATIONS("reservations", "id");
+
+    private final String tableName;
+    private final String keyColumn;
+
+    DataTable(String tableName, String keyColumn) {
+        this.tableName = tableName;
+        this.keyColumn = keyColumn;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getKeyColumn() {
+        return keyColumn;
+    }
+
+    // Null for a table that isn't one of these
+    public static DataTable forTableName(String tableName) {
+        for (DataTable table : values()) {
+            if (table.tableName.equals(tableName)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return tableName;
+    }
+}
@@ -3,14 +3,125 @@ package com.hotelmanagement;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Properties;
 
 public class Database {
-    private static final String URL = "jdbc:mysql://localhost:3306/hotel_management";
-    private static final String USER = "root"; // default WAMP username
-    private static final String PASSWORD = ""; // default WAMP password
+    // Overridable with -Dhotel.db.url=... etc., e.g. to point the benchmarks at another database.
+    // rewriteBatchedStatements turns a JDBC batch of INSERTs into multi-row INSERTs (see CsvImporter);
+    // useCursorFetch makes a positive fetch size stream from a server-side cursor (see TableExporter);
+    // useServerPrepStmts parses each statement once on the server and then sends only parameters.
+    // The pool caches statements per connection (see ConnectionPool); cachePrepStmts lets the driver
+    // also keep the ones the pool does not, such as TableExporter's scrollable-type query
+    private static final String URL = System.getProperty("hotel.db.url",
+            "jdbc:mysql://localhost:3306/hotel_management?rewriteBatchedStatements=true&useCursorFetch=true"
+                    + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=4096");
+    private static final String USER = System.getProperty("hotel.db.user", "root"); // default WAMP username
+    private static final String PASSWORD = System.getProperty("hotel.db.password", ""); // default WAMP password
 
-    // Method to get a connection
+    // Connection pool settings (size overridable with -Dhotel.db.poolSize=...)
+    private static final int POOL_MAX_SIZE = Integer.getInteger("hotel.db.poolSize", 10);
+    private static final long POOL_CONNECTION_TIMEOUT_MS = 10_000;
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long POOL_MAX_LIFETIME_MS = 30 * 60_000; // below MySQL's default wait_timeout
+    private static final long POOL_LEAK_DETECTION_MS = 60_000;
+    // Prepared statements kept open per connection (-Dhotel.db.statementCacheSize=...; 0 turns caching off)
+    private static final int POOL_STATEMENT_CACHE_SIZE = Integer.getInteger("hotel.db.statementCacheSize", 100);
+    // How long isServerReachable waits to connect, and then for the server to answer
+    private static final int PROBE_TIMEOUT_SECONDS = 3;
+
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD, POOL_MAX_SIZE,
+            POOL_CONNECTION_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_MAX_LIFETIME_MS, POOL_LEAK_DETECTION_MS,
+            POOL_STATEMENT_CACHE_SIZE);
+
+    // Method to get a connection (closing it returns it to the pool). While the server is unreachable
+    // this is a connection to the local copy instead (see OfflineStore)
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        long start = System.nanoTime();
+        return instrument(acquire(), start);
+    }
+
+    private static Connection acquire() throws SQLException {
+        if (OfflineStore.isOffline()) {
+            return OfflineStore.getConnection();
+        }
+        try {
+            return POOL.getConnection();
+        } catch (SQLException e) {
+            if (OfflineStore.goOffline(e)) {
+                return OfflineStore.getConnection();
+            }
+            throw e;
+        }
+    }
+
+    // Always the server, for code that keeps the local copy, change log and audit log in step with it
+    public static Connection getServerConnection() throws SQLException {
+        long start = System.nanoTime();
+        return instrument(POOL.getConnection(), start);
+    }
+
+    // Times the wait for the connection and everything done with it (see QueryMetrics)
+    private static Connection instrument(Connection conn, long start) {
+        if (!QueryMetrics.ENABLED) {
+            return conn;
+        }
+        QueryMetrics.shared().record(QueryMetrics.Phase.ACQUIRE, System.nanoTime() - start);
+        return InstrumentedConnection.wrap(conn);
+    }
+
+    // Opens a connection of its own, bypassing the pool, to tell a server that is down from a pool that is busy
+    static boolean isServerReachable() {
+        Properties props = new Properties();
+        props.setProperty("user", USER);
+        props.setProperty("password", PASSWORD);
+        if (URL.startsWith("jdbc:mysql:")) {
+            props.setProperty("connectTimeout", String.valueOf(PROBE_TIMEOUT_SECONDS * 1000));
+        }
+        try (Connection conn = DriverManager.getConnection(URL, props)) {
+            return conn.isValid(PROBE_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public interface Work<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    // Runs work in one transaction, so that a row and its change_log entry (see ChangeLog) commit
+    // together or not at all. Offline that is the local copy, whose change_log is the outbox.
+    public static <T> T inTransaction(Work<T> work) throws SQLException {
+        SchemaMigrator.ensureMigrated();
+        try (Connection conn = getConnection()) {
+            return inTransaction(conn, work);
+        }
+    }
+
+    // The same on the server, e.g. to replay changes made offline
+    public static <T> T inServerTransaction(Work<T> work) throws SQLException {
+        SchemaMigrator.ensureMigrated();
+        try (Connection conn = getServerConnection()) {
+            return inTransaction(conn, work);
+        }
+    }
+
+    private static <T> T inTransaction(Connection conn, Work<T> work) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            T result = work.run(conn);
+            conn.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    public static ConnectionPool getPool() {
+        return POOL;
+    }
+
+    public static void shutdown() {
+        POOL.shutdown();
     }
 }
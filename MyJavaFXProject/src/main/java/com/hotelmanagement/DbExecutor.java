@@ -0,0 +1,41 @@
+package com.hotelmanagement;
+
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work off the JavaFX application thread.
+ * <p>
+ * Work is wrapped in a {@link Task} and executed on a virtual thread; the
+ * success and failure callbacks are delivered back on the FX thread, so they
+ * may touch controls and ObservableLists directly. Concurrency against MySQL
+ * is still bounded by the connection pool behind {@link Database}.
+ */
+public class DbExecutor {
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("db-worker-", 0).factory());
+
+    // action names the work in the diagnostics panel and the slow-query log (see QueryMetrics)
+    public static <T> Task<T> submit(String action, Callable<T> work, Consumer<T> onSuccess,
+            Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return QueryMetrics.shared().runAction(action, work);
+            }
+        };
+        // Cancelled tasks fire neither handler, so superseded results are simply dropped
+        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(e -> onFailure.accept(task.getException()));
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+}
@@ -0,0 +1,199 @@
+package com.hotelmanagement;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+
+// Where the time goes: QueryMetrics' histograms and logs, the pool and the startup schema check
+public class DiagnosticsDialog {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Stage stage;
+    private final Label status;
+    private final TableView<QueryMetrics.Stats> actions = statsTable("Action");
+    private final TableView<QueryMetrics.Stats> phases = statsTable("Step");
+    private final TableView<QueryMetrics.Stats> statements = statsTable("SQL");
+    private final TableView<QueryMetrics.LogEntry> slowQueries = logTable(false);
+    private final TableView<QueryMetrics.LogEntry> failures = logTable(true);
+    private final TextArea database = new TextArea();
+
+    public DiagnosticsDialog(Stage owner) {
+        stage = new Stage();
+        stage.initOwner(owner);
+        stage.setTitle("Diagnostics");
+
+        Button refreshButton = new Button("Refresh");
+        refreshButton.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 8 20;");
+        refreshButton.setOnAction(e -> refresh());
+
+        Button resetButton = new Button("Reset");
+        resetButton.setStyle("-fx-background-color: #607D8B; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 8 20;");
+        resetButton.setOnAction(e -> {
+            QueryMetrics.shared().reset();
+            refresh();
+        });
+
+        Button saveButton = new Button("Save JSON...");
+        saveButton.setStyle("-fx-background-color: #607D8B; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 8 20;");
+        saveButton.setOnAction(e -> saveSnapshot());
+
+        status = new Label();
+        status.setMaxHeight(Double.MAX_VALUE);
+        status.setStyle("-fx-text-fill: #757575; -fx-font-size: 12px;");
+
+        database.setEditable(false);
+        database.setStyle("-fx-font-family: monospace;");
+
+        TabPane tabs = new TabPane(
+                new Tab("Actions", actions),
+                new Tab("Steps", phases),
+                new Tab("Statements", statements),
+                new Tab("Slow Queries", slowQueries),
+                new Tab("Failures", failures),
+                new Tab("Database", database));
+        tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+
+        HBox controls = new HBox(10, refreshButton, resetButton, saveButton, status);
+        controls.setPadding(new Insets(15));
+        controls.setStyle("-fx-background-color: #f5f5f5; -fx-alignment: center-left;");
+
+        BorderPane root = new BorderPane();
+        root.setTop(controls);
+        root.setCenter(tabs);
+
+        Scene scene = new Scene(root, 1100, 600);
+        stage.setScene(scene);
+        refresh();
+    }
+
+    private void refresh() {
+        QueryMetrics metrics = QueryMetrics.shared();
+        actions.setItems(FXCollections.observableArrayList(metrics.getActionStats()));
+        phases.setItems(FXCollections.observableArrayList(metrics.getPhaseStats()));
+        statements.setItems(FXCollections.observableArrayList(metrics.getStatementStats()));
+        slowQueries.setItems(FXCollections.observableArrayList(metrics.getSlowQueries()));
+        failures.setItems(FXCollections.observableArrayList(metrics.getFailures()));
+
+        StringBuilder text = new StringBuilder(Database.getPool().toString()).append("\n\n");
+        List<String> warnings = SchemaCheck.getWarnings();
+        text.append(warnings.isEmpty() ? "Schema check: every hot query uses an index" : String.join("\n", warnings));
+        if (OfflineStore.isOffline()) {
+            text.append("\n\nOffline: working from the local copy");
+        }
+        database.setText(text.toString());
+
+        status.setText(String.format("Since %s; %d slow queries (over %d ms), %d failures",
+                format(metrics.getSince()), metrics.getSlowQueryCount(), metrics.getSlowQueryMillis(),
+                metrics.getFailureCount()));
+    }
+
+    private void saveSnapshot() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save Diagnostics");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JSON files", "*.json"));
+        chooser.setInitialFileName("diagnostics.json");
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        DbExecutor.submit("Save diagnostics", () -> {
+            QueryMetrics.shared().dump(file.toPath());
+            return file;
+        }, saved -> status.setText("Saved to " + saved.getName()),
+                e -> showError("Error saving diagnostics: " + e.getMessage()));
+    }
+
+    private static TableView<QueryMetrics.Stats> statsTable(String nameHeader) {
+        TableView<QueryMetrics.Stats> table = new TableView<>();
+        table.setPlaceholder(new Label("Nothing recorded yet"));
+        TableColumn<QueryMetrics.Stats, String> name = new TableColumn<>(nameHeader);
+        name.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getName()));
+        name.setPrefWidth(420);
+        TableColumn<QueryMetrics.Stats, Long> count = new TableColumn<>("Count");
+        count.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getCount()));
+        count.setPrefWidth(80);
+        table.getColumns().add(name);
+        table.getColumns().add(count);
+        table.getColumns().add(millisColumn("Mean ms", QueryMetrics.Stats::getMeanMillis));
+        table.getColumns().add(millisColumn("p50 ms", QueryMetrics.Stats::getP50Millis));
+        table.getColumns().add(millisColumn("p95 ms", QueryMetrics.Stats::getP95Millis));
+        table.getColumns().add(millisColumn("p99 ms", QueryMetrics.Stats::getP99Millis));
+        table.getColumns().add(millisColumn("Max ms", QueryMetrics.Stats::getMaxMillis));
+        table.getColumns().add(millisColumn("Total ms", QueryMetrics.Stats::getTotalMillis));
+        return table;
+    }
+
+    private static TableColumn<QueryMetrics.Stats, String> millisColumn(String header,
+            Function<QueryMetrics.Stats, Double> value) {
+        TableColumn<QueryMetrics.Stats, String> column = new TableColumn<>(header);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(String.format("%.2f", value.apply(cell.getValue()))));
+        column.setStyle("-fx-alignment: center-right;");
+        column.setPrefWidth(85);
+        return column;
+    }
+
+    private static TableView<QueryMetrics.LogEntry> logTable(boolean withError) {
+        TableView<QueryMetrics.LogEntry> table = new TableView<>();
+        table.setPlaceholder(new Label(withError ? "No failures" : "No slow queries"));
+        TableColumn<QueryMetrics.LogEntry, String> at = new TableColumn<>("Time");
+        at.setCellValueFactory(cell -> new ReadOnlyStringWrapper(format(cell.getValue().getAt())));
+        at.setPrefWidth(140);
+        TableColumn<QueryMetrics.LogEntry, String> action = new TableColumn<>("Action");
+        action.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getAction()));
+        action.setPrefWidth(140);
+        TableColumn<QueryMetrics.LogEntry, String> millis = new TableColumn<>("ms");
+        millis.setCellValueFactory(cell -> new ReadOnlyStringWrapper(String.format("%.1f", cell.getValue().getMillis())));
+        millis.setStyle("-fx-alignment: center-right;");
+        millis.setPrefWidth(70);
+        TableColumn<QueryMetrics.LogEntry, String> sql = new TableColumn<>("SQL");
+        sql.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getSql()));
+        sql.setPrefWidth(400);
+        TableColumn<QueryMetrics.LogEntry, String> params = new TableColumn<>("Parameters");
+        params.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getParams()));
+        params.setPrefWidth(withError ? 150 : 300);
+        table.getColumns().add(at);
+        table.getColumns().add(action);
+        table.getColumns().add(millis);
+        table.getColumns().add(sql);
+        table.getColumns().add(params);
+        if (withError) {
+            TableColumn<QueryMetrics.LogEntry, String> error = new TableColumn<>("Error");
+            error.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getError()));
+            error.setPrefWidth(250);
+            table.getColumns().add(error);
+        }
+        return table;
+    }
+
+    private static String format(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()).format(TIME);
+    }
+
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
+    public void show() {
+        stage.show();
+    }
+}
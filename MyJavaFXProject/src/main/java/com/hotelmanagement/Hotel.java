@@ -0,0 +1,37 @@
+package com.hotelmanagement;
+
+public class Hotel {
+    private int id;
+    private String name;
+    private String description;
+    private String address;
+    private double rating;
+
+    public Hotel(int id, String name, String description, String address, double rating) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.address = address;
+        this.rating = rating;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+}
@@ -8,8 +8,6 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 public class HotelDialog {
     private Stage stage;
@@ -94,16 +92,13 @@ public class HotelDialog {
 
     private void loadHotelData(int hotelId) {
         try (Connection conn = Database.getConnection()) {
-            String sql = "SELECT * FROM hotels WHERE id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, hotelId);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                nameField.setText(rs.getString("name"));
-                descriptionArea.setText(rs.getString("description") != null ? rs.getString("description") : "");
-                addressArea.setText(rs.getString("address") != null ? rs.getString("address") : "");
-                ratingComboBox.setValue(rs.getDouble("rating"));
+            Hotel hotel = new HotelRepository().findById(conn, hotelId);
+
+            if (hotel != null) {
+                nameField.setText(hotel.getName());
+                descriptionArea.setText(hotel.getDescription() != null ? hotel.getDescription() : "");
+                addressArea.setText(hotel.getAddress() != null ? hotel.getAddress() : "");
+                ratingComboBox.setValue(hotel.getRating());
             }
         } catch (Exception e) {
             showError("Error loading hotel data: " + e.getMessage());
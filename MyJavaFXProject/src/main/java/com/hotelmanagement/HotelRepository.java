@@ -0,0 +1,145 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Data access for the {@code hotels} table.
+ * <p>
+ * Repositories hold no state and no UI: every method runs on the connection it is given, so the
+ * caller decides the thread (usually through {@link DbExecutor}) and the transaction, and can run
+ * several calls on one connection. The SQL is kept in constants so identical statements can be
+ * reused by the pool's statement cache (see {@link ConnectionPool}).
+ * <p>
+ * Single-row writes also append to the {@link ChangeLog} on the same connection, so they reach other
+ * desks' Dashboards. {@code insertAll} does not; bulk loaders record a reload of the table instead.
+ */
+public class HotelRepository {
+
+    static final String FIND_PAGE_FORWARD = "SELECT * FROM hotels " + PagedLoader.keysetClause("id", true);
+    private static final String FIND_PAGE_BACKWARD = "SELECT * FROM hotels " + PagedLoader.keysetClause("id", false);
+    private static final String FIND_BY_ID = "SELECT * FROM hotels WHERE id = ?";
+    private static final String SEARCH = "SELECT * FROM hotels WHERE name LIKE ? OR address LIKE ? OR description LIKE ? " +
+            "ORDER BY id LIMIT ?";
+    private static final String INSERT = "INSERT INTO hotels (name, description, address, rating) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID = "INSERT INTO hotels (name, description, address, rating, id) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE hotels SET name = ?, description = ?, address = ?, rating = ? WHERE id = ?";
+    private static final String DELETE = "DELETE FROM hotels WHERE id = ?";
+
+    public List<Hotel> findPage(Connection conn, long key, boolean forward, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(forward ? FIND_PAGE_FORWARD : FIND_PAGE_BACKWARD)) {
+            pstmt.setLong(1, key);
+            pstmt.setInt(2, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    public Hotel findById(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(FIND_BY_ID)) {
+            pstmt.setInt(1, id);
+            List<Hotel> hotels = mapAll(pstmt.executeQuery());
+            return hotels.isEmpty() ? null : hotels.get(0);
+        }
+    }
+
+    public List<Hotel> search(Connection conn, String likePattern, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SEARCH)) {
+            pstmt.setString(1, likePattern);
+            pstmt.setString(2, likePattern);
+            pstmt.setString(3, likePattern);
+            pstmt.setInt(4, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    // Returns the hotel with its generated id
+    public Hotel insert(Connection conn, Hotel hotel) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            bind(pstmt, hotel);
+            pstmt.executeUpdate();
+            ResultSet generatedKeys = pstmt.getGeneratedKeys();
+            generatedKeys.next();
+            int id = generatedKeys.getInt(1);
+            ChangeLog.record(conn, DataTable.HOTELS, ChangeLog.INSERT, id);
+            return new Hotel(id, hotel.getName(), hotel.getDescription(), hotel.getAddress(), hotel.getRating());
+        }
+    }
+
+    // One round trip per batch instead of per row (one per statement with rewriteBatchedStatements).
+    // Hotels with an id keep it, so exported data can be loaded back; id 0 gets a generated one.
+    public void insertAll(Connection conn, List<Hotel> hotels) throws SQLException {
+        List<Hotel> withId = new ArrayList<>();
+        List<Hotel> withoutId = new ArrayList<>();
+        for (Hotel hotel : hotels) {
+            (hotel.getId() > 0 ? withId : withoutId).add(hotel);
+        }
+        if (!withId.isEmpty()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_WITH_ID)) {
+                for (Hotel hotel : withId) {
+                    bind(pstmt, hotel);
+                    pstmt.setInt(5, hotel.getId());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+        if (!withoutId.isEmpty()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT)) {
+                for (Hotel hotel : withoutId) {
+                    bind(pstmt, hotel);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    public void update(Connection conn, Hotel hotel) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPDATE)) {
+            bind(pstmt, hotel);
+            pstmt.setInt(5, hotel.getId());
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.HOTELS, ChangeLog.UPDATE, hotel.getId());
+    }
+
+    public void delete(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE)) {
+            pstmt.setInt(1, id);
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.HOTELS, ChangeLog.DELETE, id);
+    }
+
+    public Set<Integer> findExistingIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        return KeyLookup.existing(conn, "hotels", "id", ids);
+    }
+
+    private void bind(PreparedStatement pstmt, Hotel hotel) throws SQLException {
+        pstmt.setString(1, hotel.getName());
+        pstmt.setString(2, hotel.getDescription());
+        pstmt.setString(3, hotel.getAddress());
+        pstmt.setDouble(4, hotel.getRating());
+    }
+
+    private List<Hotel> mapAll(ResultSet rs) throws SQLException {
+        List<Hotel> list = new ArrayList<>();
+        while (rs.next()) {
+            list.add(new Hotel(
+                    rs.getInt("id"),
+                    rs.getString("name"),
+                    rs.getString("description"),
+                    rs.getString("address"),
+                    rs.getDouble("rating")));
+        }
+        return list;
+    }
+}
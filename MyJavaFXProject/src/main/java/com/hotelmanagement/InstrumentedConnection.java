@@ -0,0 +1,283 @@
+package com.hotelmanagement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Wraps a connection so that every statement made from it reports to {@link QueryMetrics}.
+ * <p>
+ * Preparing is timed, and so is each execute, together with the statement's SQL and the parameters
+ * bound at the time. A result set is timed from the execute that produced it until it is read to
+ * the end or closed, which is the time the caller spends mapping rows. Code that reads a single row
+ * and leaves the result set to its statement is covered too: closing or re-executing the statement,
+ * or closing the connection, ends the timing. Everything else goes straight to the wrapped
+ * connection, so this can sit in front of a pooled or an offline connection alike.
+ */
+final class InstrumentedConnection {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final int MAX_PARAM_LENGTH = 64;
+    private static final int MAX_PARAMS_SHOWN = 20;
+
+    private InstrumentedConnection() {
+    }
+
+    static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // =================== Connection ===================
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        // Statements still open, whose result sets end with the connection if nobody closes them first
+        private final Set<StatementHandler> statements = new HashSet<>();
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                case "prepareCall": {
+                    long start = System.nanoTime();
+                    Statement statement;
+                    try {
+                        statement = (Statement) InstrumentedConnection.invoke(connection, method, args);
+                    } catch (SQLException e) {
+                        // Some drivers check the SQL against the schema here rather than on execute
+                        QueryMetrics.shared().recordFailure((String) args[0], "[]", System.nanoTime() - start, e);
+                        throw e;
+                    }
+                    QueryMetrics.shared().record(QueryMetrics.Phase.PREPARE, System.nanoTime() - start);
+                    return StatementHandler.wrap(this, statement, (String) args[0]);
+                }
+                case "createStatement":
+                    return StatementHandler.wrap(this,
+                            (Statement) InstrumentedConnection.invoke(connection, method, args), null);
+                case "close":
+                    for (StatementHandler statement : new ArrayList<>(statements)) {
+                        statement.closed();
+                    }
+                    return InstrumentedConnection.invoke(connection, method, args);
+                default:
+                    return InstrumentedConnection.invoke(connection, method, args);
+            }
+        }
+    }
+
+    // =================== Statement ===================
+    private static class StatementHandler implements InvocationHandler {
+        private final ConnectionHandler owner;
+        private final Statement statement;
+        // Null for a plain Statement, whose SQL comes with each execute
+        private final String sql;
+        private final List<Object> params = new ArrayList<>();
+        private int batched;
+        // The statement's open result set, if any; JDBC closes it on the next execute
+        private ResultSetHandler result;
+        private ResultSet resultProxy;
+
+        private StatementHandler(ConnectionHandler owner, Statement statement, String sql) {
+            this.owner = owner;
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        static Statement wrap(ConnectionHandler owner, Statement statement, String sql) {
+            Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            StatementHandler handler = new StatementHandler(owner, statement, sql);
+            owner.statements.add(handler);
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[] { type }, handler);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "clearParameters":
+                    params.clear();
+                    break;
+                case "addBatch":
+                    batched++;
+                    break;
+                case "clearBatch":
+                    batched = 0;
+                    break;
+                case "close":
+                    closed();
+                    break;
+                case "getMoreResults":
+                    finishResult();
+                    break;
+                default:
+                    // Parameter setters take the index first; statement settings like setFetchSize don't
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    }
+                    break;
+            }
+            Object result = InstrumentedConnection.invoke(statement, method, args);
+            return name.equals("getResultSet") && result != null ? track((ResultSet) result) : result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            finishResult();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentedConnection.invoke(statement, method, args);
+            } catch (SQLException e) {
+                QueryMetrics.shared().recordFailure(executed, describeParams(), System.nanoTime() - start, e);
+                throw e;
+            }
+            long nanos = System.nanoTime() - start;
+            QueryMetrics.shared().recordExecute(executed != null ? executed : "(batch)", this::describeParams, nanos);
+            if (method.getName().endsWith("Batch")) {
+                batched = 0;
+            }
+            return result instanceof ResultSet ? track((ResultSet) result) : result;
+        }
+
+        // getResultSet may hand out the same result set again; that keeps its proxy and its timing
+        private ResultSet track(ResultSet resultSet) {
+            if (result != null && result.resultSet == resultSet) {
+                return resultProxy;
+            }
+            finishResult();
+            result = new ResultSetHandler(resultSet);
+            resultProxy = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, result);
+            return resultProxy;
+        }
+
+        private void finishResult() {
+            if (result != null) {
+                result.finished();
+                result = null;
+                resultProxy = null;
+            }
+        }
+
+        // By the caller or, with the connection, by the pool
+        void closed() {
+            finishResult();
+            owner.statements.remove(this);
+        }
+
+        private void bind(int index, Object value) {
+            while (params.size() < index) {
+                params.add(null);
+            }
+            params.set(index - 1, value);
+        }
+
+        // Built only when a statement is slow or fails, so the common path pays nothing for it
+        private String describeParams() {
+            StringBuilder text = new StringBuilder("[");
+            for (int i = 0; i < params.size() && i < MAX_PARAMS_SHOWN; i++) {
+                text.append(i > 0 ? ", " : "").append(describe(params.get(i)));
+            }
+            if (params.size() > MAX_PARAMS_SHOWN) {
+                text.append(", ... ").append(params.size() - MAX_PARAMS_SHOWN).append(" more");
+            }
+            text.append(']');
+            if (batched > 1) {
+                text.append(" last of a batch of ").append(batched);
+            }
+            return text.toString();
+        }
+
+        private static String describe(Object value) {
+            if (value == null) {
+                return "NULL";
+            }
+            if (value instanceof byte[] || value instanceof java.io.InputStream || value instanceof java.io.Reader) {
+                return "<binary>";
+            }
+            String text = value.toString();
+            if (text.length() > MAX_PARAM_LENGTH) {
+                text = text.substring(0, MAX_PARAM_LENGTH) + "...";
+            }
+            return value instanceof String ? "'" + text + "'" : text;
+        }
+    }
+
+    // =================== Result Set ===================
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final long start = System.nanoTime();
+        private boolean done;
+
+        ResultSetHandler(ResultSet resultSet) {
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "next": {
+                    Object more = InstrumentedConnection.invoke(resultSet, method, args);
+                    if (!(Boolean) more) {
+                        finished();
+                    }
+                    return more;
+                }
+                case "close":
+                    finished();
+                    break;
+                default:
+                    break;
+            }
+            return InstrumentedConnection.invoke(resultSet, method, args);
+        }
+
+        void finished() {
+            if (!done) {
+                done = true;
+                QueryMetrics.shared().record(QueryMetrics.Phase.MAP, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+// Which of a set of keys exist in a table, asked in one IN (...) query per slice instead of once per key
+class KeyLookup {
+
+    // Keeps the statement well under MySQL's placeholder limit and the IN list cheap to plan
+    private static final int MAX_KEYS_PER_QUERY = 1000;
+
+    static Set<Integer> existing(Connection conn, String tableName, String keyColumn, Collection<Integer> keys)
+            throws SQLException {
+        Set<Integer> found = new HashSet<>();
+        Integer[] all = keys.stream().distinct().toArray(Integer[]::new);
+        for (int from = 0; from < all.length; from += MAX_KEYS_PER_QUERY) {
+            int count = Math.min(MAX_KEYS_PER_QUERY, all.length - from);
+            String sql = "SELECT " + keyColumn + " FROM " + tableName + " WHERE " + keyColumn + " IN ("
+                    + "?,".repeat(count - 1) + "?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < count; i++) {
+                    pstmt.setInt(i + 1, all[from + i]);
+                }
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    found.add(rs.getInt(1));
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -28,7 +28,7 @@ public class LoginPage {
 
             // Simple check, replace with DB check later
             if (user.equals("admin") && pass.equals("1234")) {
-                Dashboard dashboard = new Dashboard();
+                Dashboard dashboard = new Dashboard(user);
                 dashboard.start(stage);
             } else {
                 message.setText("Invalid credentials!");
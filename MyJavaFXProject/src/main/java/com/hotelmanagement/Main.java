@@ -3,14 +3,45 @@ package com.hotelmanagement;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class Main extends Application {
 
     @Override
     public void start(Stage stage) {
+        SchemaMigrator.migrateInBackground();
+        RoomAvailability.startDailyRollover();
+        OccupancyRollup.backfillInBackground();
+        ChangePoller.shared().addListener(AvailabilityEngine::applyChanges);
+        OfflineStore.start();
         LoginPage loginPage = new LoginPage();
         loginPage.start(stage);
     }
 
+    @Override
+    public void stop() {
+        dumpDiagnostics();
+        RoomAvailability.shutdown();
+        ChangePoller.shutdown();
+        OfflineStore.shutdown();
+        AuditLog.shutdown();
+        DbExecutor.shutdown();
+        Database.shutdown();
+    }
+
+    // -Dhotel.diagnostics.dump=file writes the run's query metrics there on exit
+    private static void dumpDiagnostics() {
+        String file = System.getProperty("hotel.diagnostics.dump");
+        if (file != null) {
+            try {
+                QueryMetrics.shared().dump(Paths.get(file));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
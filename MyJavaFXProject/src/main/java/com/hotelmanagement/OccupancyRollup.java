@@ -0,0 +1,480 @@
+package com.hotelmanagement;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Nights sold and revenue per hotel, room type and night, kept up to date on every reservation
+ * write so the analytics tab never has to aggregate raw reservations.
+ * <p>
+ * {@code daily_occupancy} has one row per hotel, night and room type. Booking, rescheduling and
+ * cancelling add or subtract their nights inside the booking transaction, so the rollup commits or
+ * rolls back together with the reservation. A chain-wide chart would still have to add up every
+ * hotel, so the same deltas also go to {@code chain_daily_occupancy}, split into
+ * {@value #STRIPES} stripes by hotel id so that desks of different hotels booking the same night
+ * rarely wait on the same row. A year of data is then at most 365 rows per room type for a hotel,
+ * and 365 x {@value #STRIPES} per room type for the whole chain.
+ * <p>
+ * Stays are half-open: check-in on the 1st and check-out on the 3rd sells the nights of the 1st
+ * and 2nd. Revenue is priced at the hotel's rate for the room type in {@code room_rates}, or a
+ * default per type when there is none. The rollup keeps the rate of the day the stay was written,
+ * so call {@link #rebuildHotel} after changing a hotel's rates or moving a room to another hotel
+ * or type.
+ */
+public class OccupancyRollup {
+
+    static final int STRIPES = 16;
+
+    private static final String ADD_HOTEL_NIGHTS =
+            "INSERT INTO daily_occupancy (hotel_id, stay_date, room_type, rooms_sold, revenue) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "rooms_sold = rooms_sold + VALUES(rooms_sold), revenue = revenue + VALUES(revenue)";
+    private static final String ADD_CHAIN_NIGHTS =
+            "INSERT INTO chain_daily_occupancy (stay_date, room_type, stripe, rooms_sold, revenue) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "rooms_sold = rooms_sold + VALUES(rooms_sold), revenue = revenue + VALUES(revenue)";
+
+    private static final String ROOM_PRICES =
+            "SELECT rm.number, rm.hotel_id, rm.type, rr.nightly_rate FROM rooms rm " +
+            "LEFT JOIN room_rates rr ON rr.hotel_id = rm.hotel_id AND rr.room_type = rm.type " +
+            "WHERE rm.number IN ";
+    private static final String HOTEL_STAYS =
+            "SELECT rm.type, rr.nightly_rate, r.check_in, r.check_out FROM rooms rm " +
+            "JOIN reservations r ON r.room_number = rm.number " +
+            "LEFT JOIN room_rates rr ON rr.hotel_id = rm.hotel_id AND rr.room_type = rm.type " +
+            "WHERE rm.hotel_id = ?";
+    private static final String LOCK_HOTEL_ROLLUP =
+            "SELECT stay_date, room_type, rooms_sold, revenue FROM daily_occupancy WHERE hotel_id = ? FOR UPDATE";
+
+    private static final String BACKFILL_TASK = "occupancy_backfill";
+    private static final String FIND_TASK = "SELECT 1 FROM maintenance_log WHERE task = ?";
+    // Another desk may finish the same backfill first
+    private static final String RECORD_TASK = "INSERT IGNORE INTO maintenance_log (task) VALUES (?)";
+
+    // Used when a hotel has no room_rates row for the type
+    private static final Map<String, BigDecimal> DEFAULT_RATES = Map.of(
+            Room.SINGLE, new BigDecimal("80.00"),
+            Room.DOUBLE, new BigDecimal("110.00"),
+            Room.DELUXE, new BigDecimal("160.00"),
+            Room.SUITE, new BigDecimal("240.00"));
+    private static final BigDecimal FALLBACK_RATE = new BigDecimal("100.00");
+
+    // Keeps the IN list of a room lookup well under MySQL's placeholder limit
+    private static final int MAX_ROOMS_PER_QUERY = 1000;
+
+    // Fills the rollup from existing reservations the first time the application runs against a
+    // database; runs in the background so startup doesn't wait for it. Finishing is recorded in
+    // maintenance_log rather than read off the rollup, which the first booking may already have
+    // written to. Bookings made meanwhile are safe: rebuildHotel locks the hotel's rows and diffs.
+    public static void backfillInBackground() {
+        Thread.ofVirtual().name("occupancy-backfill").start(() -> {
+            try {
+                SchemaMigrator.ensureMigrated();
+                if (OfflineStore.isOffline()) {
+                    return; // the copy has no rollup; the next start tries again
+                }
+                List<Integer> hotelIds = new ArrayList<>();
+                try (Connection conn = Database.getServerConnection()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(FIND_TASK)) {
+                        pstmt.setString(1, BACKFILL_TASK);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            if (rs.next()) {
+                                return;
+                            }
+                        }
+                    }
+                    try (Statement stmt = conn.createStatement();
+                            ResultSet rs = stmt.executeQuery("SELECT id FROM hotels ORDER BY id")) {
+                        while (rs.next()) {
+                            hotelIds.add(rs.getInt(1));
+                        }
+                    }
+                }
+                for (int hotelId : hotelIds) {
+                    rebuildHotel(hotelId);
+                }
+                try (Connection conn = Database.getServerConnection();
+                        PreparedStatement pstmt = conn.prepareStatement(RECORD_TASK)) {
+                    pstmt.setString(1, BACKFILL_TASK);
+                    pstmt.executeUpdate();
+                }
+            } catch (SQLException e) {
+                QueryMetrics.shared().recordFailure("Backfill occupancy", e);
+            }
+        });
+    }
+
+    // =================== Incremental Updates ===================
+    // Call with the booking transaction's connection, after the reservation row is written
+    public static void addStay(Connection conn, int roomNumber, LocalDate checkIn, LocalDate checkOut)
+            throws SQLException {
+        applyStays(conn, List.of(new Stay(roomNumber, checkIn, checkOut)), 1);
+    }
+
+    public static void removeStay(Connection conn, int roomNumber, LocalDate checkIn, LocalDate checkOut)
+            throws SQLException {
+        applyStays(conn, List.of(new Stay(roomNumber, checkIn, checkOut)), -1);
+    }
+
+    // For bulk writes such as CSV imports: one lookup and one batch per table for all the stays
+    public static void addStays(Connection conn, Collection<Reservation> reservations) throws SQLException {
+        List<Stay> stays = new ArrayList<>(reservations.size());
+        for (Reservation res : reservations) {
+            stays.add(new Stay(res.getRoomNumber(), res.getCheckIn(), res.getCheckOut()));
+        }
+        applyStays(conn, stays, 1);
+    }
+
+    private static void applyStays(Connection conn, List<Stay> stays, int sign) throws SQLException {
+        Map<Integer, RoomPrice> prices = roomPrices(conn, stays);
+        TreeMap<Cell, long[]> deltas = new TreeMap<>();
+        for (Stay stay : stays) {
+            RoomPrice price = prices.get(stay.roomNumber);
+            if (price == null) {
+                throw new SQLException("Room " + stay.roomNumber + " does not exist");
+            }
+            for (long day = stay.checkIn.toEpochDay(); day < stay.checkOut.toEpochDay(); day++) {
+                long[] delta = deltas.computeIfAbsent(new Cell(price.hotelId, (int) day, price.type),
+                        cell -> new long[2]);
+                delta[0] += sign;
+                delta[1] += sign * price.rateCents;
+            }
+        }
+        write(conn, deltas);
+    }
+
+    // Rows are written in key order, hotel table first, so concurrent writers lock them in the same
+    // order and can't deadlock on each other's nights
+    private static void write(Connection conn, TreeMap<Cell, long[]> deltas) throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        TreeMap<ChainCell, long[]> chainDeltas = new TreeMap<>();
+        try (PreparedStatement hotelNights = conn.prepareStatement(ADD_HOTEL_NIGHTS)) {
+            for (Map.Entry<Cell, long[]> entry : deltas.entrySet()) {
+                Cell cell = entry.getKey();
+                long[] delta = entry.getValue();
+                hotelNights.setInt(1, cell.hotelId);
+                hotelNights.setDate(2, Date.valueOf(LocalDate.ofEpochDay(cell.epochDay)));
+                hotelNights.setString(3, cell.roomType);
+                hotelNights.setInt(4, (int) delta[0]);
+                hotelNights.setBigDecimal(5, BigDecimal.valueOf(delta[1], 2));
+                hotelNights.addBatch();
+
+                long[] chain = chainDeltas.computeIfAbsent(
+                        new ChainCell(cell.epochDay, cell.roomType, Math.floorMod(cell.hotelId, STRIPES)),
+                        c -> new long[2]);
+                chain[0] += delta[0];
+                chain[1] += delta[1];
+            }
+            hotelNights.executeBatch();
+        }
+
+        try (PreparedStatement chainNights = conn.prepareStatement(ADD_CHAIN_NIGHTS)) {
+            for (Map.Entry<ChainCell, long[]> entry : chainDeltas.entrySet()) {
+                ChainCell cell = entry.getKey();
+                chainNights.setDate(1, Date.valueOf(LocalDate.ofEpochDay(cell.epochDay)));
+                chainNights.setString(2, cell.roomType);
+                chainNights.setInt(3, cell.stripe);
+                chainNights.setInt(4, (int) entry.getValue()[0]);
+                chainNights.setBigDecimal(5, BigDecimal.valueOf(entry.getValue()[1], 2));
+                chainNights.addBatch();
+            }
+            chainNights.executeBatch();
+        }
+    }
+
+    private static Map<Integer, RoomPrice> roomPrices(Connection conn, List<Stay> stays) throws SQLException {
+        Integer[] numbers = stays.stream().map(stay -> stay.roomNumber).distinct().toArray(Integer[]::new);
+        Map<Integer, RoomPrice> prices = new HashMap<>();
+        for (int from = 0; from < numbers.length; from += MAX_ROOMS_PER_QUERY) {
+            int count = Math.min(MAX_ROOMS_PER_QUERY, numbers.length - from);
+            try (PreparedStatement pstmt = conn.prepareStatement(ROOM_PRICES + "(" + "?,".repeat(count - 1) + "?)")) {
+                for (int i = 0; i < count; i++) {
+                    pstmt.setInt(i + 1, numbers[from + i]);
+                }
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    String type = rs.getString("type");
+                    prices.put(rs.getInt("number"), new RoomPrice(rs.getInt("hotel_id"), type,
+                            rateCents(type, rs.getBigDecimal("nightly_rate"))));
+                }
+            }
+        }
+        return prices;
+    }
+
+    private static long rateCents(String roomType, BigDecimal rate) {
+        if (rate == null) {
+            rate = DEFAULT_RATES.getOrDefault(roomType, FALLBACK_RATE);
+        }
+        return rate.movePointRight(2).longValue();
+    }
+
+    // =================== Rebuild ===================
+    // Recomputes one hotel's nights from its reservations in a single transaction. Locking the
+    // hotel's rollup rows first makes concurrent bookings wait, and the reservations are read after
+    // that, so a booking is counted either by the rebuild or by its own update, never both or neither.
+    // Only the difference is written, which also keeps the chain totals right.
+    public static void rebuildHotel(int hotelId) throws SQLException {
+        SchemaMigrator.ensureMigrated();
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                TreeMap<Cell, long[]> deltas = new TreeMap<>();
+                try (PreparedStatement lock = conn.prepareStatement(LOCK_HOTEL_ROLLUP)) {
+                    lock.setInt(1, hotelId);
+                    ResultSet rs = lock.executeQuery();
+                    while (rs.next()) {
+                        int day = (int) rs.getDate("stay_date").toLocalDate().toEpochDay();
+                        long[] delta = deltas.computeIfAbsent(new Cell(hotelId, day, rs.getString("room_type")),
+                                cell -> new long[2]);
+                        delta[0] -= rs.getInt("rooms_sold");
+                        delta[1] -= rs.getBigDecimal("revenue").movePointRight(2).longValue();
+                    }
+                }
+
+                try (PreparedStatement stays = conn.prepareStatement(HOTEL_STAYS)) {
+                    stays.setInt(1, hotelId);
+                    ResultSet rs = stays.executeQuery();
+                    while (rs.next()) {
+                        String type = rs.getString("type");
+                        long rate = rateCents(type, rs.getBigDecimal("nightly_rate"));
+                        long checkOut = rs.getDate("check_out").toLocalDate().toEpochDay();
+                        for (long day = rs.getDate("check_in").toLocalDate().toEpochDay(); day < checkOut; day++) {
+                            long[] delta = deltas.computeIfAbsent(new Cell(hotelId, (int) day, type),
+                                    cell -> new long[2]);
+                            delta[0]++;
+                            delta[1] += rate;
+                        }
+                    }
+                }
+
+                deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+                write(conn, deltas);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // =================== Queries ===================
+    // One value per night from 'from' to 'to' inclusive. hotelId 0 means the whole chain and a null
+    // roomType every type. Reads at most a few thousand rollup rows whatever the size of the chain.
+    public static Series load(Connection conn, int hotelId, String roomType, LocalDate from, LocalDate to)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(loadSql(hotelId > 0, roomType != null))) {
+            int index = 1;
+            if (hotelId > 0) {
+                pstmt.setInt(index++, hotelId);
+            }
+            pstmt.setDate(index++, Date.valueOf(from));
+            pstmt.setDate(index++, Date.valueOf(to));
+            if (roomType != null) {
+                pstmt.setString(index, roomType);
+            }
+
+            Series series = new Series(from, (int) (to.toEpochDay() - from.toEpochDay()) + 1,
+                    countRooms(conn, hotelId, roomType));
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                int day = (int) (rs.getDate("stay_date").toLocalDate().toEpochDay() - from.toEpochDay());
+                series.roomsSold[day] += rs.getInt("rooms_sold");
+                series.revenueCents[day] += rs.getBigDecimal("revenue").movePointRight(2).longValue();
+            }
+            return series;
+        }
+    }
+
+    // Binds the hotel id if oneHotel, then the first and last night, then the room type if oneType
+    static String loadSql(boolean oneHotel, boolean oneType) {
+        return (oneHotel
+                ? "SELECT stay_date, rooms_sold, revenue FROM daily_occupancy WHERE hotel_id = ? AND "
+                : "SELECT stay_date, rooms_sold, revenue FROM chain_daily_occupancy WHERE ")
+                + "stay_date BETWEEN ? AND ?"
+                + (oneType ? " AND room_type = ?" : "");
+    }
+
+    static String countRoomsSql(boolean oneHotel, boolean oneType) {
+        return "SELECT COUNT(*) FROM rooms WHERE 1 = 1"
+                + (oneHotel ? " AND hotel_id = ?" : "")
+                + (oneType ? " AND type = ?" : "");
+    }
+
+    // Today's rooms are taken as the supply for every night of the range
+    private static int countRooms(Connection conn, int hotelId, String roomType) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(countRoomsSql(hotelId > 0, roomType != null))) {
+            int index = 1;
+            if (hotelId > 0) {
+                pstmt.setInt(index++, hotelId);
+            }
+            if (roomType != null) {
+                pstmt.setString(index, roomType);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    // =================== Series ===================
+    // Nightly figures for a date range. ADR is revenue per room sold, RevPAR revenue per room in
+    // the inventory, so RevPAR = occupancy x ADR.
+    public static class Series {
+        private final LocalDate from;
+        private final int roomCount;
+        private final int[] roomsSold;
+        private final long[] revenueCents;
+
+        Series(LocalDate from, int days, int roomCount) {
+            this.from = from;
+            this.roomCount = roomCount;
+            this.roomsSold = new int[days];
+            this.revenueCents = new long[days];
+        }
+
+        public LocalDate getFrom() {
+            return from;
+        }
+
+        public int getDays() {
+            return roomsSold.length;
+        }
+
+        public int getRoomCount() {
+            return roomCount;
+        }
+
+        public int getRoomsSold(int day) {
+            return roomsSold[day];
+        }
+
+        public double getRevenue(int day) {
+            return revenueCents[day] / 100.0;
+        }
+
+        public double getOccupancy(int day) {
+            return roomCount == 0 ? 0 : (double) roomsSold[day] / roomCount;
+        }
+
+        public double getAdr(int day) {
+            return roomsSold[day] == 0 ? 0 : getRevenue(day) / roomsSold[day];
+        }
+
+        public double getRevPar(int day) {
+            return roomCount == 0 ? 0 : getRevenue(day) / roomCount;
+        }
+
+        public long getTotalRoomsSold() {
+            long total = 0;
+            for (int sold : roomsSold) {
+                total += sold;
+            }
+            return total;
+        }
+
+        public double getTotalRevenue() {
+            long total = 0;
+            for (long cents : revenueCents) {
+                total += cents;
+            }
+            return total / 100.0;
+        }
+
+        public double getTotalOccupancy() {
+            return roomCount == 0 ? 0 : (double) getTotalRoomsSold() / ((long) roomCount * getDays());
+        }
+
+        public double getTotalAdr() {
+            long sold = getTotalRoomsSold();
+            return sold == 0 ? 0 : getTotalRevenue() / sold;
+        }
+
+        public double getTotalRevPar() {
+            return roomCount == 0 ? 0 : getTotalRevenue() / ((long) roomCount * getDays());
+        }
+    }
+
+    // =================== Keys ===================
+    private static class Stay {
+        private final int roomNumber;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+
+        Stay(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+            this.roomNumber = roomNumber;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+    }
+
+    private static class RoomPrice {
+        private final int hotelId;
+        private final String type;
+        private final long rateCents;
+
+        RoomPrice(int hotelId, String type, long rateCents) {
+            this.hotelId = hotelId;
+            this.type = type;
+            this.rateCents = rateCents;
+        }
+    }
+
+    // Ordered like the daily_occupancy primary key; only used as a TreeMap key
+    private static class Cell implements Comparable<Cell> {
+        private final int hotelId;
+        private final int epochDay;
+        private final String roomType;
+
+        Cell(int hotelId, int epochDay, String roomType) {
+            this.hotelId = hotelId;
+            this.epochDay = epochDay;
+            this.roomType = roomType;
+        }
+
+        @Override
+        public int compareTo(Cell other) {
+            int c = Integer.compare(hotelId, other.hotelId);
+            if (c == 0) {
+                c = Integer.compare(epochDay, other.epochDay);
+            }
+            return c != 0 ? c : roomType.compareTo(other.roomType);
+        }
+    }
+
+    // Ordered like the chain_daily_occupancy primary key
+    private static class ChainCell implements Comparable<ChainCell> {
+        private final int epochDay;
+        private final String roomType;
+        private final int stripe;
+
+        ChainCell(int epochDay, String roomType, int stripe) {
+            this.epochDay = epochDay;
+            this.roomType = roomType;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public int compareTo(ChainCell other) {
+            int c = Integer.compare(epochDay, other.epochDay);
+            if (c == 0) {
+                c = roomType.compareTo(other.roomType);
+            }
+            return c != 0 ? c : Integer.compare(stripe, other.stripe);
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package com.hotelmanagement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local copy of the hotels, rooms, customers and current reservations that the application falls
+ * back to when the MySQL server can't be reached, so the front desk keeps working.
+ * <p>
+ * The copy is an H2 database under {@code hotel.offline.dir}. It is filled from the server at startup
+ * and then kept current from {@link ChangePoller}, re-reading each changed row. When
+ * {@link Database#getConnection} cannot reach the server it hands out connections to the copy
+ * instead, and the repositories and services work on it unchanged. Their writes append to the copy's
+ * own {@code change_log}, which thereby becomes the outbox of changes to send (see {@link OfflineSync}).
+ * <p>
+ * While offline the server is probed every few seconds. Once it answers, new connections go to it
+ * again, the outbox is replayed and the copy refilled. Listeners hear about both transitions on the
+ * thread that made them. Analytics is empty offline: the rollups are not copied.
+ */
+public class OfflineStore {
+
+    public interface Listener {
+        void wentOffline();
+
+        // replayed: rows sent to the server; conflicts: offline changes that were not applied
+        void backOnline(int replayed, List<String> conflicts);
+    }
+
+    private static final Path DIR = Paths.get(System.getProperty("hotel.offline.dir",
+            System.getProperty("user.home") + "/.hotel-management/replica"));
+    private static final String URL = "jdbc:h2:file:" + DIR.resolve("replica").toAbsolutePath()
+            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final long PROBE_MILLIS = 5000;
+    // Full refill, in case a change slipped past the poller
+    private static final long REFRESH_MILLIS = 60 * 60_000;
+    private static final int COPY_BATCH_SIZE = 1000;
+    private static final int MAX_KEYS_PER_QUERY = 1000;
+    // How long a reconnect waits for statements still running on the copy
+    private static final long DRAIN_MILLIS = 10_000;
+
+    // The tables copied, with their columns; reservations are copied from yesterday on
+    private static final CopiedTable[] COPIED_TABLES = {
+            new CopiedTable("hotels", "id", "id, name, description, address, rating", true),
+            new CopiedTable("rooms", "number", "number, type, available, hotel_id", false),
+            new CopiedTable("customers", "id", "id, name, email, phone, address", true),
+            new CopiedTable("reservations", "id", "id, customer_id, room_number, check_in, check_out", true),
+            new CopiedTable("room_rates", "hotel_id, room_type", "hotel_id, room_type, nightly_rate", false)
+    };
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Serializes writes to the copy from the refill and from the poller
+    private static final Object REPLICA_LOCK = new Object();
+    private static final AtomicInteger openConnections = new AtomicInteger();
+
+    private static ScheduledExecutorService scheduler;
+    private static volatile boolean offline = false;
+    // Set while the outbox is replayed: the copy is neither used nor updated, and a failure doesn't switch
+    private static volatile boolean syncing = false;
+    private static volatile boolean replicaReady = false;
+    private static boolean schemaReady = false;
+    private static long lastRefreshAt;
+
+    // Fills the copy in the background and starts following the server
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "offline-store");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(OfflineStore::tick, 0, PROBE_MILLIS, TimeUnit.MILLISECONDS);
+        ChangePoller.shared().addListener(OfflineStore::applyChanges);
+    }
+
+    public static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    public static boolean isOffline() {
+        return offline;
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // SQLState class 08 is "connection exception"; the MySQL driver uses 08S01 for a lost link
+    static boolean isConnectionFailure(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("08");
+    }
+
+    // =================== Switching ===================
+    // Called by Database when the pool could not hand out a connection. Switches to the copy if the
+    // server is really down, rather than the pool just being busy, and the copy has been filled.
+    static boolean goOffline(SQLException failure) {
+        if (offline) {
+            return true;
+        }
+        if (syncing || !isConnectionFailure(failure)) {
+            return false;
+        }
+        synchronized (OfflineStore.class) {
+            if (offline) {
+                return true;
+            }
+            if (scheduler == null || !hasReplica() || Database.isServerReachable()) {
+                return false;
+            }
+            System.err.println("Database unreachable, working offline: " + failure.getMessage());
+            offline = true;
+        }
+        for (Listener listener : listeners) {
+            listener.wentOffline();
+        }
+        return true;
+    }
+
+    private static void tick() {
+        try {
+            if (offline) {
+                if (Database.isServerReachable()) {
+                    reconnect();
+                }
+            } else if (System.currentTimeMillis() - lastRefreshAt > REFRESH_MILLIS) {
+                refresh();
+            }
+        } catch (SQLException e) {
+            System.err.println("Offline copy refresh failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            QueryMetrics.shared().recordFailure("Refresh offline copy", e);
+        }
+    }
+
+    private static void reconnect() {
+        syncing = true;
+        offline = false; // new connections go to the server from here on
+        awaitOpenConnections();
+        int replayed;
+        List<String> conflicts = new ArrayList<>();
+        try {
+            replayed = OfflineSync.replay(conflicts);
+            refresh();
+        } catch (SQLException e) {
+            // Down again, most likely; what was replayed has left the outbox and the rest waits
+            System.err.println("Offline sync failed: " + e.getMessage());
+            offline = true;
+            return;
+        } finally {
+            syncing = false;
+        }
+        AvailabilityEngine.invalidateShared();
+        ReferenceData.invalidateHotels();
+        for (Listener listener : listeners) {
+            listener.backOnline(replayed, conflicts);
+        }
+    }
+
+    private static void awaitOpenConnections() {
+        long deadline = System.currentTimeMillis() + DRAIN_MILLIS;
+        while (openConnections.get() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // =================== Connections ===================
+    // For the application while offline; counted so a reconnect can wait for them to finish
+    static Connection getConnection() throws SQLException {
+        Connection conn = openLocal();
+        openConnections.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new CountedConnection(conn));
+    }
+
+    // For this class and OfflineSync
+    static Connection openLocal() throws SQLException {
+        Connection conn = DriverManager.getConnection(URL, "sa", "");
+        ensureSchema(conn);
+        return conn;
+    }
+
+    private static synchronized void ensureSchema(Connection conn) throws SQLException {
+        if (schemaReady) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : schema().split(";")) {
+                if (!sql.isBlank()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+        schemaReady = true;
+    }
+
+    private static String schema() {
+        try (InputStream in = OfflineStore.class.getResourceAsStream("/offline-schema.sql")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+        } catch (IOException | NullPointerException e) {
+            throw new IllegalStateException("Cannot read offline-schema.sql", e);
+        }
+    }
+
+    private static boolean hasReplica() {
+        if (!replicaReady) {
+            try (Connection local = openLocal()) {
+                replicaReady = readState(local, "refreshed_at") > 0;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+        return replicaReady;
+    }
+
+    // The server change log version the copy has caught up to
+    static long replicaVersion(Connection local) throws SQLException {
+        return readState(local, "version");
+    }
+
+    private static long readState(Connection local, String name) throws SQLException {
+        try (PreparedStatement pstmt = local.prepareStatement(
+                "SELECT value_long FROM replica_state WHERE name = ?")) {
+            pstmt.setString(1, name);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static void writeState(Connection local, String name, long value) throws SQLException {
+        try (PreparedStatement pstmt = local.prepareStatement(
+                "MERGE INTO replica_state (name, value_long) KEY (name) VALUES (?, ?)")) {
+            pstmt.setString(1, name);
+            pstmt.setLong(2, value);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // =================== Filling the Copy ===================
+    // Copies every table from the server. Skipped while the outbox holds changes not yet replayed,
+    // which the copy's rows are the only record of.
+    static void refresh() throws SQLException {
+        synchronized (REPLICA_LOCK) {
+            try (Connection server = Database.getServerConnection();
+                 Connection local = openLocal()) {
+                if (hasPendingChanges(local)) {
+                    return;
+                }
+                // Read first: changes made during the copy are applied again by the poller, which is harmless
+                long version = currentServerVersion(server);
+                local.setAutoCommit(false);
+                try {
+                    for (CopiedTable table : COPIED_TABLES) {
+                        copy(server, local, table);
+                    }
+                    try (Statement stmt = local.createStatement()) {
+                        stmt.executeUpdate("DELETE FROM change_log");
+                        stmt.executeUpdate("DELETE FROM replica_id_map");
+                    }
+                    writeState(local, "version", version);
+                    writeState(local, "refreshed_at", System.currentTimeMillis());
+                    local.commit();
+                } catch (SQLException e) {
+                    local.rollback();
+                    throw e;
+                }
+                replicaReady = true;
+                lastRefreshAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private static void copy(Connection server, Connection local, CopiedTable table) throws SQLException {
+        try (Statement stmt = local.createStatement()) {
+            stmt.executeUpdate("DELETE FROM " + table.name);
+        }
+        boolean reservations = table.name.equals("reservations");
+        try (PreparedStatement select = server.prepareStatement("SELECT " + table.columns + " FROM " + table.name
+                + (reservations ? " WHERE check_out >= ?" : ""));
+             PreparedStatement insert = local.prepareStatement("INSERT INTO " + table.name + " ("
+                     + table.columns + ") VALUES (" + placeholders(table.columnCount()) + ")")) {
+            if (reservations) {
+                select.setDate(1, Date.valueOf(LocalDate.now().minusDays(1)));
+            }
+            select.setFetchSize(COPY_BATCH_SIZE);
+            ResultSet rs = select.executeQuery();
+            int batched = 0;
+            while (rs.next()) {
+                for (int i = 1; i <= table.columnCount(); i++) {
+                    insert.setObject(i, rs.getObject(i));
+                }
+                insert.addBatch();
+                if (++batched == COPY_BATCH_SIZE) {
+                    insert.executeBatch();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                insert.executeBatch();
+            }
+        }
+        // Rows created offline must not take ids the copy already holds
+        if (table.generatedKey) {
+            try (Statement stmt = local.createStatement()) {
+                ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + table.key + "), 0) + 1 FROM " + table.name);
+                rs.next();
+                stmt.execute("ALTER TABLE " + table.name + " ALTER COLUMN " + table.key
+                        + " RESTART WITH " + rs.getLong(1));
+            }
+        }
+    }
+
+    // ChangePoller listener: re-reads the rows other desks (and this one) wrote into the copy
+    static void applyChanges(List<ChangeLog.Change> changes) {
+        if (offline || syncing || !replicaReady) {
+            return;
+        }
+        Map<DataTable, Set<Long>> changedKeys = new EnumMap<>(DataTable.class);
+        long version = 0;
+        for (ChangeLog.Change change : changes) {
+            if (change.getOperation() == ChangeLog.RELOAD) {
+                lastRefreshAt = 0; // the next tick refills everything
+                return;
+            }
+            changedKeys.computeIfAbsent(change.getTable(), t -> new LinkedHashSet<>()).add(change.getKey());
+            version = Math.max(version, change.getVersion());
+        }
+
+        synchronized (REPLICA_LOCK) {
+            try (Connection server = Database.getServerConnection();
+                 Connection local = openLocal()) {
+                if (hasPendingChanges(local)) {
+                    return;
+                }
+                local.setAutoCommit(false);
+                try {
+                    for (Map.Entry<DataTable, Set<Long>> entry : changedKeys.entrySet()) {
+                        CopiedTable table = copiedTable(entry.getKey());
+                        List<Long> keys = new ArrayList<>(entry.getValue());
+                        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_QUERY) {
+                            copyRows(server, local, table, keys.subList(from,
+                                    Math.min(keys.size(), from + MAX_KEYS_PER_QUERY)));
+                        }
+                    }
+                    if (version > replicaVersion(local)) {
+                        writeState(local, "version", version);
+                    }
+                    local.commit();
+                } catch (SQLException e) {
+                    local.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                System.err.println("Offline copy update failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void copyRows(Connection server, Connection local, CopiedTable table, List<Long> keys)
+            throws SQLException {
+        Set<Long> missing = new LinkedHashSet<>(keys);
+        try (PreparedStatement select = server.prepareStatement("SELECT " + table.columns + " FROM " + table.name
+                + " WHERE " + table.key + " IN (" + placeholders(keys.size()) + ")");
+             PreparedStatement merge = local.prepareStatement("MERGE INTO " + table.name + " (" + table.columns
+                     + ") KEY (" + table.key + ") VALUES (" + placeholders(table.columnCount()) + ")")) {
+            for (int i = 0; i < keys.size(); i++) {
+                select.setLong(i + 1, keys.get(i));
+            }
+            ResultSet rs = select.executeQuery();
+            while (rs.next()) {
+                for (int i = 1; i <= table.columnCount(); i++) {
+                    merge.setObject(i, rs.getObject(i));
+                }
+                merge.addBatch();
+                missing.remove(rs.getLong(1));
+            }
+            merge.executeBatch();
+        }
+        try (PreparedStatement delete = local.prepareStatement(
+                "DELETE FROM " + table.name + " WHERE " + table.key + " = ?")) {
+            for (long key : missing) {
+                delete.setLong(1, key);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+        }
+    }
+
+    static boolean hasPendingChanges(Connection local) throws SQLException {
+        try (Statement stmt = local.createStatement()) {
+            return stmt.executeQuery("SELECT 1 FROM change_log LIMIT 1").next();
+        }
+    }
+
+    static long currentServerVersion(Connection server) throws SQLException {
+        SchemaMigrator.ensureMigrated();
+        try (PreparedStatement pstmt = server.prepareStatement("SELECT COALESCE(MAX(version), 0) FROM change_log")) {
+            ResultSet rs = pstmt.executeQuery();
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static CopiedTable copiedTable(DataTable table) {
+        for (CopiedTable copied : COPIED_TABLES) {
+            if (copied.name.equals(table.getTableName())) {
+                return copied;
+            }
+        }
+        throw new IllegalArgumentException("Not copied: " + table);
+    }
+
+    private static String placeholders(int count) {
+        return "?,".repeat(count - 1) + "?";
+    }
+
+    // =================== Helpers ===================
+    private static class CopiedTable {
+        final String name;
+        final String key;
+        final String columns;
+        // AUTO_INCREMENT key, restarted past the copied rows
+        final boolean generatedKey;
+
+        CopiedTable(String name, String key, String columns, boolean generatedKey) {
+            this.name = name;
+            this.key = key;
+            this.columns = columns;
+            this.generatedKey = generatedKey;
+        }
+
+        int columnCount() {
+            return columns.split(",").length;
+        }
+    }
+
+    // Counts the connection as open until its first close()
+    private static class CountedConnection implements InvocationHandler {
+        private final Connection delegate;
+        private boolean closed;
+
+        CountedConnection(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("close") && !closed) {
+                closed = true;
+                openConnections.decrementAndGet();
+            }
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
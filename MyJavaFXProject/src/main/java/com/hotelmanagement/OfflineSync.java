@@ -0,0 +1,373 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sends the changes made while offline (see {@link OfflineStore}) to the server.
+ * <p>
+ * The outbox is the local copy's {@code change_log}. Its entries are folded per row, and the row as
+ * it now stands in the copy is what gets sent: a row created offline is inserted, one changed is
+ * updated, one deleted is deleted, and one created and deleted again is dropped. Created rows get new
+ * ids on the server, so references to them from later rows (a room's hotel, a reservation's customer)
+ * are translated. Inserts and updates go parents first, deletes children first. Reservations go
+ * through {@link BookingService}, so an offline booking that now overlaps another desk's stay is refused.
+ * <p>
+ * A row another desk changed while we were offline, meaning the server's change log has an entry for
+ * it after the version the copy had reached, keeps the server's version and is reported as a
+ * conflict, as is a row the server refuses. Each row leaves the outbox as soon as it has been sent, so
+ * a replay cut short by the server going away again carries on from there next time. Changes older
+ * than the server's change log retention can't be checked and are sent as they are.
+ */
+public class OfflineSync {
+
+    private static final DataTable[] PARENTS_FIRST = {
+            DataTable.HOTELS, DataTable.ROOMS, DataTable.CUSTOMERS, DataTable.RESERVATIONS};
+
+    private static final HotelRepository HOTELS = new HotelRepository();
+    private static final RoomRepository ROOMS = new RoomRepository();
+    private static final CustomerRepository CUSTOMERS = new CustomerRepository();
+    private static final ReservationRepository RESERVATIONS = new ReservationRepository();
+
+    // The server change log versions other desks' changes fall between
+    private final long replicaVersion;
+    private final long replayStartVersion;
+    // Server keys of rows created offline, by table name and local key
+    private final Map<String, Long> serverKeys;
+    // Rows created offline that the server refused, which later rows must not refer to
+    private final Set<String> refused = new HashSet<>();
+    private final List<String> conflicts;
+
+    private OfflineSync(long replicaVersion, long replayStartVersion, Map<String, Long> serverKeys,
+            List<String> conflicts) {
+        this.replicaVersion = replicaVersion;
+        this.replayStartVersion = replayStartVersion;
+        this.serverKeys = serverKeys;
+        this.conflicts = conflicts;
+    }
+
+    // Returns the number of rows sent; conflicts gets a line for each change that was not applied.
+    // Throws only when the server can't be reached.
+    static int replay(List<String> conflicts) throws SQLException {
+        Map<DataTable, Map<Long, Boolean>> outbox;
+        OfflineSync sync;
+        try (Connection local = OfflineStore.openLocal()) {
+            outbox = readOutbox(local);
+            if (outbox.isEmpty()) {
+                clearReloads(local);
+                return 0;
+            }
+            long replayStart;
+            try (Connection server = Database.getServerConnection()) {
+                replayStart = OfflineStore.currentServerVersion(server);
+            }
+            sync = new OfflineSync(OfflineStore.replicaVersion(local), replayStart, readServerKeys(local), conflicts);
+        }
+
+        int sent = 0;
+        Map<DataTable, List<Long>> deleted = new EnumMap<>(DataTable.class);
+        for (DataTable table : PARENTS_FIRST) {
+            for (Map.Entry<Long, Boolean> row : outbox.getOrDefault(table, Map.of()).entrySet()) {
+                if (!sync.replayRow(table, row.getKey(), row.getValue())) {
+                    deleted.computeIfAbsent(table, t -> new ArrayList<>()).add(row.getKey());
+                }
+                sent++;
+            }
+        }
+        for (int i = PARENTS_FIRST.length - 1; i >= 0; i--) {
+            for (long key : deleted.getOrDefault(PARENTS_FIRST[i], List.of())) {
+                sync.replayDelete(PARENTS_FIRST[i], key, outbox.get(PARENTS_FIRST[i]).get(key));
+            }
+        }
+        try (Connection local = OfflineStore.openLocal()) {
+            clearReloads(local);
+        }
+        return sent - sync.conflicts.size();
+    }
+
+    // Rows changed offline per table in order of their first change, each with whether it was
+    // created offline. Reload entries come from the availability rollover, which the server runs itself.
+    private static Map<DataTable, Map<Long, Boolean>> readOutbox(Connection local) throws SQLException {
+        Map<DataTable, Map<Long, Boolean>> outbox = new EnumMap<>(DataTable.class);
+        try (PreparedStatement pstmt = local.prepareStatement("SELECT table_name, row_key, operation "
+                + "FROM change_log WHERE operation <> ? ORDER BY version")) {
+            pstmt.setString(1, String.valueOf(ChangeLog.RELOAD));
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                DataTable table = DataTable.forTableName(rs.getString("table_name"));
+                if (table != null) {
+                    outbox.computeIfAbsent(table, t -> new LinkedHashMap<>())
+                            .putIfAbsent(rs.getLong("row_key"), rs.getString("operation").charAt(0) == ChangeLog.INSERT);
+                }
+            }
+        }
+        return outbox;
+    }
+
+    private static Map<String, Long> readServerKeys(Connection local) throws SQLException {
+        Map<String, Long> keys = new HashMap<>();
+        try (Statement stmt = local.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT table_name, local_key, server_key FROM replica_id_map");
+            while (rs.next()) {
+                keys.put(rs.getString(1) + ":" + rs.getLong(2), rs.getLong(3));
+            }
+        }
+        return keys;
+    }
+
+    private static void clearReloads(Connection local) throws SQLException {
+        try (PreparedStatement pstmt = local.prepareStatement("DELETE FROM change_log WHERE operation = ?")) {
+            pstmt.setString(1, String.valueOf(ChangeLog.RELOAD));
+            pstmt.executeUpdate();
+        }
+    }
+
+    // =================== Rows ===================
+    // Sends a row that still exists in the copy; returns false, sending nothing, if it was deleted
+    private boolean replayRow(DataTable table, long key, boolean created) throws SQLException {
+        Object row;
+        try (Connection local = OfflineStore.openLocal()) {
+            row = switch (table) {
+                case HOTELS -> HOTELS.findById(local, (int) key);
+                case ROOMS -> ROOMS.findByNumber(local, (int) key);
+                case CUSTOMERS -> CUSTOMERS.findById(local, (int) key);
+                case RESERVATIONS -> RESERVATIONS.findById(local, (int) key);
+            };
+        }
+        if (row == null) {
+            return false;
+        }
+
+        String what = describe(table, key, row);
+        long serverKey = serverKey(table, key);
+        Long createdKey = null;
+        try {
+            if (created) {
+                refused.add(table.getTableName() + ":" + key); // until the insert succeeds
+                createdKey = insert(table, row);
+                refused.remove(table.getTableName() + ":" + key);
+            } else if (changedByOthers(table, serverKey)) {
+                conflicts.add(what + " was also changed at another desk; its version was kept");
+            } else {
+                update(table, serverKey, row, what);
+            }
+        } catch (SQLException e) {
+            if (OfflineStore.isConnectionFailure(e)) {
+                throw e;
+            }
+            conflicts.add(what + " could not be saved: " + e.getMessage());
+        } catch (BookingConflictException e) {
+            conflicts.add(what + " could not be saved: " + e.getMessage());
+        }
+        finish(table, key, createdKey);
+        return true;
+    }
+
+    private void replayDelete(DataTable table, long key, boolean created) throws SQLException {
+        if (created) {
+            finish(table, key, null); // created and deleted again while offline; the server never had it
+            return;
+        }
+        long serverKey = serverKey(table, key);
+        String what = describe(table, key, null);
+        try {
+            if (changedByOthers(table, serverKey)) {
+                conflicts.add(what + " was changed at another desk, so it was not deleted");
+            } else {
+                delete(table, serverKey);
+            }
+        } catch (SQLException e) {
+            if (OfflineStore.isConnectionFailure(e)) {
+                throw e;
+            }
+            conflicts.add(what + " could not be deleted: " + e.getMessage());
+        }
+        finish(table, key, null);
+    }
+
+    // Returns the key the server gave the new row
+    private long insert(DataTable table, Object row) throws SQLException, BookingConflictException {
+        switch (table) {
+            case HOTELS -> {
+                return Database.inServerTransaction(server -> HOTELS.insert(server, (Hotel) row)).getId();
+            }
+            case ROOMS -> {
+                Room room = withServerHotel((Room) row);
+                Database.inServerTransaction(server -> {
+                    ROOMS.insert(server, room);
+                    return room;
+                });
+                return room.getNumber();
+            }
+            case CUSTOMERS -> {
+                return Database.inServerTransaction(server -> CUSTOMERS.insert(server, (Customer) row)).getId();
+            }
+            default -> {
+                Reservation reservation = (Reservation) row;
+                // A room created offline and refused may exist on the server as another desk's room
+                return BookingService.book((int) referencedKey(DataTable.CUSTOMERS, reservation.getCustomerId()),
+                        (int) referencedKey(DataTable.ROOMS, reservation.getRoomNumber()),
+                        reservation.getCheckIn(), reservation.getCheckOut());
+            }
+        }
+    }
+
+    private void update(DataTable table, long serverKey, Object row, String what)
+            throws SQLException, BookingConflictException {
+        int id = (int) serverKey;
+        switch (table) {
+            case HOTELS -> {
+                Hotel hotel = (Hotel) row;
+                Database.inServerTransaction(server -> {
+                    HOTELS.update(server, new Hotel(id, hotel.getName(), hotel.getDescription(), hotel.getAddress(),
+                            hotel.getRating()));
+                    return hotel;
+                });
+            }
+            case ROOMS -> {
+                Room room = withServerHotel((Room) row);
+                Database.inServerTransaction(server -> {
+                    Room current = ROOMS.findByNumber(server, id);
+                    if (current == null) {
+                        conflicts.add(what + " was deleted at another desk");
+                    } else if (current.getHotelId() != room.getHotelId() || !current.getType().equals(room.getType())) {
+                        ROOMS.update(server, room);
+                    }
+                    // Otherwise only the availability flag differs, which follows the server's reservations
+                    return current;
+                });
+            }
+            case CUSTOMERS -> {
+                Customer customer = (Customer) row;
+                Database.inServerTransaction(server -> {
+                    CUSTOMERS.update(server, new Customer(id, customer.getName(), customer.getEmail(),
+                            customer.getPhone(), customer.getAddress()));
+                    return customer;
+                });
+            }
+            default -> {
+                Reservation reservation = (Reservation) row;
+                Reservation current;
+                try (Connection server = Database.getServerConnection()) {
+                    current = RESERVATIONS.findById(server, id);
+                }
+                if (current == null) {
+                    conflicts.add(what + " was cancelled at another desk");
+                } else if (current.getCheckInDay() != reservation.getCheckInDay()
+                        || current.getCheckOutDay() != reservation.getCheckOutDay()) {
+                    BookingService.reschedule(id, current.getRoomNumber(), reservation.getCheckIn(),
+                            reservation.getCheckOut());
+                }
+            }
+        }
+    }
+
+    private void delete(DataTable table, long serverKey) throws SQLException {
+        int id = (int) serverKey;
+        if (table == DataTable.RESERVATIONS) {
+            Reservation current;
+            try (Connection server = Database.getServerConnection()) {
+                current = RESERVATIONS.findById(server, id);
+            }
+            if (current != null) {
+                BookingService.cancel(id, current.getRoomNumber());
+            }
+            return;
+        }
+        Database.inServerTransaction(server -> {
+            switch (table) {
+                case HOTELS -> HOTELS.delete(server, id);
+                case ROOMS -> ROOMS.delete(server, id);
+                default -> CUSTOMERS.delete(server, id);
+            }
+            return table;
+        });
+    }
+
+    // Takes the row out of the outbox, remembering the server key of a row created offline
+    private void finish(DataTable table, long key, Long createdKey) throws SQLException {
+        try (Connection local = OfflineStore.openLocal()) {
+            local.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = local.prepareStatement(
+                        "DELETE FROM change_log WHERE table_name = ? AND row_key = ?")) {
+                    pstmt.setString(1, table.getTableName());
+                    pstmt.setLong(2, key);
+                    pstmt.executeUpdate();
+                }
+                if (createdKey != null) {
+                    try (PreparedStatement pstmt = local.prepareStatement(
+                            "INSERT INTO replica_id_map (table_name, local_key, server_key) VALUES (?, ?, ?)")) {
+                        pstmt.setString(1, table.getTableName());
+                        pstmt.setLong(2, key);
+                        pstmt.setLong(3, createdKey);
+                        pstmt.executeUpdate();
+                    }
+                    serverKeys.put(table.getTableName() + ":" + key, createdKey);
+                }
+                local.commit();
+            } catch (SQLException e) {
+                local.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // =================== Helpers ===================
+    private boolean changedByOthers(DataTable table, long serverKey) throws SQLException {
+        try (Connection server = Database.getServerConnection();
+             PreparedStatement pstmt = server.prepareStatement("SELECT 1 FROM change_log "
+                     + "WHERE version > ? AND version <= ? AND table_name = ? AND row_key = ? LIMIT 1")) {
+            pstmt.setLong(1, replicaVersion);
+            pstmt.setLong(2, replayStartVersion);
+            pstmt.setString(3, table.getTableName());
+            pstmt.setLong(4, serverKey);
+            return pstmt.executeQuery().next();
+        }
+    }
+
+    private long serverKey(DataTable table, long localKey) {
+        return serverKeys.getOrDefault(table.getTableName() + ":" + localKey, localKey);
+    }
+
+    // A local key might belong to an unrelated row on the server if its own row was never sent
+    private long referencedKey(DataTable table, long localKey) throws SQLException {
+        if (refused.contains(table.getTableName() + ":" + localKey)) {
+            throw new SQLException(describe(table, localKey, null) + ", which it refers to, was not saved");
+        }
+        return serverKey(table, localKey);
+    }
+
+    private Room withServerHotel(Room room) throws SQLException {
+        return new Room(room.getNumber(), room.getType(), room.getAvailable(),
+                (int) referencedKey(DataTable.HOTELS, room.getHotelId()));
+    }
+
+    private static String describe(DataTable table, long key, Object row) {
+        if (row instanceof Hotel hotel) {
+            return "Hotel '" + hotel.getName() + "'";
+        } else if (row instanceof Customer customer) {
+            return "Customer '" + customer.getName() + "'";
+        } else if (row instanceof Reservation reservation) {
+            return "Reservation of room " + reservation.getRoomNumber() + " from " + reservation.getCheckIn()
+                    + " to " + reservation.getCheckOut();
+        }
+        return switch (table) {
+            case HOTELS -> "Hotel #" + key;
+            case ROOMS -> "Room " + key;
+            case CUSTOMERS -> "Customer #" + key;
+            case RESERVATIONS -> "Reservation #" + key;
+        };
+    }
+}
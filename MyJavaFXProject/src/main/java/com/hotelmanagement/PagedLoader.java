@@ -0,0 +1,373 @@
+package com.hotelmanagement;
+
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keyset-paginated loader that keeps a bounded window of rows in an ObservableList.
+ * <p>
+ * Rows are fetched a page at a time ordered by their key ({@code WHERE key > ? ORDER BY key LIMIT ?}),
+ * so fetching a page deep into a large table costs the same as the first one. When the attached
+ * TableView scrolls within {@code prefetchRows} of either edge of the window the next page in that
+ * direction is fetched in the background. At most {@code maxPagesInMemory} pages are held in the
+ * list; pages pushed out of the window go into a small LRU cache so scrolling back does not need a
+ * round trip. Memory therefore stays bounded no matter how large the table is.
+ * <p>
+ * All methods must be called on the FX thread.
+ */
+public class PagedLoader<T> {
+
+    public interface PageQuery<T> {
+        // forward: rows with key > {@code key} ascending; backward: rows with key < {@code key} descending
+        List<T> fetch(Connection conn, long key, boolean forward, int limit) throws SQLException;
+    }
+
+    // Seek past the last key instead of OFFSET, so deep pages stay cheap; binds the key, then the limit
+    static String keysetClause(String keyColumn, boolean forward) {
+        return forward
+                ? "WHERE " + keyColumn + " > ? ORDER BY " + keyColumn + " LIMIT ?"
+                : "WHERE " + keyColumn + " < ? ORDER BY " + keyColumn + " DESC LIMIT ?";
+    }
+
+    private final String name;
+    private final ObservableList<T> data;
+    private final PageQuery<T> query;
+    private final ToLongFunction<T> keyOf;
+    private final int pageSize;
+    private final int prefetchRows;
+    private final int maxPagesInMemory;
+
+    // Rows per page currently in the window, first page first
+    private final List<Integer> pageSizes = new ArrayList<>();
+    // Pages dropped from the window, keyed by the boundary key they were fetched from
+    private final PageCache<T> pagesBefore;
+    private final PageCache<T> pagesAfter;
+
+    private boolean hasMoreBefore = false;
+    private boolean hasMoreAfter = false;
+    private Task<?> pending;
+    private Consumer<Throwable> onPageFailure = e -> { };
+    private TableView<T> table;
+
+    // name says what is loaded, e.g. "hotels", in the diagnostics panel
+    public PagedLoader(String name, ObservableList<T> data, PageQuery<T> query, ToLongFunction<T> keyOf,
+            int pageSize, int prefetchRows, int maxPagesInMemory, int cachedPages) {
+        this.name = name;
+        this.data = data;
+        this.query = query;
+        this.keyOf = keyOf;
+        this.pageSize = pageSize;
+        this.prefetchRows = prefetchRows;
+        this.maxPagesInMemory = maxPagesInMemory;
+        this.pagesBefore = new PageCache<>(cachedPages);
+        this.pagesAfter = new PageCache<>(cachedPages);
+    }
+
+    // Called when fetching a page while scrolling fails; the rows already loaded stay, and the
+    // next scroll tries again. Failures of reset go to the callback passed to it instead. Either way
+    // the failure is in QueryMetrics' failure log first.
+    public void setOnPageFailure(Consumer<Throwable> onPageFailure) {
+        this.onPageFailure = onPageFailure;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ObservableList<T> getData() {
+        return data;
+    }
+
+    // True when the window holds every row of the table
+    public boolean isComplete() {
+        return !hasMoreBefore && !hasMoreAfter;
+    }
+
+    // =================== Loading ===================
+    public Task<List<T>> reset(Runnable onLoaded, Consumer<Throwable> onFailure) {
+        cancel();
+        invalidateCache();
+        Task<List<T>> task = DbExecutor.submit("Load " + name, () -> fetch(Long.MIN_VALUE, true), rows -> {
+            pending = null;
+            long start = System.nanoTime();
+            data.setAll(rows);
+            pageSizes.clear();
+            pageSizes.add(rows.size());
+            hasMoreBefore = false;
+            hasMoreAfter = rows.size() == pageSize;
+            QueryMetrics.shared().record(QueryMetrics.Phase.REFRESH, System.nanoTime() - start);
+            onLoaded.run();
+        }, e -> {
+            pending = null;
+            failed(e, onFailure);
+        });
+        pending = task;
+        return task;
+    }
+
+    public void cancel() {
+        if (pending != null) {
+            pending.cancel();
+            pending = null;
+        }
+    }
+
+    private void loadNext() {
+        if (pending != null || !hasMoreAfter || data.isEmpty()) {
+            return;
+        }
+        long key = keyOf.applyAsLong(data.get(data.size() - 1));
+        List<T> cached = pagesAfter.remove(key);
+        if (cached != null) {
+            appendPage(cached);
+            return;
+        }
+        pending = DbExecutor.submit("Load " + name, () -> fetch(key, true), rows -> {
+            pending = null;
+            appendPage(rows);
+        }, e -> {
+            pending = null;
+            failed(e, onPageFailure);
+        });
+    }
+
+    private void loadPrevious() {
+        if (pending != null || !hasMoreBefore || data.isEmpty()) {
+            return;
+        }
+        long key = keyOf.applyAsLong(data.get(0));
+        List<T> cached = pagesBefore.remove(key);
+        if (cached != null) {
+            prependPage(cached);
+            return;
+        }
+        pending = DbExecutor.submit("Load " + name, () -> {
+            List<T> rows = fetch(key, false);
+            Collections.reverse(rows);
+            return rows;
+        }, rows -> {
+            pending = null;
+            prependPage(rows);
+        }, e -> {
+            pending = null;
+            failed(e, onPageFailure);
+        });
+    }
+
+    private void failed(Throwable e, Consumer<Throwable> handler) {
+        QueryMetrics.shared().recordFailure("Load " + name, e);
+        handler.accept(e);
+    }
+
+    private List<T> fetch(long key, boolean forward) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            return query.fetch(conn, key, forward, pageSize);
+        }
+    }
+
+    private void appendPage(List<T> rows) {
+        hasMoreAfter = rows.size() == pageSize;
+        if (rows.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        T anchor = firstVisibleRow();
+        data.addAll(rows);
+        pageSizes.add(rows.size());
+        if (pageSizes.size() > maxPagesInMemory) {
+            int dropped = pageSizes.remove(0);
+            List<T> page = new ArrayList<>(data.subList(0, dropped));
+            data.remove(0, dropped);
+            if (!data.isEmpty()) {
+                pagesBefore.put(keyOf.applyAsLong(data.get(0)), page);
+            }
+            hasMoreBefore = true;
+        }
+        windowChanged(anchor, start);
+    }
+
+    private void prependPage(List<T> rows) {
+        hasMoreBefore = rows.size() == pageSize;
+        if (rows.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        T anchor = firstVisibleRow();
+        data.addAll(0, rows);
+        pageSizes.add(0, rows.size());
+        if (pageSizes.size() > maxPagesInMemory) {
+            int dropped = pageSizes.remove(pageSizes.size() - 1);
+            int from = data.size() - dropped;
+            List<T> page = new ArrayList<>(data.subList(from, data.size()));
+            data.remove(from, data.size());
+            if (!data.isEmpty()) {
+                pagesAfter.put(keyOf.applyAsLong(data.get(data.size() - 1)), page);
+            }
+            hasMoreAfter = true;
+        }
+        windowChanged(anchor, start);
+    }
+
+    // start is when the FX thread began updating the window, for the table refresh time
+    private void windowChanged(T anchor, long start) {
+        // Keep the row the user was looking at in place after rows were added or dropped above it
+        if (table != null && anchor != null) {
+            int index = table.getItems().indexOf(anchor);
+            if (index >= 0) {
+                table.scrollTo(index);
+            }
+        }
+        QueryMetrics.shared().record(QueryMetrics.Phase.REFRESH, System.nanoTime() - start);
+    }
+
+    // =================== Local Patches ===================
+    // Inserts a freshly written row at its key position if that position is inside the window
+    public boolean insert(T row) {
+        long key = keyOf.applyAsLong(row);
+        invalidateCache();
+        if (!data.isEmpty()) {
+            boolean beforeWindow = key < keyOf.applyAsLong(data.get(0));
+            boolean afterWindow = key > keyOf.applyAsLong(data.get(data.size() - 1));
+            if ((beforeWindow && hasMoreBefore) || (afterWindow && hasMoreAfter)) {
+                return false; // it will be fetched with its page
+            }
+        }
+
+        int index = insertionPoint(key);
+        data.add(index, row);
+        adjustPageSize(index, 1);
+        return true;
+    }
+
+    public boolean remove(T row) {
+        invalidateCache();
+        int index = data.indexOf(row);
+        if (index < 0) {
+            return false;
+        }
+        data.remove(index);
+        adjustPageSize(index, -1);
+        return true;
+    }
+
+    // Applies a change made elsewhere: the row's current state, or null if it was deleted
+    public void apply(long key, T row) {
+        invalidateCache();
+        int index = insertionPoint(key);
+        boolean present = index < data.size() && keyOf.applyAsLong(data.get(index)) == key;
+        if (present && row != null) {
+            data.set(index, row);
+        } else if (present) {
+            data.remove(index);
+            adjustPageSize(index, -1);
+        } else if (row != null) {
+            insert(row);
+        }
+    }
+
+    // Pages cached outside the window may hold stale copies of written rows
+    public void invalidateCache() {
+        pagesBefore.clear();
+        pagesAfter.clear();
+    }
+
+    private int insertionPoint(long key) {
+        int low = 0;
+        int high = data.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyOf.applyAsLong(data.get(mid)) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Keeps page boundaries right so that dropping a page later removes exactly that page's rows
+    private void adjustPageSize(int rowIndex, int delta) {
+        if (pageSizes.isEmpty()) {
+            pageSizes.add(0);
+        }
+        int start = 0;
+        for (int i = 0; i < pageSizes.size(); i++) {
+            int size = pageSizes.get(i);
+            if (rowIndex < start + size || i == pageSizes.size() - 1) {
+                pageSizes.set(i, Math.max(0, size + delta));
+                return;
+            }
+            start += size;
+        }
+    }
+
+    // =================== Scrolling ===================
+    public void attach(TableView<T> table) {
+        this.table = table;
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) {
+                VirtualFlow<?> flow = findFlow(table);
+                if (flow != null) {
+                    flow.positionProperty().addListener((o, oldPos, newPos) -> onScroll(flow));
+                }
+            }
+        });
+    }
+
+    private void onScroll(VirtualFlow<?> flow) {
+        IndexedCell<?> first = flow.getFirstVisibleCell();
+        IndexedCell<?> last = flow.getLastVisibleCell();
+        if (first == null || last == null) {
+            return;
+        }
+        int visibleRows = table.getItems().size();
+        if (last.getIndex() >= visibleRows - 1 - prefetchRows) {
+            loadNext();
+        } else if (first.getIndex() <= prefetchRows) {
+            loadPrevious();
+        }
+    }
+
+    private T firstVisibleRow() {
+        VirtualFlow<?> flow = table != null ? findFlow(table) : null;
+        IndexedCell<?> first = flow != null ? flow.getFirstVisibleCell() : null;
+        if (first == null || first.getIndex() < 0 || first.getIndex() >= table.getItems().size()) {
+            return null;
+        }
+        return table.getItems().get(first.getIndex());
+    }
+
+    private VirtualFlow<?> findFlow(TableView<T> table) {
+        Node node = table.lookup(".virtual-flow");
+        return node instanceof VirtualFlow ? (VirtualFlow<?>) node : null;
+    }
+
+    // =================== Page Cache ===================
+    private static class PageCache<T> extends LinkedHashMap<Long, List<T>> {
+        private final int capacity;
+
+        PageCache(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, List<T>> eldest) {
+            return size() > capacity;
+        }
+    }
+}
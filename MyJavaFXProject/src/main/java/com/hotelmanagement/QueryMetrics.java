@@ -0,0 +1,512 @@
+package com.hotelmanagement;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Latency histograms for every step of a database round trip, a slow-query log and the most recent
+ * failures, for the diagnostics panel and its JSON snapshot.
+ * <p>
+ * {@link Database} hands out connections wrapped by {@link InstrumentedConnection}, which reports
+ * connection acquire, prepare, execute and row mapping (reading a result set to the end) times here.
+ * {@link PagedLoader} reports how long the FX thread spends putting a page into its table, and
+ * {@link DbExecutor} the whole of each named background action. Statements are also timed one by one,
+ * keyed by their SQL. Any execute slower than {@code hotel.diagnostics.slowMillis} (default
+ * {@value #DEFAULT_SLOW_MILLIS} ms) goes to the slow-query log with its bind parameters and the action
+ * that ran it. Failed statements go to the failure log, and so does background work that failed with
+ * nobody waiting on it, under the action's name. Everything is kept in memory since the start of the run or the last {@link #reset}.
+ * <p>
+ * Recording is lock-free apart from the two short logs, so it is cheap enough to leave on; start
+ * with {@code -Dhotel.diagnostics=false} to hand out unwrapped connections instead.
+ */
+public class QueryMetrics {
+
+    public enum Phase {
+        ACQUIRE("Connection acquire"),
+        PREPARE("Prepare"),
+        EXECUTE("Execute"),
+        MAP("Row mapping"),
+        REFRESH("Table refresh");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("hotel.diagnostics", "true"));
+    private static final long DEFAULT_SLOW_MILLIS = 250;
+    private static final long SLOW_NANOS = Long.getLong("hotel.diagnostics.slowMillis", DEFAULT_SLOW_MILLIS) * 1_000_000;
+    private static final int LOG_SIZE = 100;
+    // Statements with SQL built at run time (IN lists) could otherwise grow the map without end
+    private static final int MAX_STATEMENTS = 200;
+    private static final String OTHER_STATEMENTS = "(other statements)";
+    private static final String NO_ACTION = "(background)";
+
+    private static final QueryMetrics SHARED = new QueryMetrics();
+    private static final ThreadLocal<String> ACTION = new ThreadLocal<>();
+
+    private final Map<Phase, LatencyHistogram> phases = new EnumMap<>(Phase.class);
+    private final Map<String, LatencyHistogram> statements = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> actions = new ConcurrentHashMap<>();
+    private final Deque<LogEntry> slowQueries = new ArrayDeque<>();
+    private final Deque<LogEntry> failures = new ArrayDeque<>();
+    private final AtomicLong slowQueryCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private volatile long since = System.currentTimeMillis();
+
+    private QueryMetrics() {
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public static QueryMetrics shared() {
+        return SHARED;
+    }
+
+    // =================== Recording ===================
+    public void record(Phase phase, long nanos) {
+        phases.get(phase).record(nanos);
+    }
+
+    // params is only asked for when the statement turns out to be slow
+    void recordExecute(String sql, Supplier<String> params, long nanos) {
+        record(Phase.EXECUTE, nanos);
+        statementHistogram(sql).record(nanos);
+        if (nanos >= SLOW_NANOS) {
+            LogEntry entry = new LogEntry(System.currentTimeMillis(), currentAction(), sql, params.get(), nanos, null);
+            slowQueryCount.incrementAndGet();
+            append(slowQueries, entry);
+            System.err.println("Slow query: " + entry);
+        }
+    }
+
+    void recordFailure(String sql, String params, long nanos, SQLException e) {
+        String error = e.getSQLState() != null ? e.getSQLState() + " " + e.getMessage() : e.getMessage();
+        failureCount.incrementAndGet();
+        append(failures, new LogEntry(System.currentTimeMillis(), currentAction(), sql, params, nanos, error));
+    }
+
+    // Background work that failed as a whole, e.g. a reload or a scheduled job; it has no statement of
+    // its own, though a failed statement in it is logged as well
+    public void recordFailure(String action, Throwable e) {
+        String error = e instanceof SQLException sql && sql.getSQLState() != null
+                ? sql.getSQLState() + " " + e.getMessage() : e.toString();
+        LogEntry entry = new LogEntry(System.currentTimeMillis(), action, null, null, 0, error);
+        failureCount.incrementAndGet();
+        append(failures, entry);
+        System.err.println("Failed: " + entry);
+    }
+
+    private LatencyHistogram statementHistogram(String sql) {
+        LatencyHistogram histogram = statements.get(sql);
+        if (histogram == null) {
+            String key = statements.size() < MAX_STATEMENTS ? sql : OTHER_STATEMENTS;
+            histogram = statements.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    private static void append(Deque<LogEntry> log, LogEntry entry) {
+        synchronized (log) {
+            if (log.size() == LOG_SIZE) {
+                log.removeFirst();
+            }
+            log.addLast(entry);
+        }
+    }
+
+    // Runs background work as the named action, so its statements are logged under that name
+    <T> T runAction(String action, Callable<T> work) throws Exception {
+        String outer = ACTION.get();
+        ACTION.set(action);
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            actions.computeIfAbsent(action, k -> new LatencyHistogram()).record(System.nanoTime() - start);
+            ACTION.set(outer);
+        }
+    }
+
+    private static String currentAction() {
+        String action = ACTION.get();
+        return action != null ? action : NO_ACTION;
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : phases.values()) {
+            histogram.reset();
+        }
+        statements.clear();
+        actions.clear();
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+        synchronized (failures) {
+            failures.clear();
+        }
+        slowQueryCount.set(0);
+        failureCount.set(0);
+        since = System.currentTimeMillis();
+    }
+
+    // =================== Reading ===================
+    public List<Stats> getPhaseStats() {
+        List<Stats> stats = new ArrayList<>();
+        for (Map.Entry<Phase, LatencyHistogram> entry : phases.entrySet()) {
+            stats.add(entry.getValue().stats(entry.getKey().toString()));
+        }
+        return stats;
+    }
+
+    // Slowest in total first, which is where time goes
+    public List<Stats> getActionStats() {
+        return sortedStats(actions);
+    }
+
+    public List<Stats> getStatementStats() {
+        return sortedStats(statements);
+    }
+
+    private static List<Stats> sortedStats(Map<String, LatencyHistogram> histograms) {
+        List<Stats> stats = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            stats.add(entry.getValue().stats(entry.getKey()));
+        }
+        stats.sort(Comparator.comparingDouble(Stats::getTotalMillis).reversed());
+        return stats;
+    }
+
+    // Newest first
+    public List<LogEntry> getSlowQueries() {
+        return newestFirst(slowQueries);
+    }
+
+    public List<LogEntry> getFailures() {
+        return newestFirst(failures);
+    }
+
+    private static List<LogEntry> newestFirst(Deque<LogEntry> log) {
+        synchronized (log) {
+            List<LogEntry> entries = new ArrayList<>(log);
+            Collections.reverse(entries);
+            return entries;
+        }
+    }
+
+    public long getSlowQueryCount() {
+        return slowQueryCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public long getSlowQueryMillis() {
+        return SLOW_NANOS / 1_000_000;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    // =================== JSON Snapshot ===================
+    public String toJson() {
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\n  \"takenAt\": ").append(quote(Instant.now().toString()))
+                .append(",\n  \"since\": ").append(quote(Instant.ofEpochMilli(since).toString()))
+                .append(",\n  \"slowQueryMillis\": ").append(getSlowQueryMillis())
+                .append(",\n  \"pool\": ").append(quote(Database.getPool().toString()))
+                .append(",\n  \"schemaWarnings\": [");
+        List<String> warnings = SchemaCheck.getWarnings();
+        for (int i = 0; i < warnings.size(); i++) {
+            json.append(i > 0 ? ", " : "").append(quote(warnings.get(i)));
+        }
+        json.append("],\n  \"phases\": ");
+        appendStats(json, getPhaseStats());
+        json.append(",\n  \"actions\": ");
+        appendStats(json, getActionStats());
+        json.append(",\n  \"statements\": ");
+        appendStats(json, getStatementStats());
+        json.append(",\n  \"slowQueryCount\": ").append(getSlowQueryCount())
+                .append(",\n  \"slowQueries\": ");
+        appendLog(json, getSlowQueries());
+        json.append(",\n  \"failureCount\": ").append(getFailureCount())
+                .append(",\n  \"failures\": ");
+        appendLog(json, getFailures());
+        return json.append("\n}\n").toString();
+    }
+
+    public void dump(Path file) throws IOException {
+        Files.writeString(file, toJson(), StandardCharsets.UTF_8);
+    }
+
+    private static void appendStats(StringBuilder json, List<Stats> stats) {
+        json.append('[');
+        for (int i = 0; i < stats.size(); i++) {
+            Stats s = stats.get(i);
+            json.append(i > 0 ? "," : "").append("\n    {\"name\": ").append(quote(s.name))
+                    .append(", \"count\": ").append(s.count)
+                    .append(String.format(", \"meanMillis\": %.3f, \"p50Millis\": %.3f, \"p95Millis\": %.3f, "
+                            + "\"p99Millis\": %.3f, \"maxMillis\": %.3f, \"totalMillis\": %.3f}",
+                            s.meanMillis, s.p50Millis, s.p95Millis, s.p99Millis, s.maxMillis, s.totalMillis));
+        }
+        json.append(stats.isEmpty() ? "]" : "\n  ]");
+    }
+
+    private static void appendLog(StringBuilder json, List<LogEntry> entries) {
+        json.append('[');
+        for (int i = 0; i < entries.size(); i++) {
+            LogEntry e = entries.get(i);
+            json.append(i > 0 ? "," : "").append("\n    {\"at\": ").append(quote(Instant.ofEpochMilli(e.at).toString()))
+                    .append(", \"action\": ").append(quote(e.action))
+                    .append(String.format(", \"millis\": %.3f", e.getMillis()))
+                    .append(", \"sql\": ").append(quote(e.sql))
+                    .append(", \"params\": ").append(quote(e.params));
+            if (e.error != null) {
+                json.append(", \"error\": ").append(quote(e.error));
+            }
+            json.append('}');
+        }
+        json.append(entries.isEmpty() ? "]" : "\n  ]");
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    // =================== Histogram ===================
+    // Microsecond values in log-linear buckets, the layout HdrHistogram uses: each power of two is
+    // split into SUB_BUCKETS equal buckets, so a percentile is off by at most 1/SUB_BUCKETS (about 3%)
+    // from 1 µs up to MAX_MICROS, in a fixed 8 KB whatever the number of values recorded.
+    static class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final long MAX_MICROS = (1L << 36) - 1; // about 19 hours
+        private static final int BUCKETS = bucketOf(MAX_MICROS) + 1;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = Math.min(Math.max(nanos / 1000, 0), MAX_MICROS);
+            counts.incrementAndGet(bucketOf(micros));
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        static int bucketOf(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int shift = exponent - SUB_BUCKET_BITS;
+            return SUB_BUCKETS * (shift + 1) + (int) (micros >> shift) - SUB_BUCKETS;
+        }
+
+        // Highest value that falls in the bucket, so percentiles never understate
+        static long highestInBucket(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lowest + (1L << shift) - 1;
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            totalNanos.reset();
+            maxNanos.set(0);
+        }
+
+        Stats stats(String name) {
+            long[] snapshot = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                count += snapshot[i];
+            }
+            double maxMillis = maxNanos.get() / 1e6;
+            return new Stats(name, count, count == 0 ? 0 : totalNanos.sum() / 1e6 / count,
+                    Math.min(percentile(snapshot, count, 50), maxMillis),
+                    Math.min(percentile(snapshot, count, 95), maxMillis),
+                    Math.min(percentile(snapshot, count, 99), maxMillis),
+                    maxMillis, totalNanos.sum() / 1e6);
+        }
+
+        private static double percentile(long[] snapshot, long count, double percent) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percent / 100));
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return highestInBucket(i) / 1000.0;
+                }
+            }
+            return highestInBucket(snapshot.length - 1) / 1000.0;
+        }
+    }
+
+    // =================== Stats ===================
+    public static class Stats {
+        private final String name;
+        private final long count;
+        private final double meanMillis;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+        private final double totalMillis;
+
+        Stats(String name, long count, double meanMillis, double p50Millis, double p95Millis, double p99Millis,
+                double maxMillis, double totalMillis) {
+            this.name = name;
+            this.count = count;
+            this.meanMillis = meanMillis;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.p99Millis = p99Millis;
+            this.maxMillis = maxMillis;
+            this.totalMillis = totalMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP95Millis() {
+            return p95Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public double getTotalMillis() {
+            return totalMillis;
+        }
+    }
+
+    // =================== Log Entry ===================
+    // A slow or failed statement, or failed background work with no sql; error is null for a slow one
+    public static class LogEntry {
+        private final long at;
+        private final String action;
+        private final String sql;
+        private final String params;
+        private final long nanos;
+        private final String error;
+
+        LogEntry(long at, String action, String sql, String params, long nanos, String error) {
+            this.at = at;
+            this.action = action;
+            this.sql = sql;
+            this.params = params;
+            this.nanos = nanos;
+            this.error = error;
+        }
+
+        public long getAt() {
+            return at;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getParams() {
+            return params;
+        }
+
+        public double getMillis() {
+            return nanos / 1e6;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            if (sql == null) {
+                return action + " failed: " + error;
+            }
+            return String.format("%.1f ms in %s: %s %s%s", getMillis(), action, sql, params,
+                    error != null ? " failed: " + error : "");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application-wide cache of the small lookup lists behind the dialogs' combo boxes, as the
+ * "id - name" labels they display.
+ * <p>
+ * A list is loaded on first use and then served from memory. Once it is older than its TTL the
+ * cached copy is still returned and a reload runs in the background, so opening a dialog never
+ * waits on MySQL after the first time. Dashboard invalidates a list after every write to its
+ * table; the next caller then gets fresh data. Rooms are not cached here: the room pickers go
+ * through {@link AvailabilityEngine}, which keeps its own copy. Neither are customers, who are
+ * too many to list and are searched as the user types in a {@link CustomerPicker}.
+ * <p>
+ * Thread-safe.
+ */
+public class ReferenceData {
+
+    private static final long TTL_MILLIS = 5 * 60_000;
+
+    private static final Entry HOTELS = new Entry("SELECT id, name FROM hotels ORDER BY name");
+
+    // May block on MySQL when the list isn't cached yet
+    public static List<String> hotels() throws SQLException {
+        return HOTELS.get();
+    }
+
+    public static void invalidateHotels() {
+        HOTELS.invalidate();
+    }
+
+    // Loads every list in the background so the first dialog opens instantly too
+    public static void preload() {
+        HOTELS.reloadInBackground();
+    }
+
+    private static class Entry {
+        private final String sql;
+        private List<String> value;
+        private long loadedAt;
+        // Bumped by invalidate() so a load that read the table before the write can't store its result
+        private long version = 0;
+        private boolean reloading = false;
+
+        Entry(String sql) {
+            this.sql = sql;
+        }
+
+        List<String> get() throws SQLException {
+            long startVersion;
+            synchronized (this) {
+                if (value != null) {
+                    if (System.currentTimeMillis() - loadedAt > TTL_MILLIS) {
+                        reloadInBackground();
+                    }
+                    return value;
+                }
+                startVersion = version;
+            }
+            List<String> loaded = load();
+            synchronized (this) {
+                store(loaded, startVersion);
+            }
+            return loaded;
+        }
+
+        synchronized void invalidate() {
+            value = null;
+            version++;
+        }
+
+        synchronized void reloadInBackground() {
+            if (reloading) {
+                return;
+            }
+            reloading = true;
+            long startVersion = version;
+            Thread.ofVirtual().name("reference-data-reload").start(() -> {
+                try {
+                    List<String> loaded = load();
+                    synchronized (this) {
+                        store(loaded, startVersion);
+                    }
+                } catch (SQLException e) {
+                    // The cached list, if any, is kept; the next get() tries again once it expires
+                    QueryMetrics.shared().recordFailure("Reload reference data", e);
+                } finally {
+                    synchronized (this) {
+                        reloading = false;
+                    }
+                }
+            });
+        }
+
+        private void store(List<String> loaded, long startVersion) {
+            if (version == startVersion) {
+                value = loaded;
+                loadedAt = System.currentTimeMillis();
+            }
+        }
+
+        private List<String> load() throws SQLException {
+            List<String> labels = new ArrayList<>();
+            try (Connection conn = Database.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    labels.add(rs.getInt("id") + " - " + rs.getString("name"));
+                }
+            }
+            return List.copyOf(labels);
+        }
+    }
+}
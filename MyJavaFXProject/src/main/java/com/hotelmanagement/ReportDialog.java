@@ -0,0 +1,163 @@
+package com.hotelmanagement;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Historical occupancy reports over all reservations, computed in memory by ReportEngine
+public class ReportDialog {
+
+    // Groupings offered in the dialog, in the order they are listed
+    private static final Map<String, ReportEngine.Dimension[]> GROUPINGS = new LinkedHashMap<>();
+
+    static {
+        GROUPINGS.put("Room type by month", new ReportEngine.Dimension[] {
+                ReportEngine.Dimension.ROOM_TYPE, ReportEngine.Dimension.MONTH});
+        GROUPINGS.put("Room type by year", new ReportEngine.Dimension[] {
+                ReportEngine.Dimension.ROOM_TYPE, ReportEngine.Dimension.YEAR});
+        GROUPINGS.put("Hotel by year", new ReportEngine.Dimension[] {
+                ReportEngine.Dimension.HOTEL, ReportEngine.Dimension.YEAR});
+        GROUPINGS.put("Month", new ReportEngine.Dimension[] {ReportEngine.Dimension.MONTH});
+        GROUPINGS.put("Weekday", new ReportEngine.Dimension[] {ReportEngine.Dimension.WEEKDAY});
+        GROUPINGS.put("Room type by weekday", new ReportEngine.Dimension[] {
+                ReportEngine.Dimension.ROOM_TYPE, ReportEngine.Dimension.WEEKDAY});
+    }
+
+    private final Stage stage;
+    private final ComboBox<String> groupingComboBox;
+    private final DatePicker fromPicker;
+    private final DatePicker toPicker;
+    private final TableView<ReportEngine.Row> table;
+    private final Label status;
+
+    public ReportDialog(Stage owner) {
+        stage = new Stage();
+        stage.initOwner(owner);
+        stage.setTitle("Occupancy Reports");
+
+        groupingComboBox = new ComboBox<>();
+        groupingComboBox.getItems().addAll(GROUPINGS.keySet());
+        groupingComboBox.setValue("Room type by month");
+
+        fromPicker = new DatePicker(LocalDate.now().minusYears(5).withDayOfYear(1));
+        toPicker = new DatePicker(LocalDate.now());
+        fromPicker.setPrefWidth(130);
+        toPicker.setPrefWidth(130);
+
+        Button runButton = new Button("Run");
+        runButton.setStyle("-fx-background-color: #2196F3; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 8 20;");
+        runButton.setOnAction(e -> runReport());
+
+        status = new Label();
+        status.setMaxHeight(Double.MAX_VALUE);
+        status.setStyle("-fx-text-fill: #757575; -fx-font-size: 12px;");
+
+        table = new TableView<>();
+        table.setPlaceholder(new Label("Choose a grouping and press Run"));
+
+        HBox controls = new HBox(10, groupingComboBox, new Label("From"), fromPicker, new Label("To"), toPicker,
+                runButton, status);
+        controls.setPadding(new Insets(15));
+        controls.setStyle("-fx-background-color: #f5f5f5; -fx-alignment: center-left;");
+
+        BorderPane root = new BorderPane();
+        root.setTop(controls);
+        root.setCenter(table);
+
+        Scene scene = new Scene(root, 900, 550);
+        stage.setScene(scene);
+    }
+
+    private void runReport() {
+        LocalDate from = fromPicker.getValue();
+        LocalDate to = toPicker.getValue();
+        if (from == null || to == null || to.isBefore(from)) {
+            showError("Please choose a valid date range!");
+            return;
+        }
+        ReportEngine.Dimension[] groupBy = GROUPINGS.get(groupingComboBox.getValue());
+        ReportEngine.Query query = new ReportEngine.Query().between(from, to).groupBy(groupBy);
+
+        status.setText("Running...");
+        // The first report loads every reservation; later ones reuse the snapshot
+        DbExecutor.submit("Run report", () -> ReportEngine.shared().run(query), report -> {
+            showReport(report);
+            status.setText(String.format("%,d stays scanned in %.1f ms", report.getStaysScanned(),
+                    report.getElapsedNanos() / 1e6));
+        }, e -> {
+            status.setText("");
+            showError("Error running report: " + e.getMessage());
+        });
+    }
+
+    private void showReport(ReportEngine.Report report) {
+        table.getColumns().clear();
+        List<ReportEngine.Dimension> groupBy = report.getGroupBy();
+        int keyColumns = report.getRows().isEmpty() ? 0 : report.getRows().get(0).getKeys().size();
+        for (int i = 0; i < keyColumns; i++) {
+            int key = i;
+            TableColumn<ReportEngine.Row, String> column = new TableColumn<>(keyHeader(groupBy, i));
+            column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getKeys().get(key)));
+            column.setPrefWidth(150);
+            table.getColumns().add(column);
+        }
+
+        TableColumn<ReportEngine.Row, Long> nights = new TableColumn<>("Room Nights");
+        nights.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getNights()));
+        nights.setPrefWidth(120);
+
+        TableColumn<ReportEngine.Row, Long> arrivals = new TableColumn<>("Arrivals");
+        arrivals.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getArrivals()));
+        arrivals.setPrefWidth(100);
+
+        TableColumn<ReportEngine.Row, String> occupancy = new TableColumn<>("Occupancy");
+        occupancy.setCellValueFactory(cell -> new ReadOnlyStringWrapper(
+                String.format("%.1f%%", cell.getValue().getOccupancy() * 100)));
+        occupancy.setPrefWidth(100);
+
+        table.getColumns().addAll(List.of(nights, arrivals, occupancy));
+        table.setItems(FXCollections.observableArrayList(report.getRows()));
+        table.setPlaceholder(new Label("No reservations in this range"));
+    }
+
+    // Hotel and room type get a column each; year, month and weekday share the last one
+    private String keyHeader(List<ReportEngine.Dimension> groupBy, int index) {
+        int column = 0;
+        StringBuilder period = new StringBuilder();
+        for (ReportEngine.Dimension dimension : groupBy) {
+            switch (dimension) {
+                case HOTEL, ROOM_TYPE -> {
+                    if (column++ == index) {
+                        return dimension == ReportEngine.Dimension.HOTEL ? "Hotel" : "Room Type";
+                    }
+                }
+                default -> period.append(period.length() > 0 ? " / " : "")
+                        .append(dimension.name().charAt(0)).append(dimension.name().substring(1).toLowerCase());
+            }
+        }
+        return period.toString();
+    }
+
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
+    public void show() {
+        stage.show();
+    }
+}
@@ -0,0 +1,545 @@
+package com.hotelmanagement;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * In-memory engine for historical questions over every reservation, such as occupancy by room
+ * type per month over five years.
+ * <p>
+ * Reservations are held column by column in primitive arrays: check-in and check-out as epoch
+ * days, the room's hotel as a dense index and its type as a byte code, about 13 bytes a stay. A
+ * query is a fork-join task over those arrays: the rows are split in ranges, each leaf counts its
+ * nights and arrivals into a flat array of group cells, and the halves are summed on the way back.
+ * Nothing is boxed or allocated per row, so a scan of millions of stays takes milliseconds and
+ * scales with the cores of the pool.
+ * <p>
+ * A stay counts one night for each day of [check-in, check-out) inside the query range, in the
+ * group of that night, and one arrival in the group of its check-in day. Occupancy divides the
+ * nights by the group's rooms times its days. Rooms are taken with their current hotel and type.
+ * <p>
+ * The engine is an immutable snapshot; {@link #shared()} reloads it once it is older than a few
+ * minutes. It can be loaded from MySQL or from the columnar files written by {@link TableExporter}.
+ * Thread-safe.
+ */
+public class ReportEngine {
+
+    public enum Dimension { HOTEL, ROOM_TYPE, YEAR, MONTH, WEEKDAY }
+
+    private static final long RELOAD_AFTER_MILLIS = 10 * 60_000;
+    private static final int FETCH_SIZE = 10_000;
+
+    // Leaves smaller than this aren't worth forking; above LARGE_GROUPING cells every leaf's counters
+    // are big, so the rows are split into fewer leaves to bound the memory held by unmerged leaves
+    private static final int MIN_LEAF_ROWS = 16_384;
+    private static final int LEAVES_PER_THREAD = 4;
+    private static final int LARGE_GROUPING = 100_000;
+
+    private static ReportEngine shared;
+    private static long sharedLoadedAt;
+
+    private final int size;
+    private final int[] checkIn;
+    private final int[] checkOut;
+    private final int[] hotel;
+    private final byte[] type;
+
+    private final int[] hotelIds;
+    private final String[] typeNames;
+    // Rooms per hotel index and type code
+    private final int[][] roomCounts;
+
+    private ReportEngine(Builder builder) {
+        size = builder.size;
+        checkIn = Arrays.copyOf(builder.checkIn, size);
+        checkOut = Arrays.copyOf(builder.checkOut, size);
+        hotelIds = builder.hotelIndex.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        typeNames = builder.typeCodes.keySet().toArray(new String[0]);
+        Arrays.sort(typeNames);
+
+        // Builders number hotels and types as they first appear; renumber them in sorted order
+        int[] hotelMap = new int[hotelIds.length];
+        for (int i = 0; i < hotelIds.length; i++) {
+            hotelMap[builder.hotelIndex.get(hotelIds[i])] = i;
+        }
+        byte[] typeMap = new byte[typeNames.length];
+        for (int i = 0; i < typeNames.length; i++) {
+            typeMap[builder.typeCodes.get(typeNames[i])] = (byte) i;
+        }
+        hotel = new int[size];
+        type = new byte[size];
+        for (int i = 0; i < size; i++) {
+            hotel[i] = hotelMap[builder.hotel[i]];
+            type[i] = typeMap[builder.type[i]];
+        }
+        roomCounts = new int[hotelIds.length][typeNames.length];
+        for (Map.Entry<Long, Integer> entry : builder.roomCounts.entrySet()) {
+            long key = entry.getKey();
+            roomCounts[hotelMap[(int) (key >>> 8)]][typeMap[(int) (key & 0xFF)]] = entry.getValue();
+        }
+    }
+
+    // =================== Shared Instance ===================
+    // Loads (or reloads when stale) the shared engine; may block on MySQL, so call it off the FX thread
+    public static synchronized ReportEngine shared() throws SQLException {
+        if (shared == null || System.currentTimeMillis() - sharedLoadedAt > RELOAD_AFTER_MILLIS) {
+            try (Connection conn = Database.getConnection()) {
+                shared = load(conn);
+            }
+            sharedLoadedAt = System.currentTimeMillis();
+        }
+        return shared;
+    }
+
+    public static synchronized void invalidateShared() {
+        shared = null;
+    }
+
+    // =================== Loading ===================
+    public static ReportEngine load(Connection conn) throws SQLException {
+        Builder builder = new Builder();
+        try (PreparedStatement rooms = conn.prepareStatement("SELECT type, hotel_id FROM rooms")) {
+            ResultSet rs = rooms.executeQuery();
+            while (rs.next()) {
+                builder.addRoom(rs.getInt("hotel_id"), rs.getString("type"));
+            }
+        }
+
+        // Streamed through a server-side cursor (see Database) rather than buffered whole
+        try (PreparedStatement stays = conn.prepareStatement(
+                "SELECT rm.hotel_id, rm.type, r.check_in, r.check_out FROM reservations r " +
+                "JOIN rooms rm ON rm.number = r.room_number",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stays.setFetchSize(FETCH_SIZE);
+            ResultSet rs = stays.executeQuery();
+            while (rs.next()) {
+                builder.addStay(rs.getInt(1), rs.getString(2), (int) rs.getDate(3).toLocalDate().toEpochDay(),
+                        (int) rs.getDate(4).toLocalDate().toEpochDay());
+            }
+        }
+        return builder.build();
+    }
+
+    // From exports of the rooms and reservations tables in the columnar format. Row groups are
+    // decoded in parallel; stays whose room isn't in the rooms file are skipped.
+    public static ReportEngine load(Path roomsFile, Path reservationsFile) throws IOException {
+        Builder builder = new Builder();
+        Map<Integer, Integer> roomHotel = new HashMap<>();
+        Map<Integer, String> roomType = new HashMap<>();
+        try (ColumnarReader rooms = new ColumnarReader(roomsFile)) {
+            int number = rooms.columnIndex("number");
+            int typeColumn = rooms.columnIndex("type");
+            int hotelColumn = rooms.columnIndex("hotel_id");
+            for (int g = 0; g < rooms.getRowGroupCount(); g++) {
+                ColumnarReader.RowGroup group = rooms.readRowGroup(g);
+                for (int row = 0; row < group.getRowCount(); row++) {
+                    int roomNumber = group.ints(number)[row];
+                    roomHotel.put(roomNumber, group.ints(hotelColumn)[row]);
+                    roomType.put(roomNumber, group.strings(typeColumn)[row]);
+                    builder.addRoom(group.ints(hotelColumn)[row], group.strings(typeColumn)[row]);
+                }
+            }
+        }
+
+        try (ColumnarReader reservations = new ColumnarReader(reservationsFile)) {
+            int room = reservations.columnIndex("room_number");
+            int in = reservations.columnIndex("check_in");
+            int out = reservations.columnIndex("check_out");
+            List<Callable<ColumnarReader.RowGroup>> reads = new ArrayList<>();
+            for (int g = 0; g < reservations.getRowGroupCount(); g++) {
+                int group = g;
+                reads.add(() -> reservations.readRowGroup(group));
+            }
+            for (Future<ColumnarReader.RowGroup> future : ForkJoinPool.commonPool().invokeAll(reads)) {
+                ColumnarReader.RowGroup group = future.get();
+                for (int row = 0; row < group.getRowCount(); row++) {
+                    int roomNumber = group.ints(room)[row];
+                    Integer hotelId = roomHotel.get(roomNumber);
+                    if (hotelId != null) {
+                        builder.addStay(hotelId, roomType.get(roomNumber), group.ints(in)[row], group.ints(out)[row]);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + reservationsFile, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not read " + reservationsFile, e.getCause());
+        }
+        return builder.build();
+    }
+
+    public int getStayCount() {
+        return size;
+    }
+
+    // =================== Queries ===================
+    public Report run(Query query) {
+        return run(query, ForkJoinPool.commonPool());
+    }
+
+    // The pool decides how many cores a query uses; the benchmarks pass pools of different sizes
+    Report run(Query query, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Plan plan = new Plan(query);
+        int leaves = pool.getParallelism() * (plan.cells > LARGE_GROUPING ? 1 : LEAVES_PER_THREAD);
+        int leafRows = Math.max(MIN_LEAF_ROWS, (size + leaves - 1) / leaves);
+        Counts counts = pool.invoke(new Scan(plan, 0, size, leafRows));
+        return plan.report(counts, System.nanoTime() - start);
+    }
+
+    // Everything a leaf needs, worked out once per query: filters as codes, and for each day of the
+    // range the period cell it falls in, so the inner loop is array lookups only
+    private class Plan {
+        private final Query query;
+        private final int from;
+        private final int days;
+        private final int hotelFilter;
+        private final int typeFilter;
+        private final boolean byHotel;
+        private final boolean byType;
+        private final int[] periodOfDay;
+        private final int[] daysInPeriod;
+        private final List<String> periodLabels = new ArrayList<>();
+        private final int types;
+        private final int cells;
+
+        Plan(Query query) {
+            this.query = query;
+            from = (int) query.from.toEpochDay();
+            days = (int) (query.to.toEpochDay() - query.from.toEpochDay()) + 1;
+            // -1 is no filter; an unknown hotel or type becomes -2, which no row matches
+            hotelFilter = query.hotelId == 0 ? -1 : filterCode(Arrays.binarySearch(hotelIds, query.hotelId));
+            typeFilter = query.roomType == null ? -1 : filterCode(Arrays.binarySearch(typeNames, query.roomType));
+            byHotel = query.groupBy.contains(Dimension.HOTEL);
+            byType = query.groupBy.contains(Dimension.ROOM_TYPE);
+
+            periodOfDay = new int[days];
+            Map<String, Integer> periods = new HashMap<>();
+            List<Integer> periodDays = new ArrayList<>();
+            for (int day = 0; day < days; day++) {
+                String label = periodLabel(query.from.plusDays(day));
+                Integer period = periods.get(label);
+                if (period == null) {
+                    period = periods.size();
+                    periods.put(label, period);
+                    periodLabels.add(label);
+                    periodDays.add(0);
+                }
+                periodOfDay[day] = period;
+                periodDays.set(period, periodDays.get(period) + 1);
+            }
+            daysInPeriod = periodDays.stream().mapToInt(Integer::intValue).toArray();
+            types = byType ? typeNames.length : 1;
+            cells = (byHotel ? hotelIds.length : 1) * types * periodLabels.size();
+        }
+
+        private int filterCode(int searchResult) {
+            return searchResult >= 0 ? searchResult : -2;
+        }
+
+        // Periods combine into one label, e.g. "2024 MONDAY"; no period dimension means one period
+        private String periodLabel(LocalDate day) {
+            StringBuilder label = new StringBuilder();
+            for (Dimension dimension : query.groupBy) {
+                String part = switch (dimension) {
+                    case YEAR -> String.valueOf(day.getYear());
+                    case MONTH -> day.getYear() + "-" + String.format("%02d", day.getMonthValue());
+                    case WEEKDAY -> day.getDayOfWeek().toString();
+                    default -> null;
+                };
+                if (part != null) {
+                    label.append(label.length() > 0 ? " " : "").append(part);
+                }
+            }
+            return label.toString();
+        }
+
+        int cell(int hotelIndex, int typeCode, int period) {
+            return ((byHotel ? hotelIndex : 0) * types + (byType ? typeCode : 0)) * daysInPeriod.length + period;
+        }
+
+        Report report(Counts counts, long elapsedNanos) {
+            List<Row> rows = new ArrayList<>();
+            int hotelGroups = byHotel ? hotelIds.length : 1;
+            for (int h = 0; h < hotelGroups; h++) {
+                for (int t = 0; t < types; t++) {
+                    long rooms = rooms(h, t);
+                    for (int p = 0; p < daysInPeriod.length; p++) {
+                        int cell = cell(h, t, p);
+                        if (counts.nights[cell] == 0 && counts.arrivals[cell] == 0 && rooms == 0) {
+                            continue;
+                        }
+                        List<String> keys = new ArrayList<>(query.groupBy.size());
+                        for (Dimension dimension : query.groupBy) {
+                            if (dimension == Dimension.HOTEL) {
+                                keys.add(String.valueOf(hotelIds[h]));
+                            } else if (dimension == Dimension.ROOM_TYPE) {
+                                keys.add(typeNames[t]);
+                            }
+                        }
+                        if (!periodLabels.get(p).isEmpty()) {
+                            keys.add(periodLabels.get(p));
+                        }
+                        long capacity = rooms * daysInPeriod[p];
+                        rows.add(new Row(keys, counts.nights[cell], counts.arrivals[cell],
+                                capacity == 0 ? 0 : (double) counts.nights[cell] / capacity));
+                    }
+                }
+            }
+            return new Report(query.groupBy, rows, size, elapsedNanos);
+        }
+
+        // Rooms in a group, after the query's filters
+        private long rooms(int hotelGroup, int typeGroup) {
+            long total = 0;
+            for (int h = 0; h < hotelIds.length; h++) {
+                if ((byHotel && h != hotelGroup) || (hotelFilter != -1 && h != hotelFilter)) {
+                    continue;
+                }
+                for (int t = 0; t < typeNames.length; t++) {
+                    if ((byType && t != typeGroup) || (typeFilter != -1 && t != typeFilter)) {
+                        continue;
+                    }
+                    total += roomCounts[h][t];
+                }
+            }
+            return total;
+        }
+    }
+
+    private static class Counts {
+        private final int[] nights;
+        private final int[] arrivals;
+
+        Counts(int cells) {
+            nights = new int[cells];
+            arrivals = new int[cells];
+        }
+
+        Counts add(Counts other) {
+            for (int i = 0; i < nights.length; i++) {
+                nights[i] += other.nights[i];
+                arrivals[i] += other.arrivals[i];
+            }
+            return this;
+        }
+    }
+
+    private class Scan extends RecursiveTask<Counts> {
+        private final Plan plan;
+        private final int start;
+        private final int end;
+        private final int leafRows;
+
+        Scan(Plan plan, int start, int end, int leafRows) {
+            this.plan = plan;
+            this.start = start;
+            this.end = end;
+            this.leafRows = leafRows;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (end - start <= leafRows) {
+                return scan();
+            }
+            int middle = (start + end) >>> 1;
+            Scan left = new Scan(plan, start, middle, leafRows);
+            left.fork();
+            Counts right = new Scan(plan, middle, end, leafRows).compute();
+            return left.join().add(right);
+        }
+
+        private Counts scan() {
+            Counts counts = new Counts(plan.cells);
+            int from = plan.from;
+            int last = from + plan.days - 1;
+            for (int i = start; i < end; i++) {
+                if ((plan.hotelFilter != -1 && hotel[i] != plan.hotelFilter)
+                        || (plan.typeFilter != -1 && type[i] != plan.typeFilter)) {
+                    continue;
+                }
+                int in = checkIn[i];
+                int out = checkOut[i];
+                if (out <= from || in > last) {
+                    continue;
+                }
+                int base = plan.cell(hotel[i], type[i], 0);
+                if (in >= from) {
+                    counts.arrivals[base + plan.periodOfDay[in - from]]++;
+                }
+                int firstNight = Math.max(in, from);
+                int lastNight = Math.min(out - 1, last);
+                for (int day = firstNight; day <= lastNight; day++) {
+                    counts.nights[base + plan.periodOfDay[day - from]]++;
+                }
+            }
+            return counts;
+        }
+    }
+
+    // =================== Query ===================
+    // Range defaults to the last year; hotelId 0 and a null roomType mean no filter
+    public static class Query {
+        private LocalDate from = LocalDate.now().minusYears(1);
+        private LocalDate to = LocalDate.now();
+        private int hotelId = 0;
+        private String roomType;
+        private List<Dimension> groupBy = List.of();
+
+        public Query between(LocalDate from, LocalDate to) {
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("Report range ends before it starts");
+            }
+            this.from = from;
+            this.to = to;
+            return this;
+        }
+
+        public Query hotel(int hotelId) {
+            this.hotelId = hotelId;
+            return this;
+        }
+
+        public Query roomType(String roomType) {
+            this.roomType = roomType;
+            return this;
+        }
+
+        public Query groupBy(Dimension... dimensions) {
+            this.groupBy = List.of(dimensions);
+            return this;
+        }
+    }
+
+    // =================== Results ===================
+    public static class Report {
+        private final List<Dimension> groupBy;
+        private final List<Row> rows;
+        private final int staysScanned;
+        private final long elapsedNanos;
+
+        Report(List<Dimension> groupBy, List<Row> rows, int staysScanned, long elapsedNanos) {
+            this.groupBy = groupBy;
+            this.rows = rows;
+            this.staysScanned = staysScanned;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        // Row keys follow these dimensions, except that the periods (year, month, weekday) share the last key
+        public List<Dimension> getGroupBy() {
+            return groupBy;
+        }
+
+        public List<Row> getRows() {
+            return rows;
+        }
+
+        public int getStaysScanned() {
+            return staysScanned;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    public static class Row {
+        private final List<String> keys;
+        private final long nights;
+        private final long arrivals;
+        private final double occupancy;
+
+        Row(List<String> keys, long nights, long arrivals, double occupancy) {
+            this.keys = keys;
+            this.nights = nights;
+            this.arrivals = arrivals;
+            this.occupancy = occupancy;
+        }
+
+        public List<String> getKeys() {
+            return keys;
+        }
+
+        public long getNights() {
+            return nights;
+        }
+
+        public long getArrivals() {
+            return arrivals;
+        }
+
+        public double getOccupancy() {
+            return occupancy;
+        }
+    }
+
+    // =================== Builder ===================
+    // Collects rooms and stays into growing arrays; also used by the benchmarks to build synthetic engines
+    static class Builder {
+        private int size = 0;
+        private int[] checkIn = new int[1024];
+        private int[] checkOut = new int[1024];
+        private int[] hotel = new int[1024];
+        private byte[] type = new byte[1024];
+        private final Map<Integer, Integer> hotelIndex = new HashMap<>();
+        private final Map<String, Integer> typeCodes = new HashMap<>();
+        // Keyed by hotel index << 8 | type code
+        private final Map<Long, Integer> roomCounts = new HashMap<>();
+
+        void addRoom(int hotelId, String roomType) {
+            roomCounts.merge(((long) hotelIndex(hotelId) << 8) | typeCode(roomType), 1, Integer::sum);
+        }
+
+        void addStay(int hotelId, String roomType, int checkInDay, int checkOutDay) {
+            if (size == checkIn.length) {
+                int capacity = size * 2;
+                checkIn = Arrays.copyOf(checkIn, capacity);
+                checkOut = Arrays.copyOf(checkOut, capacity);
+                hotel = Arrays.copyOf(hotel, capacity);
+                type = Arrays.copyOf(type, capacity);
+            }
+            checkIn[size] = checkInDay;
+            checkOut[size] = checkOutDay;
+            hotel[size] = hotelIndex(hotelId);
+            type[size] = (byte) typeCode(roomType);
+            size++;
+        }
+
+        private int hotelIndex(int hotelId) {
+            return hotelIndex.computeIfAbsent(hotelId, id -> hotelIndex.size());
+        }
+
+        private int typeCode(String roomType) {
+            Integer code = typeCodes.get(roomType);
+            if (code == null) {
+                if (typeCodes.size() == Byte.MAX_VALUE) {
+                    throw new IllegalStateException("Too many room types");
+                }
+                code = typeCodes.size();
+                typeCodes.put(roomType, code);
+            }
+            return code;
+        }
+
+        ReportEngine build() {
+            return new ReportEngine(this);
+        }
+    }
+}
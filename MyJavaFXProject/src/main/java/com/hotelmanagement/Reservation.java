@@ -0,0 +1,55 @@
+package com.hotelmanagement;
+
+import java.time.LocalDate;
+
+// Dates are held as epoch days: two ints instead of two date objects per row in large tables
+public class Reservation {
+    private final int id;
+    private final int customerId;
+    private final String customerName;
+    private final int roomNumber;
+    private final int checkInDay;
+    private final int checkOutDay;
+
+    public Reservation(int id, int customerId, String customerName, int roomNumber, LocalDate checkIn,
+            LocalDate checkOut) {
+        this.id = id;
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.roomNumber = roomNumber;
+        this.checkInDay = (int) checkIn.toEpochDay();
+        this.checkOutDay = (int) checkOut.toEpochDay();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public LocalDate getCheckIn() {
+        return LocalDate.ofEpochDay(checkInDay);
+    }
+
+    public LocalDate getCheckOut() {
+        return LocalDate.ofEpochDay(checkOutDay);
+    }
+
+    public int getCheckInDay() {
+        return checkInDay;
+    }
+
+    public int getCheckOutDay() {
+        return checkOutDay;
+    }
+}
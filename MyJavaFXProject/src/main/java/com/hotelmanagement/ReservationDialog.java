@@ -1,5 +1,6 @@
 package com.hotelmanagement;
 
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -8,17 +9,22 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ReservationDialog {
     private Stage stage;
     private boolean confirmed = false;
-    private ComboBox<String> customerComboBox;
+    private CustomerPicker customerPicker;
+    private ComboBox<String> hotelComboBox;
     private ComboBox<Integer> roomComboBox;
     private DatePicker checkInPicker;
     private DatePicker checkOutPicker;
     private Integer reservationId;
+    private Task<int[]> pendingRoomQuery;
+    private Integer savedReservationId;
+    private boolean saving = false;
 
     public ReservationDialog(Stage owner, Integer existingReservationId) {
         stage = new Stage();
@@ -39,13 +45,19 @@ public class ReservationDialog {
         grid.setVgap(15);
 
         Label customerLabel = new Label("Customer:");
-        customerComboBox = new ComboBox<>();
-        loadCustomers();
-        customerComboBox.setPrefWidth(200);
+        customerPicker = new CustomerPicker();
+        customerPicker.getControl().setPrefWidth(200);
+
+        Label hotelLabel = new Label("Hotel:");
+        hotelComboBox = new ComboBox<>();
+        hotelComboBox.getItems().add("All Hotels");
+        loadHotels();
+        hotelComboBox.setValue("All Hotels");
+        hotelComboBox.setPrefWidth(200);
 
         Label roomLabel = new Label("Room:");
         roomComboBox = new ComboBox<>();
-        loadAvailableRooms(existingReservationId);
+        roomComboBox.setPromptText("Pick dates first");
         roomComboBox.setPrefWidth(200);
 
         Label checkInLabel = new Label("Check-In Date:");
@@ -61,8 +73,7 @@ public class ReservationDialog {
                 "-fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 8 20;");
         saveButton.setOnAction(e -> {
             if (validateInput()) {
-                confirmed = true;
-                stage.close();
+                save(saveButton);
             }
         });
 
@@ -71,98 +82,164 @@ public class ReservationDialog {
         cancelButton.setOnAction(e -> stage.close());
 
         grid.add(customerLabel, 0, 0);
-        grid.add(customerComboBox, 1, 0);
-        grid.add(roomLabel, 0, 1);
-        grid.add(roomComboBox, 1, 1);
-        grid.add(checkInLabel, 0, 2);
-        grid.add(checkInPicker, 1, 2);
-        grid.add(checkOutLabel, 0, 3);
-        grid.add(checkOutPicker, 1, 3);
-        grid.add(saveButton, 0, 4);
-        grid.add(cancelButton, 1, 4);
+        grid.add(customerPicker.getControl(), 1, 0);
+        grid.add(checkInLabel, 0, 1);
+        grid.add(checkInPicker, 1, 1);
+        grid.add(checkOutLabel, 0, 2);
+        grid.add(checkOutPicker, 1, 2);
+        grid.add(hotelLabel, 0, 3);
+        grid.add(hotelComboBox, 1, 3);
+        grid.add(roomLabel, 0, 4);
+        grid.add(roomComboBox, 1, 4);
+        grid.add(saveButton, 0, 5);
+        grid.add(cancelButton, 1, 5);
 
         if (existingReservationId != null) {
-            loadReservationData(existingReservationId);
+            loadReservationData(existingReservationId, saveButton);
         }
 
-        Scene scene = new Scene(grid, 400, 300);
+        // Only rooms free for the chosen stay are offered, so re-query whenever it changes
+        checkInPicker.valueProperty().addListener((obs, oldVal, newVal) -> loadAvailableRooms());
+        checkOutPicker.valueProperty().addListener((obs, oldVal, newVal) -> loadAvailableRooms());
+        hotelComboBox.valueProperty().addListener((obs, oldVal, newVal) -> loadAvailableRooms());
+        loadAvailableRooms();
+
+        // A booking in flight can't be called back, so the dialog waits for its outcome
+        stage.setOnCloseRequest(e -> {
+            if (saving) {
+                e.consume();
+            }
+        });
+
+        Scene scene = new Scene(grid, 400, 350);
         stage.setScene(scene);
     }
 
-    private void loadCustomers() {
-        try (Connection conn = Database.getConnection()) {
-            String sql = "SELECT id, name FROM customers ORDER BY name";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            ResultSet rs = pstmt.executeQuery();
+    // Usually cached, but the first dialog may have to wait for MySQL (see RoomDialog.loadHotels)
+    private void loadHotels() {
+        DbExecutor.submit("Load hotels", ReferenceData::hotels,
+                hotels -> hotelComboBox.getItems().addAll(hotels),
+                e -> showError("Error loading hotels: " + e.getMessage()));
+    }
 
-            while (rs.next()) {
-                customerComboBox.getItems().add(rs.getInt("id") + " - " + rs.getString("name"));
-            }
-        } catch (Exception e) {
-            showError("Error loading customers: " + e.getMessage());
+    // Lists the rooms with no reservation overlapping [check-in, check-out) in the selected hotel.
+    // The first call may load the availability engine, so it runs in the background.
+    private void loadAvailableRooms() {
+        if (pendingRoomQuery != null) {
+            pendingRoomQuery.cancel();
+            pendingRoomQuery = null;
+        }
+
+        LocalDate checkIn = checkInPicker.getValue();
+        LocalDate checkOut = checkOutPicker.getValue();
+        Integer selectedRoom = roomComboBox.getValue();
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            roomComboBox.getItems().clear();
+            roomComboBox.setPromptText("Pick dates first");
+            return;
         }
-    }
 
-    // In ReservationDialog.java, update loadAvailableRooms method
-    private void loadAvailableRooms(Integer hotelId) {
-        try (Connection conn = Database.getConnection()) {
-            String sql;
-            PreparedStatement pstmt;
+        Integer hotelId = getHotelId();
+        roomComboBox.setPromptText("Checking availability...");
+        pendingRoomQuery = DbExecutor.submit("Find free rooms",
+                () -> AvailabilityEngine.shared().freeRooms(hotelId, checkIn, checkOut, reservationId),
+                free -> {
+                    pendingRoomQuery = null;
+                    List<Integer> rooms = new ArrayList<>(free.length);
+                    for (int number : free) {
+                        rooms.add(number);
+                    }
+                    roomComboBox.getItems().setAll(rooms);
+                    roomComboBox.setPromptText(rooms.isEmpty() ? "No rooms free" : "Select a room");
+                    // Keep the choice if it is still free; validation rejects it otherwise
+                    roomComboBox.setValue(selectedRoom);
+                }, e -> {
+                    pendingRoomQuery = null;
+                    showError("Error loading rooms: " + e.getMessage());
+                });
+    }
 
-            if (hotelId != null) {
-                // Load rooms for specific hotel
-                sql = "SELECT number, type FROM rooms WHERE available = true AND hotel_id = ? ORDER BY number";
-                pstmt = conn.prepareStatement(sql);
-                pstmt.setInt(1, hotelId);
+    // Books (or reschedules) in the background; a conflict keeps the dialog open with fresh availability
+    private void save(Button saveButton) {
+        Integer customerId = reservationId == null ? getCustomerId() : null;
+        int roomNumber = roomComboBox.getValue();
+        LocalDate checkIn = checkInPicker.getValue();
+        LocalDate checkOut = checkOutPicker.getValue();
+
+        saving = true;
+        saveButton.setDisable(true);
+        DbExecutor.submit("Save reservation", () -> {
+            if (reservationId == null) {
+                return BookingService.book(customerId, roomNumber, checkIn, checkOut);
+            }
+            BookingService.reschedule(reservationId, roomNumber, checkIn, checkOut);
+            return reservationId;
+        }, id -> {
+            saving = false;
+            savedReservationId = id;
+            confirmed = true;
+            stage.close();
+        }, e -> {
+            saving = false;
+            saveButton.setDisable(false);
+            if (e instanceof BookingConflictException) {
+                showError(e.getMessage() + ". Please choose other dates or another room.");
+                loadAvailableRooms();
             } else {
-                // Load all available rooms
-                sql = "SELECT number, type FROM rooms WHERE available = true ORDER BY number";
-                pstmt = conn.prepareStatement(sql);
+                showError("Error saving reservation: " + e.getMessage());
             }
+        });
+    }
 
-            ResultSet rs = pstmt.executeQuery();
-
-            roomComboBox.getItems().clear();
-            while (rs.next()) {
-                roomComboBox.getItems().add(rs.getInt("number"));
-            }
-        } catch (Exception e) {
-            showError("Error loading rooms: " + e.getMessage());
+    private Integer getHotelId() {
+        String value = hotelComboBox.getValue();
+        if (value == null || value.equals("All Hotels")) {
+            return null;
         }
+        return Integer.parseInt(value.split(" - ")[0]);
     }
 
-    private void loadReservationData(int reservationId) {
-        try (Connection conn = Database.getConnection()) {
-            String sql = "SELECT r.id, r.customer_id, c.name, r.room_number, r.check_in, r.check_out " +
-                    "FROM reservations r " +
-                    "JOIN customers c ON r.customer_id = c.id " +
-                    "WHERE r.id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, reservationId);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                int customerId = rs.getInt("customer_id");
-                String customerName = rs.getString("name");
-                customerComboBox.setValue(customerId + " - " + customerName);
-                customerComboBox.setDisable(true);
-
-                roomComboBox.getItems().clear();
-                int currentRoom = rs.getInt("room_number");
-                roomComboBox.getItems().add(currentRoom);
-                loadAvailableRooms(currentRoom);
-                roomComboBox.setValue(currentRoom);
-
-                checkInPicker.setValue(rs.getDate("check_in").toLocalDate());
-                checkOutPicker.setValue(rs.getDate("check_out").toLocalDate());
+    // Save waits for the reservation's current values, like RoomDialog.loadRoomData
+    private void loadReservationData(int reservationId, Button saveButton) {
+        saveButton.setDisable(true);
+        DbExecutor.submit("Load reservation", () -> {
+            try (Connection conn = Database.getConnection()) {
+                Reservation reservation = new ReservationRepository().findById(conn, reservationId);
+                if (reservation == null) {
+                    return new ReservationData(null, null, null);
+                }
+                Customer customer = new CustomerRepository().findById(conn, reservation.getCustomerId());
+                Room room = new RoomRepository().findByNumber(conn, reservation.getRoomNumber());
+                Hotel hotel = room == null ? null : new HotelRepository().findById(conn, room.getHotelId());
+                return new ReservationData(reservation, customer, hotel);
+            }
+        }, data -> {
+            saveButton.setDisable(false);
+            Reservation reservation = data.reservation;
+            if (reservation != null) {
+                customerPicker.setValue(data.customer);
+                customerPicker.getControl().setDisable(true);
+
+                // Editing only changes the dates, so the room stays fixed and must be free for them
+                Hotel hotel = data.hotel;
+                if (hotel != null) {
+                    hotelComboBox.setValue(hotel.getId() + " - " + hotel.getName());
+                }
+                hotelComboBox.setDisable(true);
+                roomComboBox.setValue(reservation.getRoomNumber());
+                roomComboBox.setDisable(true);
+
+                checkInPicker.setValue(reservation.getCheckIn());
+                checkOutPicker.setValue(reservation.getCheckOut());
             }
-        } catch (Exception e) {
+        }, e -> {
+            saveButton.setDisable(false);
             showError("Error loading reservation data: " + e.getMessage());
-        }
+        });
     }
 
     private boolean validateInput() {
-        if (customerComboBox.getValue() == null || customerComboBox.getValue().trim().isEmpty()) {
+        if (customerPicker.getValue() == null) {
             showError("Customer is required!");
             return false;
         }
@@ -188,6 +265,16 @@ public class ReservationDialog {
             return false;
         }
 
+        if (pendingRoomQuery != null) {
+            showError("Still checking room availability, please try again in a moment.");
+            return false;
+        }
+
+        if (!roomComboBox.getItems().contains(roomComboBox.getValue())) {
+            showError("Room " + roomComboBox.getValue() + " is not free for the selected dates!");
+            return false;
+        }
+
         return true;
     }
 
@@ -208,19 +295,35 @@ public class ReservationDialog {
     }
 
     public int getCustomerId() {
-        String value = customerComboBox.getValue();
-        return Integer.parseInt(value.split(" - ")[0]);
+        return customerPicker.getValue().getId();
+    }
+
+    public int getReservationId() {
+        return savedReservationId;
     }
 
     public int getRoomNumber() {
         return roomComboBox.getValue();
     }
 
-    public String getCheckIn() {
-        return checkInPicker.getValue().toString();
+    public LocalDate getCheckIn() {
+        return checkInPicker.getValue();
     }
 
-    public String getCheckOut() {
-        return checkOutPicker.getValue().toString();
+    public LocalDate getCheckOut() {
+        return checkOutPicker.getValue();
+    }
+
+    // What loadReservationData reads in the background
+    private static class ReservationData {
+        private final Reservation reservation;
+        private final Customer customer;
+        private final Hotel hotel;
+
+        ReservationData(Reservation reservation, Customer customer, Hotel hotel) {
+            this.reservation = reservation;
+            this.customer = customer;
+            this.hotel = hotel;
+        }
     }
 }
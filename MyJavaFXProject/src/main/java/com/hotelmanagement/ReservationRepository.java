@@ -0,0 +1,161 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data access for the {@code reservations} table, joined with the customer's name for display;
+ * see {@link HotelRepository} for how repositories are used. Writes that must not overlap other
+ * stays go through {@link BookingService}, which wraps these calls in a locked transaction.
+ */
+public class ReservationRepository {
+
+    private static final String SELECT = "SELECT r.id, r.customer_id, c.name AS customerName, r.room_number, " +
+            "r.check_in, r.check_out " +
+            "FROM reservations r " +
+            "JOIN customers c ON r.customer_id = c.id ";
+    static final String FIND_PAGE_FORWARD = SELECT + PagedLoader.keysetClause("r.id", true);
+    private static final String FIND_PAGE_BACKWARD = SELECT + PagedLoader.keysetClause("r.id", false);
+    private static final String FIND_BY_ID = SELECT + "WHERE r.id = ?";
+    private static final String SEARCH = SELECT + "WHERE c.name LIKE ? OR CAST(r.room_number AS CHAR) LIKE ? " +
+            "ORDER BY r.id LIMIT ?";
+    // Stays are half-open, [check_in, check_out)
+    static final String FIND_OVERLAP = SELECT + "WHERE r.room_number = ? AND r.check_in < ? " +
+            "AND r.check_out > ? AND r.id <> ? ORDER BY r.check_in LIMIT 1";
+    private static final String INSERT = "INSERT INTO reservations (customer_id, room_number, check_in, check_out) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_WITH_ID = "INSERT INTO reservations " +
+            "(customer_id, room_number, check_in, check_out, id) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_DATES = "UPDATE reservations SET check_in = ?, check_out = ? WHERE id = ?";
+    private static final String DELETE = "DELETE FROM reservations WHERE id = ?";
+
+    public List<Reservation> findPage(Connection conn, long key, boolean forward, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(forward ? FIND_PAGE_FORWARD : FIND_PAGE_BACKWARD)) {
+            pstmt.setLong(1, key);
+            pstmt.setInt(2, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    public Reservation findById(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(FIND_BY_ID)) {
+            pstmt.setInt(1, id);
+            List<Reservation> reservations = mapAll(pstmt.executeQuery());
+            return reservations.isEmpty() ? null : reservations.get(0);
+        }
+    }
+
+    public List<Reservation> search(Connection conn, String likePattern, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SEARCH)) {
+            pstmt.setString(1, likePattern);
+            pstmt.setString(2, likePattern);
+            pstmt.setInt(3, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    // First stay in the room overlapping [checkIn, checkOut), ignoring excludeId; null if none
+    public Reservation findOverlap(Connection conn, int roomNumber, LocalDate checkIn, LocalDate checkOut,
+            Integer excludeId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(FIND_OVERLAP)) {
+            pstmt.setInt(1, roomNumber);
+            pstmt.setDate(2, Date.valueOf(checkOut));
+            pstmt.setDate(3, Date.valueOf(checkIn));
+            pstmt.setInt(4, excludeId == null ? -1 : excludeId);
+            List<Reservation> reservations = mapAll(pstmt.executeQuery());
+            return reservations.isEmpty() ? null : reservations.get(0);
+        }
+    }
+
+    // Returns the generated id
+    public int insert(Connection conn, int customerId, int roomNumber, LocalDate checkIn, LocalDate checkOut)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, customerId);
+            pstmt.setInt(2, roomNumber);
+            pstmt.setDate(3, Date.valueOf(checkIn));
+            pstmt.setDate(4, Date.valueOf(checkOut));
+            pstmt.executeUpdate();
+            ResultSet generatedKeys = pstmt.getGeneratedKeys();
+            generatedKeys.next();
+            int id = generatedKeys.getInt(1);
+            ChangeLog.record(conn, DataTable.RESERVATIONS, ChangeLog.INSERT, id);
+            return id;
+        }
+    }
+
+    // Bulk load without the overlap check, for data already known to be consistent (e.g. an import
+    // validated against AvailabilityEngine). Reservations with an id keep it; the customer name is ignored.
+    public void insertAll(Connection conn, List<Reservation> reservations) throws SQLException {
+        List<Reservation> withId = new ArrayList<>();
+        List<Reservation> withoutId = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            (reservation.getId() > 0 ? withId : withoutId).add(reservation);
+        }
+        if (!withId.isEmpty()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_WITH_ID)) {
+                for (Reservation reservation : withId) {
+                    bind(pstmt, reservation);
+                    pstmt.setInt(5, reservation.getId());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+        if (!withoutId.isEmpty()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT)) {
+                for (Reservation reservation : withoutId) {
+                    bind(pstmt, reservation);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    public void updateDates(Connection conn, int id, LocalDate checkIn, LocalDate checkOut) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_DATES)) {
+            pstmt.setDate(1, Date.valueOf(checkIn));
+            pstmt.setDate(2, Date.valueOf(checkOut));
+            pstmt.setInt(3, id);
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.RESERVATIONS, ChangeLog.UPDATE, id);
+    }
+
+    public void delete(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE)) {
+            pstmt.setInt(1, id);
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.RESERVATIONS, ChangeLog.DELETE, id);
+    }
+
+    private List<Reservation> mapAll(ResultSet rs) throws SQLException {
+        List<Reservation> list = new ArrayList<>();
+        while (rs.next()) {
+            list.add(new Reservation(
+                    rs.getInt("id"),
+                    rs.getInt("customer_id"),
+                    rs.getString("customerName"),
+                    rs.getInt("room_number"),
+                    rs.getObject("check_in", LocalDate.class),
+                    rs.getObject("check_out", LocalDate.class)));
+        }
+        return list;
+    }
+
+    private void bind(PreparedStatement pstmt, Reservation reservation) throws SQLException {
+        pstmt.setInt(1, reservation.getCustomerId());
+        pstmt.setInt(2, reservation.getRoomNumber());
+        pstmt.setDate(3, Date.valueOf(reservation.getCheckIn()));
+        pstmt.setDate(4, Date.valueOf(reservation.getCheckOut()));
+    }
+}
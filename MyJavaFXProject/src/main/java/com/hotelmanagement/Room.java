@@ -0,0 +1,40 @@
+package com.hotelmanagement;
+
+import java.util.List;
+
+public class Room {
+    // The room types the desk offers, in the order the type pickers list them
+    public static final String SINGLE = "Single";
+    public static final String DOUBLE = "Double";
+    public static final String SUITE = "Suite";
+    public static final String DELUXE = "Deluxe";
+    public static final List<String> TYPES = List.of(SINGLE, DOUBLE, SUITE, DELUXE);
+
+    private final int number;
+    private final String type;
+    private final boolean available;
+    private final int hotelId;
+
+    public Room(int number, String type, boolean available, int hotelId) {
+        this.number = number;
+        this.type = type;
+        this.available = available;
+        this.hotelId = hotelId;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public boolean getAvailable() {
+        return available;
+    }
+
+    public int getHotelId() {
+        return hotelId;
+    }
+}
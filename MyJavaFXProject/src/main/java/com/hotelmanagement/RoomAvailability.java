@@ -0,0 +1,131 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@code rooms.available} flag in step with today's reservations.
+ * <p>
+ * A room is unavailable while one of its reservations covers today. Stays are half-open,
+ * [check-in, check-out), as everywhere else: on check-out day the room is free again. Reservation writes only change that for the room they touch, so
+ * {@link #refreshRooms} recomputes just those rows. The flag can also flip without any write when
+ * the date changes, so a rollover job runs shortly after every midnight and recomputes the rooms
+ * whose stays started or ended since the previous rollover.
+ */
+public class RoomAvailability {
+
+    static final String REFRESH_ROOM_SQL =
+            "UPDATE rooms SET available = NOT EXISTS (" +
+            "SELECT 1 FROM reservations r WHERE r.room_number = rooms.number " +
+            "AND r.check_in <= CURDATE() AND r.check_out > CURDATE()) " +
+            "WHERE number = ?";
+
+    // A room's flag can only change on a day one of its stays checks in or checks out
+    private static final String ROLLOVER_SQL =
+            "UPDATE rooms SET available = NOT EXISTS (" +
+            "SELECT 1 FROM reservations r WHERE r.room_number = rooms.number " +
+            "AND r.check_in <= CURDATE() AND r.check_out > CURDATE()) " +
+            "WHERE number IN (SELECT room_number FROM reservations " +
+            "WHERE check_in BETWEEN ? AND ? OR check_out BETWEEN ? AND ?)";
+
+    // Only rows whose flag is wrong are written; used once at startup when the last rollover is unknown
+    private static final String RECONCILE_SQL =
+            "UPDATE rooms SET available = NOT available WHERE available = (EXISTS (" +
+            "SELECT 1 FROM reservations r WHERE r.room_number = rooms.number " +
+            "AND r.check_in <= CURDATE() AND r.check_out > CURDATE()))";
+
+    // Run a little after midnight so CURDATE() on the server has surely moved on
+    private static final Duration ROLLOVER_DELAY_AFTER_MIDNIGHT = Duration.ofMinutes(1);
+
+    private static ScheduledExecutorService scheduler;
+    private static LocalDate lastRollover;
+
+    // Recomputes availability for the given rooms only; call with the connection used for the write
+    public static void refreshRooms(Connection conn, int... roomNumbers) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(REFRESH_ROOM_SQL)) {
+            for (int roomNumber : roomNumbers) {
+                pstmt.setInt(1, roomNumber);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        ChangeLog.recordAll(conn, DataTable.ROOMS, ChangeLog.UPDATE, roomNumbers);
+    }
+
+    // =================== Daily Rollover ===================
+    public static synchronized void startDailyRollover() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "room-availability-rollover");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.execute(RoomAvailability::reconcile);
+        scheduleNextRollover();
+    }
+
+    public static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static synchronized void scheduleNextRollover() {
+        if (scheduler == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().plusDays(1).atStartOfDay().plus(ROLLOVER_DELAY_AFTER_MIDNIGHT);
+        // Scheduled one day at a time rather than at a fixed rate so DST changes don't shift it
+        scheduler.schedule(() -> {
+            rollover();
+            scheduleNextRollover();
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Also run after bulk reservation imports, which bypass refreshRooms
+    static void reconcile() {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RECONCILE_SQL)) {
+            if (pstmt.executeUpdate() > 0) {
+                ChangeLog.record(conn, DataTable.ROOMS, ChangeLog.RELOAD, 0);
+            }
+            lastRollover = LocalDate.now();
+        } catch (SQLException e) {
+            QueryMetrics.shared().recordFailure("Reconcile room availability", e);
+        }
+    }
+
+    private static void rollover() {
+        LocalDate today = LocalDate.now();
+        if (lastRollover == null) {
+            reconcile(); // the startup pass failed, so we don't know which boundaries were missed
+            return;
+        }
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ROLLOVER_SQL)) {
+            // Stays that checked in or checked out since the last run
+            pstmt.setDate(1, Date.valueOf(lastRollover.plusDays(1)));
+            pstmt.setDate(2, Date.valueOf(today));
+            pstmt.setDate(3, Date.valueOf(lastRollover.plusDays(1)));
+            pstmt.setDate(4, Date.valueOf(today));
+            if (pstmt.executeUpdate() > 0) {
+                ChangeLog.record(conn, DataTable.ROOMS, ChangeLog.RELOAD, 0);
+            }
+            lastRollover = today;
+        } catch (SQLException e) {
+            QueryMetrics.shared().recordFailure("Roll over room availability", e);
+        }
+    }
+}
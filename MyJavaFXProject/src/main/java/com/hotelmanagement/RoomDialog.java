@@ -8,8 +8,6 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 public class RoomDialog {
     private Stage stage;
@@ -45,8 +43,8 @@ public class RoomDialog {
 
         Label typeLabel = new Label("Room Type:");
         typeComboBox = new ComboBox<>();
-        typeComboBox.getItems().addAll("Single", "Double", "Suite", "Deluxe");
-        typeComboBox.setValue("Single");
+        typeComboBox.getItems().addAll(Room.TYPES);
+        typeComboBox.setValue(Room.SINGLE);
         typeComboBox.setPrefWidth(200);
 
         // NEW: Hotel selection combo box
@@ -84,7 +82,7 @@ public class RoomDialog {
         grid.add(cancelButton, 1, 4);
 
         if (existingRoomNumber != null) {
-            loadRoomData(existingRoomNumber);
+            loadRoomData(existingRoomNumber, saveButton);
             numberField.setDisable(true);
         }
 
@@ -92,44 +90,47 @@ public class RoomDialog {
         stage.setScene(scene);
     }
 
-    // NEW: Load hotels from database
+    // NEW: Load hotels from database. The list is usually cached, but the first dialog may have to
+    // wait for MySQL, so it loads in the background like everything else the dialogs read
     private void loadHotels() {
-        try (Connection conn = Database.getConnection()) {
-            String sql = "SELECT id, name FROM hotels ORDER BY name";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            ResultSet rs = pstmt.executeQuery();
+        hotelComboBox.setPromptText("Loading hotels...");
+        DbExecutor.submit("Load hotels", ReferenceData::hotels, hotels -> {
+            String selected = hotelComboBox.getValue();
+            hotelComboBox.getItems().setAll(hotels);
+            hotelComboBox.setValue(selected);
+            hotelComboBox.setPromptText(null);
+        }, e -> showError("Error loading hotels: " + e.getMessage()));
+    }
 
-            while (rs.next()) {
-                hotelComboBox.getItems().add(rs.getInt("id") + " - " + rs.getString("name"));
+    // Save waits for the room's current values, so an early click can't overwrite them with the defaults
+    private void loadRoomData(int roomNumber, Button saveButton) {
+        saveButton.setDisable(true);
+        DbExecutor.submit("Load room", () -> {
+            try (Connection conn = Database.getConnection()) {
+                Room room = new RoomRepository().findByNumber(conn, roomNumber);
+                Hotel hotel = room != null && room.getHotelId() > 0
+                        ? new HotelRepository().findById(conn, room.getHotelId()) : null;
+                return new RoomData(room, hotel);
             }
-        } catch (Exception e) {
-            showError("Error loading hotels: " + e.getMessage());
-        }
-    }
+        }, data -> {
+            saveButton.setDisable(false);
+            Room room = data.room;
+            if (room != null) {
+                numberField.setText(String.valueOf(room.getNumber()));
+                typeComboBox.setValue(room.getType());
+                availableCheckBox.setSelected(room.getAvailable());
 
-    private void loadRoomData(int roomNumber) {
-        try (Connection conn = Database.getConnection()) {
-            String sql = "SELECT r.*, h.name as hotel_name FROM rooms r " +
-                        "LEFT JOIN hotels h ON r.hotel_id = h.id " +
-                        "WHERE r.number = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, roomNumber);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                numberField.setText(String.valueOf(rs.getInt("number")));
-                typeComboBox.setValue(rs.getString("type"));
-                availableCheckBox.setSelected(rs.getBoolean("available"));
-                
                 // Set hotel if exists
-                if (rs.getInt("hotel_id") > 0) {
-                    hotelComboBox.setValue(rs.getInt("hotel_id") + " - " + rs.getString("hotel_name"));
-                    existingHotelId = rs.getInt("hotel_id");
+                Hotel hotel = data.hotel;
+                if (hotel != null) {
+                    hotelComboBox.setValue(hotel.getId() + " - " + hotel.getName());
+                    existingHotelId = hotel.getId();
                 }
             }
-        } catch (Exception e) {
+        }, e -> {
+            saveButton.setDisable(false);
             showError("Error loading room data: " + e.getMessage());
-        }
+        });
     }
 
     private boolean validateInput() {
@@ -192,4 +193,15 @@ public class RoomDialog {
     public boolean isAvailable() {
         return availableCheckBox.isSelected();
     }
+
+    // What loadRoomData reads in the background
+    private static class RoomData {
+        private final Room room;
+        private final Hotel hotel;
+
+        RoomData(Room room, Hotel hotel) {
+            this.room = room;
+            this.hotel = hotel;
+        }
+    }
 }
\ No newline at end of file
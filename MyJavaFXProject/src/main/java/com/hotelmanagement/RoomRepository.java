@@ -0,0 +1,133 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Data access for the rooms table; see HotelRepository for how repositories are used
+public class RoomRepository {
+
+    static final String FIND_PAGE_FORWARD = "SELECT * FROM rooms " + PagedLoader.keysetClause("number", true);
+    private static final String FIND_PAGE_BACKWARD = "SELECT * FROM rooms " + PagedLoader.keysetClause("number", false);
+    private static final String FIND_BY_NUMBER = "SELECT * FROM rooms WHERE number = ?";
+    private static final String SEARCH = "SELECT * FROM rooms WHERE CAST(number AS CHAR) LIKE ? OR type LIKE ? " +
+            "ORDER BY number LIMIT ?";
+    private static final String LOCK = "SELECT number FROM rooms WHERE number = ? FOR UPDATE";
+    private static final String INSERT = "INSERT INTO rooms (type, available, hotel_id, number) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE rooms SET type = ?, available = ?, hotel_id = ? WHERE number = ?";
+    private static final String DELETE = "DELETE FROM rooms WHERE number = ?";
+
+    // A chain has a handful of room types, so rows share one String per type instead of one each;
+    // bounded in case a table holds free-form types
+    private static final int MAX_SHARED_TYPES = 256;
+    private static final Map<String, String> SHARED_TYPES = new ConcurrentHashMap<>();
+
+    public List<Room> findPage(Connection conn, long key, boolean forward, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(forward ? FIND_PAGE_FORWARD : FIND_PAGE_BACKWARD)) {
+            pstmt.setLong(1, key);
+            pstmt.setInt(2, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    public Room findByNumber(Connection conn, int number) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(FIND_BY_NUMBER)) {
+            pstmt.setInt(1, number);
+            List<Room> rooms = mapAll(pstmt.executeQuery());
+            return rooms.isEmpty() ? null : rooms.get(0);
+        }
+    }
+
+    public List<Room> search(Connection conn, String likePattern, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SEARCH)) {
+            pstmt.setString(1, likePattern);
+            pstmt.setString(2, likePattern);
+            pstmt.setInt(3, limit);
+            return mapAll(pstmt.executeQuery());
+        }
+    }
+
+    // Locks the room's row until the transaction ends; false if there is no such room
+    public boolean lock(Connection conn, int number) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LOCK)) {
+            pstmt.setInt(1, number);
+            return pstmt.executeQuery().next();
+        }
+    }
+
+    public void insert(Connection conn, Room room) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT)) {
+            bind(pstmt, room);
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.ROOMS, ChangeLog.INSERT, room.getNumber());
+    }
+
+    public void insertAll(Connection conn, List<Room> rooms) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT)) {
+            for (Room room : rooms) {
+                bind(pstmt, room);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    public void update(Connection conn, Room room) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPDATE)) {
+            bind(pstmt, room);
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.ROOMS, ChangeLog.UPDATE, room.getNumber());
+    }
+
+    public void delete(Connection conn, int number) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(DELETE)) {
+            pstmt.setInt(1, number);
+            pstmt.executeUpdate();
+        }
+        ChangeLog.record(conn, DataTable.ROOMS, ChangeLog.DELETE, number);
+    }
+
+    public Set<Integer> findExistingNumbers(Connection conn, Collection<Integer> numbers) throws SQLException {
+        return KeyLookup.existing(conn, "rooms", "number", numbers);
+    }
+
+    // INSERT and UPDATE take the same parameters in the same order
+    private void bind(PreparedStatement pstmt, Room room) throws SQLException {
+        pstmt.setString(1, room.getType());
+        pstmt.setBoolean(2, room.getAvailable());
+        pstmt.setInt(3, room.getHotelId());
+        pstmt.setInt(4, room.getNumber());
+    }
+
+    private List<Room> mapAll(ResultSet rs) throws SQLException {
+        List<Room> list = new ArrayList<>();
+        while (rs.next()) {
+            list.add(new Room(
+                    rs.getInt("number"),
+                    sharedType(rs.getString("type")),
+                    rs.getBoolean("available"),
+                    rs.getInt("hotel_id")));
+        }
+        return list;
+    }
+
+    private static String sharedType(String type) {
+        if (type == null) {
+            return null;
+        }
+        String shared = SHARED_TYPES.get(type);
+        if (shared == null && SHARED_TYPES.size() < MAX_SHARED_TYPES) {
+            shared = SHARED_TYPES.putIfAbsent(type, type);
+        }
+        return shared != null ? shared : type;
+    }
+}
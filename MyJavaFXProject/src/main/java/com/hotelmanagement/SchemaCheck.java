@@ -0,0 +1,128 @@
+package com.hotelmanagement;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Asks the database how it would run the queries the Dashboard makes all day, and warns when one of
+ * them reads a whole table instead of going through an index.
+ * <p>
+ * Runs once after {@link SchemaMigrator} at startup, with typical parameters. A missing index
+ * usually goes unnoticed on a test database and only hurts once a hotel has years of reservations,
+ * so this is the early warning. On MySQL a plan step of type {@code ALL} is a full scan; tables
+ * the optimizer expects to hold fewer than {@value #MIN_SCANNED_ROWS} rows are left alone, since
+ * reading those whole is cheaper than an index anyway. H2 (the benchmarks, the offline copy) marks a
+ * full scan {@code tableScan} in its plan. Other plans are not understood and not checked.
+ * <p>
+ * Searches with a leading wildcard are not listed: they can't use an index, and run against the
+ * rows the Dashboard already has before they go to the database.
+ */
+public class SchemaCheck {
+
+    private static final long MIN_SCANNED_ROWS = 1000;
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("(\\w+)\\.tableScan", Pattern.CASE_INSENSITIVE);
+
+    private static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("reservation overlap check", ReservationRepository.FIND_OVERLAP,
+                    1, Date.valueOf(LocalDate.now().plusDays(1)), Date.valueOf(LocalDate.now()), 0),
+            new HotQuery("reservations page", ReservationRepository.FIND_PAGE_FORWARD, 0L, 100),
+            new HotQuery("rooms page", RoomRepository.FIND_PAGE_FORWARD, 0L, 100),
+            new HotQuery("customers page", CustomerRepository.FIND_PAGE_FORWARD, 0L, 100),
+            new HotQuery("hotels page", HotelRepository.FIND_PAGE_FORWARD, 0L, 100),
+            new HotQuery("customer name prefix", CustomerRepository.FIND_BY_NAME_PREFIX, "A%", 20),
+            new HotQuery("room availability refresh", RoomAvailability.REFRESH_ROOM_SQL, 1),
+            new HotQuery("hotel occupancy", OccupancyRollup.loadSql(true, true),
+                    1, Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30)), Room.DOUBLE),
+            new HotQuery("chain occupancy", OccupancyRollup.loadSql(false, false),
+                    Date.valueOf(LocalDate.now()), Date.valueOf(LocalDate.now().plusDays(30))),
+            new HotQuery("hotel room count", OccupancyRollup.countRoomsSql(true, true), 1, Room.DOUBLE),
+            new HotQuery("change poll", ChangePoller.READ_AFTER, 0L, 1000));
+
+    private static volatile List<String> warnings = Collections.emptyList();
+
+    // Warnings from the last run, empty if every hot query uses an index
+    public static List<String> getWarnings() {
+        return warnings;
+    }
+
+    static List<String> run(Connection conn) {
+        List<String> found = new ArrayList<>();
+        for (HotQuery query : HOT_QUERIES) {
+            List<String> scans;
+            try {
+                scans = fullScans(conn, query);
+            } catch (SQLException e) {
+                found.add("Schema check: cannot explain the " + query.name + ": " + e.getMessage());
+                continue;
+            }
+            for (String scan : scans) {
+                found.add("Schema check: the " + query.name + " reads all of " + scan
+                        + "; an index from db/migration is missing or unused");
+            }
+        }
+        for (String warning : found) {
+            System.err.println(warning);
+        }
+        warnings = Collections.unmodifiableList(found);
+        return warnings;
+    }
+
+    // Tables the plan reads in full, with the optimizer's row estimate where it gives one
+    private static List<String> fullScans(Connection conn, HotQuery query) throws SQLException {
+        List<String> scans = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + query.sql)) {
+            for (int i = 0; i < query.params.length; i++) {
+                pstmt.setObject(i + 1, query.params[i]);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            ResultSetMetaData meta = rs.getMetaData();
+            int type = column(meta, "type");
+            int plan = column(meta, "plan");
+            while (rs.next()) {
+                if (type > 0) {
+                    long rows = rs.getLong(column(meta, "rows"));
+                    if ("ALL".equalsIgnoreCase(rs.getString(type)) && rows >= MIN_SCANNED_ROWS) {
+                        scans.add(rs.getString(column(meta, "table")) + " (about " + rows + " rows)");
+                    }
+                } else if (plan > 0) {
+                    Matcher matcher = H2_TABLE_SCAN.matcher(rs.getString(plan));
+                    while (matcher.find()) {
+                        scans.add(matcher.group(1));
+                    }
+                }
+            }
+        }
+        return scans;
+    }
+
+    private static int column(ResultSetMetaData meta, String label) throws SQLException {
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (meta.getColumnLabel(i).equalsIgnoreCase(label)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static class HotQuery {
+        private final String name;
+        private final String sql;
+        private final Object[] params;
+
+        HotQuery(String name, String sql, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.hotelmanagement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Creates and upgrades the server schema from the numbered scripts in {@code db/migration}.
+ * <p>
+ * {@code schema_version} has one row per script applied, with a checksum of its text. At startup,
+ * and before the first write that needs a table, every script above the highest recorded version
+ * runs in order. Released scripts are never edited; a change to the schema is a new script at the
+ * end of {@link #MIGRATIONS}.
+ * <p>
+ * Scripts must also work on a database that was set up by hand before migrations existed, and when
+ * two desks start at the same time: tables are created with {@code IF NOT EXISTS}, and an index or
+ * constraint that already exists is taken as done, since MySQL has no {@code IF NOT EXISTS} for
+ * those. DDL commits implicitly in MySQL, so a script that fails halfway is simply run again.
+ */
+public class SchemaMigrator {
+
+    // Version n is MIGRATIONS[n - 1]
+    private static final String[] MIGRATIONS = {
+            "V1__base_tables.sql",
+            "V2__query_indexes.sql",
+            "V3__occupancy_rollup.sql",
+            "V4__change_log.sql",
+            "V5__audit_log.sql",
+            "V6__maintenance_log.sql"
+    };
+
+    private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INT PRIMARY KEY, " +
+            "script VARCHAR(100) NOT NULL, " +
+            "checksum BIGINT NOT NULL, " +
+            "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    // Table, index or constraint already exists: MySQL 1050, 1061, 1826; H2 42101, 42111, 90045
+    private static final Set<Integer> ALREADY_EXISTS = Set.of(1050, 1061, 1826, 42101, 42111, 90045);
+    // Another desk recorded the version first: MySQL 1062, H2 23505
+    private static final Set<Integer> DUPLICATE_KEY = Set.of(1062, 23505);
+
+    private static volatile boolean migrated = false;
+
+    // Brings the server schema up to date once per run, then checks the hot queries' plans against
+    // it; runs in the background so the login window doesn't wait for the server
+    public static void migrateInBackground() {
+        Thread.ofVirtual().name("schema-migration").start(() -> {
+            try {
+                ensureMigrated();
+                if (migrated) {
+                    try (Connection conn = Database.getServerConnection()) {
+                        SchemaCheck.run(conn);
+                    }
+                }
+            } catch (SQLException e) {
+                QueryMetrics.shared().recordFailure("Migrate schema", e);
+            }
+        });
+    }
+
+    // Call before opening a transaction, never inside one. While offline there is nothing to do:
+    // the local copy has its own schema, and the server is migrated once it is back
+    public static void ensureMigrated() throws SQLException {
+        if (migrated) {
+            return;
+        }
+        synchronized (SchemaMigrator.class) {
+            if (migrated || OfflineStore.isOffline()) {
+                return;
+            }
+            try (Connection conn = Database.getServerConnection()) {
+                migrate(conn);
+            } catch (SQLException e) {
+                if (OfflineStore.goOffline(e)) {
+                    return;
+                }
+                throw e;
+            }
+            migrated = true;
+        }
+    }
+
+    // Applies the scripts this database hasn't had yet; returns how many ran
+    static int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_VERSION_TABLE);
+        }
+        int current = currentVersion(conn);
+        verifyChecksums(conn, current);
+        for (int version = current + 1; version <= MIGRATIONS.length; version++) {
+            String script = MIGRATIONS[version - 1];
+            String text = read(script);
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : text.split(";")) {
+                    if (!sql.isBlank()) {
+                        executeIdempotent(stmt, sql);
+                    }
+                }
+            }
+            record(conn, version, script, checksum(text));
+        }
+        return Math.max(0, MIGRATIONS.length - current);
+    }
+
+    static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version");
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void executeIdempotent(Statement stmt, String sql) throws SQLException {
+        try {
+            stmt.execute(sql);
+        } catch (SQLException e) {
+            if (!ALREADY_EXISTS.contains(e.getErrorCode())) {
+                throw e;
+            }
+        }
+    }
+
+    private static void record(Connection conn, int version, String script, long checksum) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, script, checksum) VALUES (?, ?, ?)")) {
+            pstmt.setInt(1, version);
+            pstmt.setString(2, script);
+            pstmt.setLong(3, checksum);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            if (!DUPLICATE_KEY.contains(e.getErrorCode())) {
+                throw e;
+            }
+        }
+    }
+
+    // A script edited after it was applied means this database may not have what the script now says
+    private static void verifyChecksums(Connection conn, int current) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT version, script, checksum FROM schema_version ORDER BY version");
+            while (rs.next()) {
+                int version = rs.getInt("version");
+                if (version > MIGRATIONS.length) {
+                    System.err.println("Schema version " + current + " is newer than this application ("
+                            + MIGRATIONS.length + "); " + rs.getString("script") + " is unknown here");
+                    return;
+                }
+                if (rs.getLong("checksum") != checksum(read(MIGRATIONS[version - 1]))) {
+                    System.err.println("Migration " + MIGRATIONS[version - 1]
+                            + " has changed since it was applied; add a new migration instead");
+                }
+            }
+        }
+    }
+
+    private static long checksum(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static String read(String script) {
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream("/db/migration/" + script)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+        } catch (IOException | NullPointerException e) {
+            throw new IllegalStateException("Cannot read migration " + script, e);
+        }
+    }
+}
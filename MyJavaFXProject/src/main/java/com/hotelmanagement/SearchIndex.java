@@ -0,0 +1,227 @@
+package com.hotelmanagement;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Trigram index over the searchable text fields of the rows in an ObservableList.
+ * <p>
+ * The index follows the list through a change listener, so every add, remove or in-place
+ * replacement (page loads, CRUD patches) is indexed incrementally. A search looks up the
+ * query's rarest trigram and only verifies the rows in that posting list, instead of
+ * lower-casing every field of every row per keystroke. The result of the active query is kept
+ * as a bit set and updated as rows come and go, so {@link #matches} can be used directly as a
+ * {@code FilteredList} predicate.
+ * <p>
+ * Must be created before any FilteredList over the same list so that it sees changes first.
+ * All methods must be called on the FX thread.
+ */
+public class SearchIndex<T> {
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final List<Function<T, String>> fields;
+
+    // Each row gets a slot; the slot holds the row's lower-cased searchable text
+    private final Map<T, Integer> slots = new IdentityHashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    // Posting lists may still name freed or reused slots; every candidate is verified against its key
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final IntList entriesPerSlot = new IntList();
+    private long postingEntries = 0;
+    private long liveEntries = 0;
+
+    private String query = null;
+    private final BitSet results = new BitSet();
+
+    @SafeVarargs
+    public SearchIndex(ObservableList<T> rows, Function<T, String>... fields) {
+        this.fields = List.of(fields);
+        for (T row : rows) {
+            add(row);
+        }
+        rows.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                for (T removed : change.getRemoved()) {
+                    remove(removed);
+                }
+                for (T added : change.getAddedSubList()) {
+                    add(added);
+                }
+            }
+        });
+    }
+
+    // =================== Queries ===================
+    // Blank text clears the search; otherwise matches are case-insensitive substring matches
+    public void setQuery(String text) {
+        results.clear();
+        if (text == null || text.trim().isEmpty()) {
+            query = null;
+            return;
+        }
+        query = text.toLowerCase(Locale.ROOT);
+
+        IntList candidates = query.length() >= 3 ? rarestPosting(query) : null;
+        if (candidates != null) {
+            for (int i = 0; i < candidates.size; i++) {
+                verify(candidates.values[i]);
+            }
+        } else if (query.length() < 3) {
+            // One or two characters match most rows anyway, a scan over the cached keys is as fast
+            for (int slot = 0; slot < keys.size(); slot++) {
+                verify(slot);
+            }
+        }
+    }
+
+    public boolean matches(T row) {
+        if (query == null) {
+            return true;
+        }
+        Integer slot = slots.get(row);
+        return slot != null && results.get(slot);
+    }
+
+    private void verify(int slot) {
+        String key = keys.get(slot);
+        if (key != null && key.contains(query)) {
+            results.set(slot);
+        }
+    }
+
+    // Null means some trigram of the query occurs nowhere, so nothing can match
+    private IntList rarestPosting(String text) {
+        IntList rarest = null;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            IntList posting = postings.get(trigram(text, i));
+            if (posting == null) {
+                return null;
+            }
+            if (rarest == null || posting.size < rarest.size) {
+                rarest = posting;
+            }
+        }
+        return rarest;
+    }
+
+    // =================== Maintenance ===================
+    public void add(T row) {
+        if (slots.containsKey(row)) {
+            return;
+        }
+        String key = keyOf(row);
+        int slot;
+        if (freeSlots.isEmpty()) {
+            slot = keys.size();
+            keys.add(key);
+        } else {
+            slot = freeSlots.pop();
+            keys.set(slot, key);
+        }
+        slots.put(row, slot);
+        int entries = indexKey(slot, key);
+        entriesPerSlot.set(slot, entries);
+        liveEntries += entries;
+
+        if (query != null && key.contains(query)) {
+            results.set(slot);
+        }
+    }
+
+    public void remove(T row) {
+        Integer slot = slots.remove(row);
+        if (slot == null) {
+            return;
+        }
+        keys.set(slot, null);
+        results.clear(slot);
+        freeSlots.push(slot);
+        liveEntries -= entriesPerSlot.values[slot];
+
+        // Stale posting entries are harmless but waste memory; rebuild once they dominate
+        if (postingEntries > 1024 && postingEntries > 2 * liveEntries) {
+            rebuildPostings();
+        }
+    }
+
+    private int indexKey(int slot, String key) {
+        int entries = 0;
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            if (key.charAt(i) == FIELD_SEPARATOR || key.charAt(i + 1) == FIELD_SEPARATOR
+                    || key.charAt(i + 2) == FIELD_SEPARATOR) {
+                continue;
+            }
+            IntList posting = postings.computeIfAbsent(trigram(key, i), k -> new IntList());
+            // Repeated trigrams within one key are consecutive adds of the same slot
+            if (posting.size == 0 || posting.values[posting.size - 1] != slot) {
+                posting.add(slot);
+                entries++;
+            }
+        }
+        postingEntries += entries;
+        return entries;
+    }
+
+    private void rebuildPostings() {
+        postings.clear();
+        postingEntries = 0;
+        for (int slot = 0; slot < keys.size(); slot++) {
+            String key = keys.get(slot);
+            if (key != null) {
+                indexKey(slot, key);
+            }
+        }
+        liveEntries = postingEntries;
+    }
+
+    private String keyOf(T row) {
+        StringBuilder key = new StringBuilder();
+        for (Function<T, String> field : fields) {
+            String value = field.apply(row);
+            if (value != null) {
+                key.append(value.toLowerCase(Locale.ROOT));
+            }
+            key.append(FIELD_SEPARATOR);
+        }
+        return key.toString();
+    }
+
+    private static long trigram(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        void set(int index, int value) {
+            while (index >= size) {
+                add(0);
+            }
+            values[index] = value;
+        }
+    }
+}
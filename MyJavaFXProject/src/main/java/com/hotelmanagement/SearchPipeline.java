@@ -0,0 +1,173 @@
+package com.hotelmanagement;
+
+import javafx.animation.PauseTransition;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.concurrent.Task;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Debounced search for one Dashboard table.
+ * <p>
+ * Keystrokes restart a short timer; only when typing pauses is the query run. The loaded rows
+ * are always filtered locally through the {@link SearchIndex}. When the table's
+ * {@link PagedLoader} only holds part of the table, the same query also runs against MySQL
+ * ({@code LIKE}) in the background and the server hits are merged with the local matches.
+ * Each new query cancels the one before it, so a slow server answer can never overwrite
+ * a newer result. The latency of every query is shown in the status label.
+ * <p>
+ * All methods must be called on the FX thread.
+ */
+public class SearchPipeline<T> {
+
+    public interface ServerSearch<T> {
+        List<T> search(Connection conn, String likePattern, int limit) throws SQLException;
+    }
+
+    private final TableView<T> table;
+    private final ObservableList<T> localRows;
+    private final PagedLoader<T> loader;
+    private final Consumer<String> localFilter;
+    private final ServerSearch<T> serverSearch;
+    private final ToLongFunction<T> keyOf;
+    private final Label status;
+    private final int minServerQueryLength;
+    private final int serverResultLimit;
+
+    private final PauseTransition debounce;
+    private final ObservableList<T> serverMatches = FXCollections.observableArrayList();
+    private final SortedList<T> mergedRows = new SortedList<>(serverMatches);
+    private Predicate<T> serverRowFilter = row -> true;
+    private String text = "";
+    private Task<List<T>> pendingServerSearch;
+    private long generation = 0;
+
+    // localRows is what the table shows while no server results are merged in
+    public SearchPipeline(TextField searchField, Label status, TableView<T> table, ObservableList<T> localRows,
+            PagedLoader<T> loader, Consumer<String> localFilter, ServerSearch<T> serverSearch,
+            ToLongFunction<T> keyOf, long debounceMillis, int minServerQueryLength, int serverResultLimit) {
+        this.table = table;
+        this.localRows = localRows;
+        this.loader = loader;
+        this.localFilter = localFilter;
+        this.serverSearch = serverSearch;
+        this.keyOf = keyOf;
+        this.status = status;
+        this.minServerQueryLength = minServerQueryLength;
+        this.serverResultLimit = serverResultLimit;
+        mergedRows.comparatorProperty().bind(table.comparatorProperty());
+
+        debounce = new PauseTransition(Duration.millis(debounceMillis));
+        debounce.setOnFinished(e -> run());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
+            text = newVal == null ? "" : newVal;
+            cancelServerSearch();
+            debounce.playFromStart();
+        });
+    }
+
+    // Extra condition server hits must meet, matching whatever else the local predicate checks
+    public void setServerRowFilter(Predicate<T> serverRowFilter) {
+        this.serverRowFilter = serverRowFilter;
+    }
+
+    public boolean isShowingServerResults() {
+        return table.getItems() == mergedRows;
+    }
+
+    // Re-runs the current query right away, e.g. after a write or a change to another filter
+    public void refresh() {
+        debounce.stop();
+        cancelServerSearch();
+        run();
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        localFilter.accept(text);
+        double localMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        String query = text.trim();
+        if (query.length() < minServerQueryLength || loader.isComplete()) {
+            table.setItems(localRows);
+            report(query.isEmpty() ? "" : String.format("%d matches · local · %.1f ms", localRows.size(), localMillis));
+            return;
+        }
+
+        // Only part of the table is loaded: show local matches now, then merge in the server's
+        table.setItems(localRows);
+        report(String.format("%d loaded matches · searching server...", localRows.size()));
+        long searchGeneration = ++generation;
+        String pattern = "%" + escapeLike(query) + "%";
+        pendingServerSearch = DbExecutor.submit("Search " + loader.getName(), () -> {
+            try (Connection conn = Database.getConnection()) {
+                return serverSearch.search(conn, pattern, serverResultLimit);
+            }
+        }, rows -> {
+            if (searchGeneration != generation) {
+                return;
+            }
+            pendingServerSearch = null;
+            double serverMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            merge(rows);
+            report(String.format("%d matches%s · server · %.1f ms", mergedRows.size(),
+                    rows.size() >= serverResultLimit ? "+" : "", serverMillis));
+        }, e -> {
+            if (searchGeneration == generation) {
+                pendingServerSearch = null;
+                report("Server search failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // Local matches win over the server's copy of the same row, since they may carry newer edits
+    private void merge(List<T> serverRows) {
+        Set<Long> seen = new HashSet<>();
+        List<T> merged = new ArrayList<>(localRows.size() + serverRows.size());
+        for (T row : localRows) {
+            seen.add(keyOf.applyAsLong(row));
+            merged.add(row);
+        }
+        for (T row : serverRows) {
+            if (serverRowFilter.test(row) && seen.add(keyOf.applyAsLong(row))) {
+                merged.add(row);
+            }
+        }
+        merged.sort((a, b) -> Long.compare(keyOf.applyAsLong(a), keyOf.applyAsLong(b)));
+        serverMatches.setAll(merged);
+        table.setItems(mergedRows);
+    }
+
+    private void cancelServerSearch() {
+        generation++;
+        if (pendingServerSearch != null) {
+            pendingServerSearch.cancel();
+            pendingServerSearch = null;
+        }
+    }
+
+    private void report(String message) {
+        if (status != null) {
+            status.setText(message);
+        }
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,200 @@
+package com.hotelmanagement;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a table, or any query, to a CSV or columnar file without holding it on the heap.
+ * <p>
+ * Rows are read through a forward-only, read-only ResultSet with a fetch size of
+ * {@value #FETCH_SIZE}. Because the MySQL URL enables {@code useCursorFetch} (see {@link Database}),
+ * the driver pulls them from a server-side cursor that many at a time instead of buffering the
+ * whole result. Each row goes straight to a FileChannel, through {@link CsvWriter}'s 64 KB buffer
+ * or one {@link ColumnarWriter} row group, so memory stays constant however long the history is.
+ * Output is written to a {@code .part} file next to the target and moved into place at the end, so
+ * a failed export never leaves a truncated file behind.
+ * <p>
+ * The CSV has a header of column names and round-trips through {@link CsvImporter}. Call from a
+ * background thread.
+ */
+public class TableExporter {
+
+    public enum Format {
+        CSV("csv"), COLUMNAR("hcol");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    // Called every PROGRESS_INTERVAL rows and once at the end
+    public interface Progress {
+        void update(long rowsWritten);
+    }
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    public static long export(DataTable table, Format format, Path file, Progress progress)
+            throws IOException, SQLException {
+        return exportQuery("SELECT * FROM " + table.getTableName() + " ORDER BY " + table.getKeyColumn(),
+                format, file, progress);
+    }
+
+    // Returns the number of rows written
+    static long exportQuery(String sql, Format format, Path file, Progress progress)
+            throws IOException, SQLException {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long rows;
+        try (Connection conn = Database.getConnection();
+             FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(FETCH_SIZE);
+            ResultSet rs = pstmt.executeQuery();
+            rows = format == Format.CSV ? writeCsv(rs, channel, progress) : writeColumnar(rs, channel, progress);
+            channel.force(false);
+        } catch (IOException | SQLException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        progress.update(rows);
+        return rows;
+    }
+
+    private static long writeCsv(ResultSet rs, FileChannel channel, Progress progress)
+            throws IOException, SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        long rows = 0;
+        try (CsvWriter csv = new CsvWriter(channel)) {
+            for (int i = 1; i <= columns; i++) {
+                csv.field(meta.getColumnLabel(i));
+            }
+            csv.endRecord();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    // Booleans as true/false rather than MySQL's 1/0
+                    csv.field(isBoolean(meta, i) ? booleanText(rs, i) : rs.getString(i));
+                }
+                csv.endRecord();
+                if (++rows % PROGRESS_INTERVAL == 0) {
+                    progress.update(rows);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static long writeColumnar(ResultSet rs, FileChannel channel, Progress progress)
+            throws IOException, SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        List<String> names = new ArrayList<>(columns);
+        List<ColumnarFormat.Type> types = new ArrayList<>(columns);
+        for (int i = 1; i <= columns; i++) {
+            names.add(meta.getColumnLabel(i));
+            types.add(columnType(meta, i));
+        }
+
+        try (ColumnarWriter out = new ColumnarWriter(channel, names, types)) {
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    int column = i - 1;
+                    switch (types.get(column)) {
+                        case INT -> {
+                            int value = rs.getInt(i);
+                            if (rs.wasNull()) {
+                                out.putNull(column);
+                            } else {
+                                out.putInt(column, value);
+                            }
+                        }
+                        case LONG -> {
+                            long value = rs.getLong(i);
+                            if (rs.wasNull()) {
+                                out.putNull(column);
+                            } else {
+                                out.putLong(column, value);
+                            }
+                        }
+                        case DOUBLE -> {
+                            double value = rs.getDouble(i);
+                            if (rs.wasNull()) {
+                                out.putNull(column);
+                            } else {
+                                out.putDouble(column, value);
+                            }
+                        }
+                        case BOOLEAN -> {
+                            boolean value = rs.getBoolean(i);
+                            if (rs.wasNull()) {
+                                out.putNull(column);
+                            } else {
+                                out.putBoolean(column, value);
+                            }
+                        }
+                        case DATE -> {
+                            java.sql.Date value = rs.getDate(i);
+                            if (value == null) {
+                                out.putNull(column);
+                            } else {
+                                out.putDate(column, (int) value.toLocalDate().toEpochDay());
+                            }
+                        }
+                        case STRING -> out.putString(column, rs.getString(i));
+                    }
+                }
+                out.endRow();
+                if (out.getRowCount() % PROGRESS_INTERVAL == 0) {
+                    progress.update(out.getRowCount());
+                }
+            }
+            return out.getRowCount();
+        }
+    }
+
+    private static ColumnarFormat.Type columnType(ResultSetMetaData meta, int column) throws SQLException {
+        return switch (meta.getColumnType(column)) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> isBoolean(meta, column)
+                    ? ColumnarFormat.Type.BOOLEAN : ColumnarFormat.Type.INT;
+            case Types.BIGINT -> ColumnarFormat.Type.LONG;
+            case Types.REAL, Types.FLOAT, Types.DOUBLE, Types.DECIMAL, Types.NUMERIC -> ColumnarFormat.Type.DOUBLE;
+            case Types.BIT, Types.BOOLEAN -> ColumnarFormat.Type.BOOLEAN;
+            case Types.DATE -> ColumnarFormat.Type.DATE;
+            default -> ColumnarFormat.Type.STRING;
+        };
+    }
+
+    // MySQL reports BOOLEAN columns as BIT or as TINYINT(1) depending on the driver settings
+    private static boolean isBoolean(ResultSetMetaData meta, int column) throws SQLException {
+        int type = meta.getColumnType(column);
+        return type == Types.BIT || type == Types.BOOLEAN
+                || (type == Types.TINYINT && meta.getPrecision(column) == 1);
+    }
+
+    private static String booleanText(ResultSet rs, int column) throws SQLException {
+        boolean value = rs.getBoolean(column);
+        return rs.wasNull() ? null : String.valueOf(value);
+    }
+}
@@ -0,0 +1,35 @@
+-- The four tables the Dashboard edits. IF NOT EXISTS leaves the tables of a database set up
+-- before migrations existed as they are, constraints included
+CREATE TABLE IF NOT EXISTS hotels (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    address VARCHAR(200),
+    rating DOUBLE
+);
+
+CREATE TABLE IF NOT EXISTS rooms (
+    number INT PRIMARY KEY,
+    type VARCHAR(50) NOT NULL,
+    available BOOLEAN NOT NULL DEFAULT TRUE,
+    hotel_id INT NOT NULL,
+    CONSTRAINT fk_rooms_hotel FOREIGN KEY (hotel_id) REFERENCES hotels(id)
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    address VARCHAR(200)
+);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    customer_id INT NOT NULL,
+    room_number INT NOT NULL,
+    check_in DATE NOT NULL,
+    check_out DATE NOT NULL,
+    CONSTRAINT fk_reservations_customer FOREIGN KEY (customer_id) REFERENCES customers(id),
+    CONSTRAINT fk_reservations_room FOREIGN KEY (room_number) REFERENCES rooms(number)
+);
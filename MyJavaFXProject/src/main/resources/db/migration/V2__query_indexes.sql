@@ -0,0 +1,17 @@
+-- One index per lookup the application makes; SchemaCheck warns when a query stops using them
+
+-- Overlap check and today's availability: seek to the room, then range over its stays
+CREATE INDEX idx_reservations_room_stay ON reservations(room_number, check_in, check_out);
+
+-- Deleting a customer and the foreign key check on every booking
+CREATE INDEX idx_reservations_customer ON reservations(customer_id);
+
+-- Midnight rollover: stays that started or ended since the last one
+CREATE INDEX idx_reservations_check_in ON reservations(check_in);
+CREATE INDEX idx_reservations_check_out ON reservations(check_out);
+
+-- A hotel's rooms, optionally of one type: analytics supply and rollup rebuilds
+CREATE INDEX idx_rooms_hotel_type ON rooms(hotel_id, type);
+
+-- Customer picker prefix search
+CREATE INDEX idx_customers_name ON customers(name);
@@ -0,0 +1,25 @@
+-- Kept by OccupancyRollup; the primary keys are the only access paths the analytics tab needs
+CREATE TABLE IF NOT EXISTS room_rates (
+    hotel_id INT NOT NULL,
+    room_type VARCHAR(50) NOT NULL,
+    nightly_rate DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (hotel_id, room_type)
+);
+
+CREATE TABLE IF NOT EXISTS daily_occupancy (
+    hotel_id INT NOT NULL,
+    stay_date DATE NOT NULL,
+    room_type VARCHAR(50) NOT NULL,
+    rooms_sold INT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (hotel_id, stay_date, room_type)
+);
+
+CREATE TABLE IF NOT EXISTS chain_daily_occupancy (
+    stay_date DATE NOT NULL,
+    room_type VARCHAR(50) NOT NULL,
+    stripe INT NOT NULL,
+    rooms_sold INT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (stay_date, room_type, stripe)
+);
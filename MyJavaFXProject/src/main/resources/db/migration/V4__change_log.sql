@@ -0,0 +1,10 @@
+-- Read by ChangePoller by version range; pruned by age
+CREATE TABLE IF NOT EXISTS change_log (
+    version BIGINT AUTO_INCREMENT PRIMARY KEY,
+    table_name VARCHAR(32) NOT NULL,
+    row_key BIGINT NOT NULL,
+    operation CHAR(1) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_change_log_changed_at ON change_log(changed_at);
@@ -0,0 +1,12 @@
+-- Shipped by AuditLog, one sequence per desk
+CREATE TABLE IF NOT EXISTS audit_log (
+    desk VARCHAR(36) NOT NULL,
+    seq BIGINT NOT NULL,
+    occurred_at TIMESTAMP(3) NOT NULL,
+    user_name VARCHAR(64) NOT NULL,
+    action VARCHAR(16) NOT NULL,
+    table_name VARCHAR(32) NOT NULL,
+    row_key BIGINT NOT NULL,
+    detail VARCHAR(255),
+    PRIMARY KEY (desk, seq)
+);
@@ -0,0 +1,5 @@
+-- One row per one-off data job that has finished against this database, e.g. the occupancy backfill
+CREATE TABLE IF NOT EXISTS maintenance_log (
+    task VARCHAR(64) PRIMARY KEY,
+    completed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,84 @@
+-- The local replica OfflineStore keeps in H2's MySQL mode: the tables the Dashboard reads and
+-- writes, without foreign keys since reservations are only copied from yesterday on
+CREATE TABLE IF NOT EXISTS hotels (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    address VARCHAR(200),
+    rating DOUBLE
+);
+
+CREATE TABLE IF NOT EXISTS rooms (
+    number INT PRIMARY KEY,
+    type VARCHAR(50) NOT NULL,
+    available BOOLEAN NOT NULL DEFAULT TRUE,
+    hotel_id INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    address VARCHAR(200)
+);
+
+CREATE INDEX IF NOT EXISTS idx_customers_name ON customers(name);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    customer_id INT NOT NULL,
+    room_number INT NOT NULL,
+    check_in DATE NOT NULL,
+    check_out DATE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reservations_room_stay ON reservations(room_number, check_in, check_out);
+
+CREATE TABLE IF NOT EXISTS room_rates (
+    hotel_id INT NOT NULL,
+    room_type VARCHAR(50) NOT NULL,
+    nightly_rate DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (hotel_id, room_type)
+);
+
+-- Bookings made offline update these; they are not copied, so analytics is empty while offline
+CREATE TABLE IF NOT EXISTS daily_occupancy (
+    hotel_id INT NOT NULL,
+    stay_date DATE NOT NULL,
+    room_type VARCHAR(50) NOT NULL,
+    rooms_sold INT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (hotel_id, stay_date, room_type)
+);
+
+CREATE TABLE IF NOT EXISTS chain_daily_occupancy (
+    stay_date DATE NOT NULL,
+    room_type VARCHAR(50) NOT NULL,
+    stripe INT NOT NULL,
+    rooms_sold INT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (stay_date, room_type, stripe)
+);
+
+-- Written by the repositories as on the server; here it is the outbox of changes made offline
+CREATE TABLE IF NOT EXISTS change_log (
+    version BIGINT AUTO_INCREMENT PRIMARY KEY,
+    table_name VARCHAR(32) NOT NULL,
+    row_key BIGINT NOT NULL,
+    operation CHAR(1) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Server ids given to rows created offline, kept until the replay that assigned them completes
+CREATE TABLE IF NOT EXISTS replica_id_map (
+    table_name VARCHAR(32) NOT NULL,
+    local_key BIGINT NOT NULL,
+    server_key BIGINT NOT NULL,
+    PRIMARY KEY (table_name, local_key)
+);
+
+CREATE TABLE IF NOT EXISTS replica_state (
+    name VARCHAR(32) PRIMARY KEY,
+    value_long BIGINT NOT NULL
+);
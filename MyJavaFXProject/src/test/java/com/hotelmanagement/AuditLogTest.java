@@ -0,0 +1,84 @@
+package com.hotelmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AuditLogTest {
+
+    private static AuditLog.Event event(String detail) {
+        return new AuditLog.Event(0, 1_700_000_000_000L, "alice", "update", "ROOMS", 101, detail);
+    }
+
+    @Test
+    void lineRoundTripsThroughParse() {
+        String line = AuditLog.format(42, event("type Single -> Suite"));
+        AuditLog.Event parsed = AuditLog.parse(line.substring(0, line.length() - 1));
+
+        assertNotNull(parsed);
+        assertEquals(42, parsed.seq);
+        assertEquals(1_700_000_000_000L, parsed.occurredAt);
+        assertEquals("alice", parsed.user);
+        assertEquals("update", parsed.action);
+        assertEquals("ROOMS", parsed.table);
+        assertEquals(101, parsed.key);
+        assertEquals("type Single -> Suite", parsed.detail);
+    }
+
+    @Test
+    void separatorsBackslashesAndNullSurviveEscaping() {
+        String tricky = "tab\there\nnewline \\ backslash \\t literal";
+        String line = AuditLog.format(1, event(tricky));
+        assertEquals(line.indexOf('\n'), line.length() - 1);
+        assertEquals(tricky, AuditLog.parse(line.substring(0, line.length() - 1)).detail);
+
+        String nullLine = AuditLog.format(2, event(null));
+        assertNull(AuditLog.parse(nullLine.substring(0, nullLine.length() - 1)).detail);
+    }
+
+    @Test
+    void corruptedLineIsRejected() {
+        String line = AuditLog.format(3, event("rate 80.00"));
+        String body = line.substring(0, line.length() - 1);
+        assertNull(AuditLog.parse(body.replace("80.00", "90.00")));
+        assertNull(AuditLog.parse(body.substring(0, body.length() / 2)));
+        assertNull(AuditLog.parse(""));
+    }
+
+    @Test
+    void tornLastLineIsCutOff() {
+        String first = AuditLog.format(10, event("one"));
+        String second = AuditLog.format(11, event("two"));
+        String torn = AuditLog.format(12, event("three"));
+        byte[] bytes = (first + second + torn.substring(0, torn.length() - 5)).getBytes(StandardCharsets.UTF_8);
+
+        long[] lastSeq = {9};
+        int valid = AuditLog.intactLength(bytes, lastSeq);
+
+        assertEquals((first + second).getBytes(StandardCharsets.UTF_8).length, valid);
+        assertEquals(11, lastSeq[0]);
+    }
+
+    @Test
+    void corruptLineEndsTheIntactPrefix() {
+        String first = AuditLog.format(1, event("one"));
+        String second = AuditLog.format(2, event("two")).replace("two", "tw0");
+        String third = AuditLog.format(3, event("three"));
+        byte[] bytes = (first + second + third).getBytes(StandardCharsets.UTF_8);
+
+        long[] lastSeq = {0};
+        assertEquals(first.getBytes(StandardCharsets.UTF_8).length, AuditLog.intactLength(bytes, lastSeq));
+        assertEquals(1, lastSeq[0]);
+    }
+
+    @Test
+    void emptySegmentKeepsTheStartingSeq() {
+        long[] lastSeq = {99};
+        assertEquals(0, AuditLog.intactLength(new byte[0], lastSeq));
+        assertEquals(99, lastSeq[0]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotelmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityEngineTest {
+
+    private static final LocalDate JUNE_10 = LocalDate.of(2030, 6, 10);
+    private static final LocalDate JUNE_14 = LocalDate.of(2030, 6, 14);
+
+    private static AvailabilityEngine engineWithStay() {
+        AvailabilityEngine engine = new AvailabilityEngine();
+        engine.putRoom(101, 1);
+        engine.putReservation(7, 101, JUNE_10, JUNE_14);
+        return engine;
+    }
+
+    @Test
+    void checkOutDayIsFreeForTheNextCheckIn() {
+        AvailabilityEngine engine = engineWithStay();
+        assertTrue(engine.isFree(101, JUNE_14, JUNE_14.plusDays(2), null));
+    }
+
+    @Test
+    void stayEndingOnCheckInDayDoesNotOverlap() {
+        AvailabilityEngine engine = engineWithStay();
+        assertTrue(engine.isFree(101, JUNE_10.minusDays(3), JUNE_10, null));
+    }
+
+    @Test
+    void oneNightInsideOrAtEitherEdgeOverlaps() {
+        AvailabilityEngine engine = engineWithStay();
+        assertFalse(engine.isFree(101, JUNE_10, JUNE_10.plusDays(1), null));
+        assertFalse(engine.isFree(101, JUNE_14.minusDays(1), JUNE_14, null));
+        assertFalse(engine.isFree(101, JUNE_10.minusDays(1), JUNE_10.plusDays(1), null));
+        assertFalse(engine.isFree(101, JUNE_10.minusDays(5), JUNE_14.plusDays(5), null));
+    }
+
+    @Test
+    void excludedReservationDoesNotConflictWithItself() {
+        AvailabilityEngine engine = engineWithStay();
+        assertTrue(engine.isFree(101, JUNE_10.plusDays(1), JUNE_14.plusDays(1), 7));
+        assertFalse(engine.isFree(101, JUNE_10.plusDays(1), JUNE_14.plusDays(1), 8));
+    }
+
+    @Test
+    void longEarlierStayIsFoundBehindShorterLaterOnes() {
+        AvailabilityEngine engine = engineWithStay();
+        engine.putReservation(8, 101, JUNE_10.minusDays(20), JUNE_14.plusDays(20));
+        engine.putReservation(9, 101, JUNE_14.plusDays(1), JUNE_14.plusDays(2));
+        assertFalse(engine.isFree(101, JUNE_14.plusDays(5), JUNE_14.plusDays(6), null));
+    }
+
+    @Test
+    void freeRoomsFiltersByHotelAndFollowsRemovals() {
+        AvailabilityEngine engine = engineWithStay();
+        engine.putRoom(102, 1);
+        engine.putRoom(201, 2);
+        assertArrayEquals(new int[] {102}, engine.freeRooms(1, JUNE_10, JUNE_14, null));
+        assertArrayEquals(new int[] {102, 201}, engine.freeRooms(null, JUNE_10, JUNE_14, null));
+
+        engine.removeReservation(7, 101);
+        assertArrayEquals(new int[] {101, 102}, engine.freeRooms(1, JUNE_10, JUNE_14, null));
+    }
+
+    @Test
+    void unknownRoomIsNeverFree() {
+        assertFalse(engineWithStay().isFree(999, JUNE_10, JUNE_14, null));
+    }
+}
@@ -0,0 +1,109 @@
+package com.hotelmanagement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarWriterTest {
+
+    private static final List<String> NAMES = List.of("id", "total", "rate", "paid", "guest", "note", "day");
+    private static final List<ColumnarFormat.Type> TYPES = List.of(ColumnarFormat.Type.INT,
+            ColumnarFormat.Type.LONG, ColumnarFormat.Type.DOUBLE, ColumnarFormat.Type.BOOLEAN,
+            ColumnarFormat.Type.STRING, ColumnarFormat.Type.STRING, ColumnarFormat.Type.DATE);
+
+    @TempDir
+    Path dir;
+
+    // Row i of the test file: keys that jump backwards now and then, a few repeated strings, some nulls
+    private static int id(int i) {
+        return i % 1000 == 999 ? -i : i * 3;
+    }
+
+    private static String guest(int i) {
+        return i % 11 == 0 ? null : "guest-" + (i % 5);
+    }
+
+    private static String note(int i) {
+        return i % 7 == 0 ? null : "note " + i;
+    }
+
+    private Path write(int rows) throws IOException {
+        Path file = dir.resolve("export.hcol");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                ColumnarWriter writer = new ColumnarWriter(channel, NAMES, TYPES)) {
+            for (int i = 0; i < rows; i++) {
+                writer.putInt(0, id(i));
+                if (i % 13 == 0) {
+                    writer.putNull(1);
+                } else {
+                    writer.putLong(1, Long.MAX_VALUE / (i + 1) * (i % 2 == 0 ? 1 : -1));
+                }
+                writer.putDouble(2, i * 0.25);
+                writer.putBoolean(3, i % 3 == 0);
+                writer.putString(4, guest(i));
+                writer.putString(5, note(i));
+                writer.putDate(6, 20_000 + i % 400);
+                writer.endRow();
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void rowsRoundTripAcrossRowGroups() throws IOException {
+        int rows = ColumnarWriter.ROW_GROUP_SIZE + 1234;
+        try (ColumnarReader reader = new ColumnarReader(write(rows))) {
+            assertEquals(NAMES, reader.getColumnNames());
+            assertEquals(TYPES, reader.getColumnTypes());
+            assertEquals(rows, reader.getRowCount());
+            assertEquals(2, reader.getRowGroupCount());
+
+            int i = 0;
+            for (int group = 0; group < reader.getRowGroupCount(); group++) {
+                ColumnarReader.RowGroup rowGroup = reader.readRowGroup(group);
+                for (int row = 0; row < rowGroup.getRowCount(); row++, i++) {
+                    assertEquals(id(i), rowGroup.ints(0)[row]);
+                    if (i % 13 == 0) {
+                        assertTrue(rowGroup.isNull(1, row));
+                    } else {
+                        assertFalse(rowGroup.isNull(1, row));
+                        assertEquals(Long.MAX_VALUE / (i + 1) * (i % 2 == 0 ? 1 : -1), rowGroup.longs(1)[row]);
+                    }
+                    assertEquals(i * 0.25, rowGroup.doubles(2)[row]);
+                    assertEquals(i % 3 == 0, rowGroup.booleans(3)[row]);
+                    assertEquals(guest(i), rowGroup.strings(4)[row]);
+                    assertEquals(note(i), rowGroup.strings(5)[row]);
+                    assertEquals(20_000 + i % 400, rowGroup.ints(6)[row]);
+                }
+            }
+            assertEquals(rows, i);
+        }
+    }
+
+    @Test
+    void emptyFileHasColumnsButNoRows() throws IOException {
+        try (ColumnarReader reader = new ColumnarReader(write(0))) {
+            assertEquals(NAMES, reader.getColumnNames());
+            assertEquals(0, reader.getRowCount());
+            assertEquals(0, reader.getRowGroupCount());
+            assertEquals(4, reader.columnIndex("guest"));
+        }
+    }
+
+    @Test
+    void unknownColumnIsRejected() throws IOException {
+        try (ColumnarReader reader = new ColumnarReader(write(1))) {
+            assertThrows(IllegalArgumentException.class, () -> reader.columnIndex("missing"));
+        }
+    }
+}
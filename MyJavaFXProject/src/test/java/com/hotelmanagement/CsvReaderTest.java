@@ -0,0 +1,72 @@
+package com.hotelmanagement;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void plainFieldsAndEmptyFields() throws IOException {
+        assertEquals(List.of(List.of("1", "Grand", ""), List.of("", "", "x")), readAll("1,Grand,\n,,x\n"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        List<List<String>> records = readAll("\"Smith, John\",\"say \"\"hi\"\"\",\"two\nlines\"\n");
+        assertEquals(List.of(List.of("Smith, John", "say \"hi\"", "two\nlines")), records);
+    }
+
+    @Test
+    void emptyQuotedFieldIsEmpty() throws IOException {
+        assertEquals(List.of(List.of("", "a")), readAll("\"\",a"));
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of(List.of("5\" tall", "b")), readAll("5\" tall,b\n"));
+    }
+
+    @Test
+    void crlfAndMissingFinalNewline() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), readAll("a,b\r\nc,d"));
+    }
+
+    @Test
+    void byteOrderMarkIsSkipped() throws IOException {
+        assertEquals(List.of(List.of("id", "name")), readAll("\uFEFFid,name\n"));
+    }
+
+    @Test
+    void recordLineCountsLineBreaksInsideQuotes() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("\"a\nb\",c\nd,e\n"))) {
+            reader.next();
+            assertEquals(1, reader.getRecordLine());
+            reader.next();
+            assertEquals(3, reader.getRecordLine());
+        }
+    }
+
+    @Test
+    void unterminatedQuoteNamesTheLine() {
+        IOException e = assertThrows(IOException.class, () -> readAll("a,b\n\"open,c\n"));
+        assertEquals("Line 2: unterminated quoted field", e.getMessage());
+    }
+}
@@ -0,0 +1,51 @@
+package com.hotelmanagement;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTest {
+
+    private final ObservableList<Hotel> hotels = FXCollections.observableArrayList(
+            new Hotel(1, "Grand Plaza", "Opera views", "Vienna", 4.5),
+            new Hotel(2, "Seaside Inn", null, "Lisbon", 3.9),
+            new Hotel(3, "Plaza Nova", null, "Porto", 4.1));
+    private final SearchIndex<Hotel> index = new SearchIndex<>(hotels, Hotel::getName, Hotel::getAddress);
+
+    private List<Integer> matches(String query) {
+        index.setQuery(query);
+        return hotels.stream().filter(index::matches).map(Hotel::getId).toList();
+    }
+
+    @Test
+    void matchesCaseInsensitiveSubstringsOfAnyField() {
+        assertEquals(List.of(1, 3), matches("PLAZA"));
+        assertEquals(List.of(2), matches("lisb"));
+        assertEquals(List.of(3), matches("a nov"));
+    }
+
+    @Test
+    void shortQueriesScanAndBlankMatchesAll() {
+        assertEquals(List.of(2, 3), matches("o"));
+        assertEquals(List.of(1, 2, 3), matches("  "));
+    }
+
+    @Test
+    void queryDoesNotMatchAcrossFields() {
+        assertEquals(List.of(), matches("plazavienna"));
+        assertEquals(List.of(), matches("zav"));
+    }
+
+    @Test
+    void activeQueryFollowsListChanges() {
+        assertEquals(List.of(1, 3), matches("plaza"));
+        hotels.add(new Hotel(4, "Plaza Royal", null, "Madrid", 4.0));
+        hotels.remove(0);
+        hotels.set(0, new Hotel(2, "Seaside Plaza", null, "Lisbon", 3.9));
+        assertEquals(List.of(2, 3, 4), hotels.stream().filter(index::matches).map(Hotel::getId).toList());
+    }
+}